@@ -19,3 +19,17 @@
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
 #-renamesourcefileattribute SourceFile
+
+# The sheet behaviors are inflated from the app:layout_behavior attribute of the layouts, by name and through
+# their (Context, AttributeSet) constructor.
+-keep public class * extends android.support.design.widget.CoordinatorLayout$Behavior {
+    public <init>(android.content.Context, android.util.AttributeSet);
+    public <init>();
+}
+
+# SheetLog prints nothing in release (SHEET_LOG_LEVEL above ASSERT): its calls, and the arguments built only
+# for them, are removed.
+-assumenosideeffects class com.smobee.android.scrollsheetbehaviour.widget.SheetLog {
+    static void v(...);
+    static void d(...);
+}
@@ -0,0 +1,215 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.Window;
+
+import com.smobee.android.scrollsheetbehaviour.MainActivity;
+import com.smobee.android.scrollsheetbehaviour.R;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the cost of the frames of a drag of the south sheet of {@link MainActivity} moved by its layout
+ * bounds and moved by its translation, with and without a layout of the sheet on each frame.
+ * <p>
+ * The drag is driven by the nested pre-scrolls a RecyclerView would dispatch, one per frame. The results
+ * (median and 90th percentile of the move, of the layout and of the whole frame, in microseconds) are logged
+ * under the {@value #LOG_TAG} tag. Needs the FrameMetrics of API 24.
+ */
+@RunWith(AndroidJUnit4.class)
+@TargetApi(Build.VERSION_CODES.N)
+public class SheetMovementBenchmark
+{
+    private static final String LOG_TAG = "SheetMovementBenchmark";
+    
+    private static final int WARMUP_FRAMES = 60;
+    
+    private static final int FRAMES = 300;
+    
+    // the drag goes back and forth, STEP pixels per frame, changing direction every STROKE_FRAMES frames
+    private static final int STEP = 6;
+    
+    private static final int STROKE_FRAMES = 30;
+    
+    private Instrumentation mInstrumentation;
+    
+    private Activity mActivity;
+    
+    private HandlerThread mMetricsThread;
+    
+    @Before
+    public void setUp()
+    {
+        Assume.assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N);
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        Intent intent = new Intent(Intent.ACTION_MAIN);
+        intent.setClassName(mInstrumentation.getTargetContext(), MainActivity.class.getName());
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        mActivity = mInstrumentation.startActivitySync(intent);
+        mMetricsThread = new HandlerThread(LOG_TAG);
+        mMetricsThread.start();
+    }
+    
+    @After
+    public void tearDown()
+    {
+        if (mMetricsThread != null)
+        {
+            mMetricsThread.quit();
+        }
+        if (mActivity != null)
+        {
+            mActivity.finish();
+        }
+    }
+    
+    @Test
+    public void drag_offset() throws InterruptedException
+    {
+        drag(SheetBehavior.MOVEMENT_OFFSET, false);
+    }
+    
+    @Test
+    public void drag_translation() throws InterruptedException
+    {
+        drag(SheetBehavior.MOVEMENT_TRANSLATION, false);
+    }
+    
+    @Test
+    public void dragWithLayout_offset() throws InterruptedException
+    {
+        drag(SheetBehavior.MOVEMENT_OFFSET, true);
+    }
+    
+    @Test
+    public void dragWithLayout_translation() throws InterruptedException
+    {
+        drag(SheetBehavior.MOVEMENT_TRANSLATION, true);
+    }
+    
+    private void drag(final int movement, final boolean layoutEachFrame) throws InterruptedException
+    {
+        final CoordinatorLayout coordinatorLayout = (CoordinatorLayout) mActivity.findViewById(R.id.coordinator_layout);
+        final View sheet = mActivity.findViewById(R.id.south_sheet);
+        final SheetBehavior<View> behavior = SheetBehavior.from(sheet);
+        mInstrumentation.runOnMainSync(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                behavior.setMovement(movement);
+                behavior.setState(SheetBehavior.STATE_COLLAPSED);
+            }
+        });
+        mInstrumentation.waitForIdleSync();
+        
+        final long[] moveNanos = new long[FRAMES];
+        final long[] layoutNanos = new long[FRAMES];
+        final long[] totalNanos = new long[FRAMES];
+        final int[] metricsCount = new int[1];
+        final CountDownLatch done = new CountDownLatch(1);
+        final Window window = mActivity.getWindow();
+        final Window.OnFrameMetricsAvailableListener metricsListener = new Window.OnFrameMetricsAvailableListener()
+        {
+            @Override
+            public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation)
+            {
+                int index = metricsCount[0] - WARMUP_FRAMES;
+                metricsCount[0]++;
+                if (index >= 0 && index < FRAMES)
+                {
+                    layoutNanos[index] = frameMetrics.getMetric(FrameMetrics.LAYOUT_MEASURE_DURATION);
+                    totalNanos[index] = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+                    if (index == FRAMES - 1)
+                    {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+        
+        mInstrumentation.runOnMainSync(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                window.addOnFrameMetricsAvailableListener(metricsListener, new Handler(mMetricsThread.getLooper()));
+                behavior.onStartNestedScroll(coordinatorLayout, sheet, sheet, sheet, View.SCROLL_AXIS_VERTICAL);
+                Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback()
+                {
+                    private final int[] mConsumed = new int[2];
+                    
+                    private int mFrame;
+                    
+                    @Override
+                    public void doFrame(long frameTimeNanos)
+                    {
+                        // a positive dy opens the south sheet
+                        int dy = (mFrame / STROKE_FRAMES) % 2 == 0 ? STEP : -STEP;
+                        long start = System.nanoTime();
+                        behavior.onNestedPreScroll(coordinatorLayout, sheet, sheet, 0, dy, mConsumed);
+                        int index = mFrame - WARMUP_FRAMES;
+                        if (index >= 0 && index < FRAMES)
+                        {
+                            moveNanos[index] = System.nanoTime() - start;
+                        }
+                        if (layoutEachFrame)
+                        {
+                            sheet.requestLayout();
+                        }
+                        mFrame++;
+                        if (done.getCount() > 0)
+                        {
+                            Choreographer.getInstance().postFrameCallback(this);
+                        }
+                    }
+                });
+            }
+        });
+        
+        boolean completed = done.await(30, TimeUnit.SECONDS);
+        mInstrumentation.runOnMainSync(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                window.removeOnFrameMetricsAvailableListener(metricsListener);
+                behavior.onStopNestedScroll(coordinatorLayout, sheet, sheet);
+            }
+        });
+        assertTrue("frame metrics not received", completed);
+        
+        String name = (movement == SheetBehavior.MOVEMENT_TRANSLATION ? "translation" : "offset") + (layoutEachFrame ? " with layout" : "");
+        Log.i(LOG_TAG, String.format("%s: move %s, layout %s, frame %s", name, percentiles(moveNanos), percentiles(layoutNanos), percentiles(totalNanos)));
+    }
+    
+    private static String percentiles(long[] nanos)
+    {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("p50 %dus p90 %dus", sorted[sorted.length / 2] / 1000, sorted[sorted.length * 9 / 10] / 1000);
+    }
+}
@@ -0,0 +1,191 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays a recorded-like drag over four sheets and compares the cost per event of the velocity tracking:
+ * one VelocityTracker per sheet, fed by both the intercept and the handling of each event and computed by
+ * each sheet at the release, against the {@link SheetVelocitySource} shared by the sheets of the parent.
+ * <p>
+ * The ViewDragHelper of the sheet that takes the gesture still feeds its own VelocityTracker, which it keeps
+ * private: the shared source is also measured with that tracker, the cost actually paid by a drag.
+ * <p>
+ * The results (nanoseconds per event, median of the rounds) are logged under the {@value #LOG_TAG} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SheetVelocityBenchmark
+{
+    private static final String LOG_TAG = "SheetVelocityBenchmark";
+    
+    private static final int SHEETS = 4;
+    
+    // a 600 ms drag sampled at 120 Hz, then the release
+    private static final int MOVES = 72;
+    
+    private static final int ROUNDS = 200;
+    
+    private static final float MAXIMUM_VELOCITY = 8000f;
+    
+    private MotionEvent[] mGesture;
+    
+    private View[] mSheets;
+    
+    @Before
+    public void setUp()
+    {
+        Context context = InstrumentationRegistry.getTargetContext();
+        FrameLayout parent = new FrameLayout(context);
+        mSheets = new View[SHEETS];
+        for (int i = 0; i < SHEETS; i++)
+        {
+            mSheets[i] = new View(context);
+            parent.addView(mSheets[i]);
+        }
+        mGesture = new MotionEvent[MOVES + 2];
+        long downTime = SystemClock.uptimeMillis();
+        float y = 1500f;
+        mGesture[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 540f, y, 0);
+        for (int i = 1; i <= MOVES; i++)
+        {
+            // decelerating upwards drag
+            y -= 30f - i * 0.3f;
+            mGesture[i] = MotionEvent.obtain(downTime, downTime + i * 8, MotionEvent.ACTION_MOVE, 540f, y, 0);
+        }
+        mGesture[MOVES + 1] = MotionEvent.obtain(downTime, downTime + (MOVES + 1) * 8, MotionEvent.ACTION_UP, 540f, y, 0);
+    }
+    
+    @After
+    public void tearDown()
+    {
+        for (MotionEvent event : mGesture)
+        {
+            event.recycle();
+        }
+    }
+    
+    @Test
+    public void replay_perSheetTrackersVersusSharedSource()
+    {
+        VelocityTracker[] trackers = new VelocityTracker[SHEETS];
+        for (int i = 0; i < SHEETS; i++)
+        {
+            trackers[i] = VelocityTracker.obtain();
+        }
+        long[] perSheet = new long[ROUNDS];
+        long[] shared = new long[ROUNDS];
+        long[] sharedWithHelper = new long[ROUNDS];
+        VelocityTracker helperTracker = VelocityTracker.obtain();
+        float perSheetVelocity = 0f;
+        float sharedVelocity = 0f;
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            long start = System.nanoTime();
+            perSheetVelocity = replayPerSheet(trackers);
+            perSheet[round] = (System.nanoTime() - start) / mGesture.length;
+            
+            start = System.nanoTime();
+            sharedVelocity = replayShared();
+            shared[round] = (System.nanoTime() - start) / mGesture.length;
+            
+            start = System.nanoTime();
+            replaySharedWithHelper(helperTracker);
+            sharedWithHelper[round] = (System.nanoTime() - start) / mGesture.length;
+        }
+        for (VelocityTracker tracker : trackers)
+        {
+            tracker.recycle();
+        }
+        helperTracker.recycle();
+        assertEquals(perSheetVelocity, sharedVelocity, 1f);
+        long perSheetMedian = median(perSheet);
+        long sharedMedian = median(shared);
+        long sharedWithHelperMedian = median(sharedWithHelper);
+        Log.i(LOG_TAG, String.format("%d sheets: per sheet trackers %dns/event, shared source %dns/event (%.1fx), shared source and the tracker of the dragging ViewDragHelper %dns/event (%.1fx)", SHEETS, perSheetMedian, sharedMedian, (float) perSheetMedian / Math.max(1L, sharedMedian), sharedWithHelperMedian, (float) perSheetMedian / Math.max(1L, sharedWithHelperMedian)));
+    }
+    
+    private float replayPerSheet(VelocityTracker[] trackers)
+    {
+        float velocity = 0f;
+        for (MotionEvent event : mGesture)
+        {
+            for (VelocityTracker tracker : trackers)
+            {
+                if (event.getActionMasked() == MotionEvent.ACTION_DOWN)
+                {
+                    tracker.clear();
+                }
+                // onInterceptTouchEvent, then onTouchEvent
+                tracker.addMovement(event);
+                tracker.addMovement(event);
+            }
+        }
+        for (VelocityTracker tracker : trackers)
+        {
+            tracker.computeCurrentVelocity(1000, MAXIMUM_VELOCITY);
+            velocity = tracker.getYVelocity(0);
+        }
+        return velocity;
+    }
+    
+    private float replayShared()
+    {
+        float velocity = 0f;
+        for (MotionEvent event : mGesture)
+        {
+            for (View sheet : mSheets)
+            {
+                SheetVelocitySource source = SheetVelocitySource.from(sheet);
+                source.addMovement(event);
+                source.addMovement(event);
+            }
+        }
+        for (View sheet : mSheets)
+        {
+            velocity = SheetVelocitySource.from(sheet).getVelocity(SheetAxis.VERTICAL, 0, MAXIMUM_VELOCITY);
+        }
+        return velocity;
+    }
+    
+    /**
+     * The shared source, and the VelocityTracker of the ViewDragHelper of the one sheet the gesture lands on:
+     * fed by shouldInterceptTouchEvent and processTouchEvent, computed at the release.
+     */
+    private float replaySharedWithHelper(VelocityTracker helperTracker)
+    {
+        for (MotionEvent event : mGesture)
+        {
+            if (event.getActionMasked() == MotionEvent.ACTION_DOWN)
+            {
+                helperTracker.clear();
+            }
+            helperTracker.addMovement(event);
+            helperTracker.addMovement(event);
+        }
+        helperTracker.computeCurrentVelocity(1000, MAXIMUM_VELOCITY);
+        return replayShared();
+    }
+    
+    private static long median(long[] values)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -4,25 +4,21 @@ package com.smobee.android.scrollsheetbehaviour;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.design.widget.CoordinatorLayout;
-import android.support.v4.view.GestureDetectorCompat;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.Log;
-import android.view.GestureDetector;
-import android.view.MotionEvent;
 import android.view.View;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.FrameLayout;
 
 import com.smobee.android.scrollsheetbehaviour.widget.SheetBehavior;
-import com.smobee.android.scrollsheetbehaviour.widget.SouthSheetBehavior;
-import android.view.GestureDetector.OnGestureListener;
+import com.smobee.android.scrollsheetbehaviour.widget.SheetCoordinator;
 
 import java.util.ArrayList;
 
-public class MainActivity extends AppCompatActivity implements OnGestureListener
+public class MainActivity extends AppCompatActivity
 {
     public static final String LOG_TAG = "Main";
     FrameLayout southSheet;
@@ -49,9 +45,9 @@ public class MainActivity extends AppCompatActivity implements OnGestureListener
     
     private CoordinatorLayout  coordinatorLayout;
     
-    private SheetsManager sheetsManager = new SheetsManager();
+    private SheetCoordinator sheetCoordinator = new SheetCoordinator();
     
-    private GestureDetector gestureDetector;
+    private SheetLogCallback sheetLogCallback = new SheetLogCallback();
     
     
     @Override
@@ -124,33 +120,25 @@ public class MainActivity extends AppCompatActivity implements OnGestureListener
     
         this.coordinatorLayout = (CoordinatorLayout) findViewById(R.id.coordinator_layout);
     
-        gestureDetector = new GestureDetector(this, this);
-    
-        // SOUTH
-        SheetBehavior southSheetBehavior = SheetBehavior.from(southSheet);
-        this.sheetsManager.setSouthSheetBehavior(southSheetBehavior);
-    
-        // NORTH
-        SheetBehavior northSheetBehavior = SheetBehavior.from(northSheet);
-        this.sheetsManager.setNorthSheetBehavior(northSheetBehavior);
-    
-        // WEST
-        SheetBehavior westSheetBehavior = SheetBehavior.from(westSheet);
-        this.sheetsManager.setWestSheetBehavior(westSheetBehavior);
-    
-        // EAST
-        SheetBehavior eastSheetBehavior = SheetBehavior.from(eastSheet);
-        this.sheetsManager.setEastSheetBehavior(eastSheetBehavior);
-    
-        this.sheetsManager.setup();
+        // the edge drags, enabled in the layout, only reveal a sheet while all of them are hidden
+        this.sheetCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_BLOCKING);
+        setupSheet(southSheet);
+        setupSheet(northSheet);
+        setupSheet(westSheet);
+        setupSheet(eastSheet);
     }
     
-    
-    @Override
-    public boolean onTouchEvent(MotionEvent motionEvent) {
-        return gestureDetector.onTouchEvent(motionEvent);
+    private void setupSheet(View sheet)
+    {
+        SheetBehavior sheetBehavior = SheetBehavior.from(sheet);
+        sheetBehavior.setSheetCallback(this.sheetLogCallback);
+        sheetBehavior.setState(SheetBehavior.STATE_HIDDEN);
+        sheetBehavior.setHideable(true);
+        sheetBehavior.setSkipCollapsed(true);
+        this.sheetCoordinator.register(sheetBehavior);
     }
     
+    
     @Override
     public boolean onCreateOptionsMenu(Menu menu)
     {
@@ -176,211 +164,8 @@ public class MainActivity extends AppCompatActivity implements OnGestureListener
         return super.onOptionsItemSelected(item);
     }
     
-    /**
-     * Notified when a tap occurs with the down {@link MotionEvent}
-     * that triggered it. This will be triggered immediately for
-     * every down event. All other events should be preceded by this.
-     *
-     * @param e The down motion event.
-     */
-    @Override
-    public boolean onDown(MotionEvent e)
-    {
-        Log.w(LOG_TAG, "onDown event [" + e + "]");
-        return false;
-    }
-    
-    /**
-     * The user has performed a down {@link MotionEvent} and not performed
-     * a move or up yet. This event is commonly used to provide visual
-     * feedback to the user to let them know that their action has been
-     * recognized i.e. highlight an element.
-     *
-     * @param e The down motion event
-     */
-    @Override
-    public void onShowPress(MotionEvent e)
+    private static class SheetLogCallback implements SheetBehavior.SheetCallback
     {
-        Log.w(LOG_TAG, "onShowPress event [" + e + "]");
-    }
-    
-    /**
-     * Notified when a tap occurs with the up {@link MotionEvent}
-     * that triggered it.
-     *
-     * @param e The up motion event that completed the first tap
-     * @return true if the event is consumed, else false
-     */
-    @Override
-    public boolean onSingleTapUp(MotionEvent e)
-    {
-        Log.w(LOG_TAG, "onSingleTapUp event [" + e + "]");
-        return false;
-    }
-    
-    /**
-     * Notified when a scroll occurs with the initial on down {@link MotionEvent} and the
-     * current move {@link MotionEvent}. The distance in x and y is also supplied for
-     * convenience.
-     *
-     * @param e1        The first down motion event that started the scrolling.
-     * @param e2        The move motion event that triggered the current onScroll.
-     * @param distanceX The distance along the X axis that has been scrolled since the last
-     *                  call to onScroll. This is NOT the distance between {@code e1}
-     *                  and {@code e2}.
-     * @param distanceY The distance along the Y axis that has been scrolled since the last
-     *                  call to onScroll. This is NOT the distance between {@code e1}
-     *                  and {@code e2}.
-     * @return true if the event is consumed, else false
-     */
-    @Override
-    public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY)
-    {
-        Log.w(LOG_TAG, "onScroll e1 [" + e1 + "] e2 [" + e2 + "] distanceX [" + distanceX + "] distanceY [" + distanceY + "]");
-        return false;
-    }
-    
-    /**
-     * Notified when a long press occurs with the initial on down {@link MotionEvent}
-     * that trigged it.
-     *
-     * @param e The initial on down motion event that started the longpress.
-     */
-    @Override
-    public void onLongPress(MotionEvent e)
-    {
-        Log.w(LOG_TAG, "onLongPress e [" + e + "]");
-    }
-    
-    /**
-     * Notified of a fling event when it occurs with the initial on down {@link MotionEvent}
-     * and the matching up {@link MotionEvent}. The calculated velocity is supplied along
-     * the x and y axis in pixels per second.
-     *
-     * @param e1        The first down motion event that started the fling.
-     * @param e2        The move motion event that triggered the current onFling.
-     * @param velocityX The velocity of this fling measured in pixels per second
-     *                  along the x axis.
-     * @param velocityY The velocity of this fling measured in pixels per second
-     *                  along the y axis.
-     * @return true if the event is consumed, else false
-     */
-    @Override
-    public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY)
-    {
-        Log.w(LOG_TAG, "onFling e1 [" + e1 + "] e2 [" + e2 + "] velocityX [" + velocityX + "] velocityY [" + velocityY + "]");
-    
-        if(e1.getY() - e2.getY() > 50){
-            return this.sheetsManager.handleSwipe(SheetsManager.SwipeDirection.SWIPE_UP);
-        }
-        else if(e2.getY() - e1.getY() > 50){
-            return this.sheetsManager.handleSwipe(SheetsManager.SwipeDirection.SWIPE_DOWN);
-        }
-        else if(e1.getX() - e2.getX() > 50){
-            return this.sheetsManager.handleSwipe(SheetsManager.SwipeDirection.SWIPE_LEFT);
-        }
-        else if(e2.getX() - e1.getX() > 50) {
-            return this.sheetsManager.handleSwipe(SheetsManager.SwipeDirection.SWIPE_RIGHT);
-        }
-        else {
-            return false;
-        }
-    }
-    
-    
-    private static class SheetsManager implements SheetBehavior.SheetCallback
-    {
-        
-        public enum SwipeDirection
-        {
-            SWIPE_LEFT,
-            SWIPE_RIGHT,
-            SWIPE_DOWN,
-            SWIPE_UP
-        }
-    
-        private SheetBehavior southSheetBehavior;
-        private SheetBehavior westSheetBehavior;
-        private SheetBehavior northSheetBehavior;
-        private SheetBehavior eastSheetBehavior;
-    
-    
-        public SheetBehavior getSouthSheetBehavior()
-        {
-            return southSheetBehavior;
-        }
-    
-        public void setSouthSheetBehavior(SheetBehavior southSheetBehavior)
-        {
-            if(this.southSheetBehavior != null)
-            {
-                this.southSheetBehavior.setSheetCallback(null);
-            }
-            
-            this.southSheetBehavior = southSheetBehavior;
-            if(this.southSheetBehavior != null)
-            {
-                this.southSheetBehavior.setSheetCallback(this);
-            }
-        }
-    
-        public SheetBehavior getWestSheetBehavior()
-        {
-            return westSheetBehavior;
-        }
-    
-        public void setWestSheetBehavior(SheetBehavior westSheetBehavior)
-        {
-            if(this.westSheetBehavior != null)
-            {
-                this.westSheetBehavior.setSheetCallback(null);
-            }
-    
-            this.westSheetBehavior = westSheetBehavior;
-            if(this.westSheetBehavior != null)
-            {
-                this.westSheetBehavior.setSheetCallback(this);
-            }
-        }
-    
-        public SheetBehavior getNorthSheetBehavior()
-        {
-            return northSheetBehavior;
-        }
-    
-        public void setNorthSheetBehavior(SheetBehavior northSheetBehavior)
-        {
-            if(this.northSheetBehavior != null)
-            {
-                this.northSheetBehavior.setSheetCallback(null);
-            }
-    
-            this.northSheetBehavior = northSheetBehavior;
-            if(this.northSheetBehavior != null)
-            {
-                this.northSheetBehavior.setSheetCallback(this);
-            }
-        }
-    
-        public SheetBehavior getEastSheetBehavior()
-        {
-            return eastSheetBehavior;
-        }
-    
-        public void setEastSheetBehavior(SheetBehavior eastSheetBehavior)
-        {
-            if(this.eastSheetBehavior != null)
-            {
-                this.eastSheetBehavior.setSheetCallback(null);
-            }
-    
-            this.eastSheetBehavior = eastSheetBehavior;
-            if(this.eastSheetBehavior != null)
-            {
-                this.eastSheetBehavior.setSheetCallback(this);
-            }
-        }
-    
         /**
          * Called when the west sheet changes its state.
          *
@@ -441,70 +226,5 @@ public class MainActivity extends AppCompatActivity implements OnGestureListener
         {
             Log.w(LOG_TAG, "onSheetSlide slideOffset [" + slideOffset + "] idenfifier [" + identifierName + "]");
         }
-    
-        
-        public void setup()
-        {
-            southSheetBehavior.setState(SheetBehavior.STATE_HIDDEN);
-            // southSheetBehavior.setPeekHeight(150);
-            southSheetBehavior.setHideable(true);
-            southSheetBehavior.setSkipCollapsed(true);
-    
-            northSheetBehavior.setState(SheetBehavior.STATE_HIDDEN);
-            // northSheetBehavior.setPeekHeight(150);
-            northSheetBehavior.setHideable(true);
-            northSheetBehavior.setSkipCollapsed(true);
-    
-            westSheetBehavior.setState(SheetBehavior.STATE_HIDDEN);
-            // westSheetBehavior.setPeekWidth(150);
-            westSheetBehavior.setHideable(true);
-            westSheetBehavior.setSkipCollapsed(true);
-    
-            eastSheetBehavior.setState(SheetBehavior.STATE_HIDDEN);
-            // eastSheetBehavior.setPeekWidth(150);
-            eastSheetBehavior.setHideable(true);
-            eastSheetBehavior.setSkipCollapsed(true);
-        }
-        
-        private boolean shouldHandleSwipe()
-        {
-            if(eastSheetBehavior.getState() == SheetBehavior.STATE_HIDDEN && westSheetBehavior.getState() == SheetBehavior.STATE_HIDDEN && southSheetBehavior.getState() == SheetBehavior.STATE_HIDDEN && northSheetBehavior.getState() == SheetBehavior.STATE_HIDDEN )
-                return true;
-            else
-                return false;
-        }
-        
-        public boolean handleSwipe(SwipeDirection direction)
-        {
-            if(this.shouldHandleSwipe())
-            {
-                switch (direction)
-                {
-                    case SWIPE_UP:
-                    {
-                        southSheetBehavior.setState(SheetBehavior.STATE_EXPANDED);
-                        return true;
-                    }
-                    case SWIPE_DOWN:
-                    {
-                        northSheetBehavior.setState(SheetBehavior.STATE_EXPANDED);
-                        return true;
-                    }
-                    case SWIPE_LEFT:
-                    {
-                        eastSheetBehavior.setState(SheetBehavior.STATE_EXPANDED);
-                        return true;
-                    }
-                    case SWIPE_RIGHT:
-                    {
-                        westSheetBehavior.setState(SheetBehavior.STATE_EXPANDED);
-                        return true;
-                    }
-                }
-                return false;
-            }
-            else
-                return false;
-        }
     }
 }
@@ -0,0 +1,333 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.ViewDragHelper;
+import android.view.VelocityTracker;
+import android.view.View;
+
+/**
+ * View access along the axis a sheet moves on. {@link SheetBehavior#setPosition(int)} and
+ * {@link SheetBehavior#setMovement(int)} bind one of the instances, so that the callbacks of the behavior do
+ * not test the orientation of the sheet on every event.
+ * <p>
+ * The offset of a sheet is its {@code top} (or {@code left}) on the screen: the layout position moved by
+ * {@link SheetBehavior#MOVEMENT_OFFSET}, or the fixed layout position plus the translation driven by
+ * {@link SheetBehavior#MOVEMENT_TRANSLATION}.
+ */
+abstract class SheetAxis
+{
+    static final SheetAxis VERTICAL = new SheetAxis(false, false)
+    {
+        @Override
+        int getOffset(View view)
+        {
+            return view.getTop();
+        }
+        
+        @Override
+        void offset(View view, int offset)
+        {
+            ViewCompat.offsetTopAndBottom(view, offset);
+        }
+        
+        @Override
+        int getLayoutPosition(View view)
+        {
+            return view.getTop();
+        }
+        
+        @Override
+        boolean canScroll(View view, int direction)
+        {
+            return view.canScrollVertically(direction);
+        }
+        
+        @Override
+        int select(int x, int y)
+        {
+            return y;
+        }
+        
+        @Override
+        float select(float x, float y)
+        {
+            return y;
+        }
+        
+        @Override
+        float getVelocity(VelocityTracker tracker, int pointerId)
+        {
+            return tracker.getYVelocity(pointerId);
+        }
+        
+        @Override
+        boolean smoothSlideViewTo(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.smoothSlideViewTo(view, view.getLeft(), offset);
+        }
+        
+        @Override
+        boolean settleCapturedViewAt(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.settleCapturedViewAt(view.getLeft(), offset);
+        }
+    };
+    
+    static final SheetAxis HORIZONTAL = new SheetAxis(true, false)
+    {
+        @Override
+        int getOffset(View view)
+        {
+            return view.getLeft();
+        }
+        
+        @Override
+        void offset(View view, int offset)
+        {
+            ViewCompat.offsetLeftAndRight(view, offset);
+        }
+        
+        @Override
+        int getLayoutPosition(View view)
+        {
+            return view.getLeft();
+        }
+        
+        @Override
+        boolean canScroll(View view, int direction)
+        {
+            return view.canScrollHorizontally(direction);
+        }
+        
+        @Override
+        int select(int x, int y)
+        {
+            return x;
+        }
+        
+        @Override
+        float select(float x, float y)
+        {
+            return x;
+        }
+        
+        @Override
+        float getVelocity(VelocityTracker tracker, int pointerId)
+        {
+            return tracker.getXVelocity(pointerId);
+        }
+        
+        @Override
+        boolean smoothSlideViewTo(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.smoothSlideViewTo(view, offset, view.getTop());
+        }
+        
+        @Override
+        boolean settleCapturedViewAt(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.settleCapturedViewAt(offset, view.getTop());
+        }
+    };
+    
+    static final SheetAxis VERTICAL_TRANSLATION = new SheetAxis(false, true)
+    {
+        @Override
+        int getOffset(View view)
+        {
+            return view.getTop() + Math.round(view.getTranslationY());
+        }
+        
+        @Override
+        void offset(View view, int offset)
+        {
+            view.setTranslationY(view.getTranslationY() + offset);
+        }
+        
+        @Override
+        int getLayoutPosition(View view)
+        {
+            return view.getTop();
+        }
+        
+        @Override
+        void layoutAt(View view, int offset)
+        {
+            view.setTranslationY(offset);
+        }
+        
+        @Override
+        boolean canScroll(View view, int direction)
+        {
+            return view.canScrollVertically(direction);
+        }
+        
+        @Override
+        int select(int x, int y)
+        {
+            return y;
+        }
+        
+        @Override
+        float select(float x, float y)
+        {
+            return y;
+        }
+        
+        @Override
+        float getVelocity(VelocityTracker tracker, int pointerId)
+        {
+            return tracker.getYVelocity(pointerId);
+        }
+        
+        @Override
+        boolean smoothSlideViewTo(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.smoothSlideViewTo(view, view.getLeft(), offset - Math.round(view.getTranslationY()));
+        }
+        
+        @Override
+        boolean settleCapturedViewAt(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.settleCapturedViewAt(view.getLeft(), offset - Math.round(view.getTranslationY()));
+        }
+    };
+    
+    static final SheetAxis HORIZONTAL_TRANSLATION = new SheetAxis(true, true)
+    {
+        @Override
+        int getOffset(View view)
+        {
+            return view.getLeft() + Math.round(view.getTranslationX());
+        }
+        
+        @Override
+        void offset(View view, int offset)
+        {
+            view.setTranslationX(view.getTranslationX() + offset);
+        }
+        
+        @Override
+        int getLayoutPosition(View view)
+        {
+            return view.getLeft();
+        }
+        
+        @Override
+        void layoutAt(View view, int offset)
+        {
+            view.setTranslationX(offset);
+        }
+        
+        @Override
+        boolean canScroll(View view, int direction)
+        {
+            return view.canScrollHorizontally(direction);
+        }
+        
+        @Override
+        int select(int x, int y)
+        {
+            return x;
+        }
+        
+        @Override
+        float select(float x, float y)
+        {
+            return x;
+        }
+        
+        @Override
+        float getVelocity(VelocityTracker tracker, int pointerId)
+        {
+            return tracker.getXVelocity(pointerId);
+        }
+        
+        @Override
+        boolean smoothSlideViewTo(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.smoothSlideViewTo(view, offset - Math.round(view.getTranslationX()), view.getTop());
+        }
+        
+        @Override
+        boolean settleCapturedViewAt(ViewDragHelper helper, View view, int offset)
+        {
+            return helper.settleCapturedViewAt(offset - Math.round(view.getTranslationX()), view.getTop());
+        }
+    };
+    
+    final boolean horizontal;
+    
+    // true when the sheet keeps its layout position and moves by its translation
+    final boolean translation;
+    
+    private SheetAxis(boolean horizontal, boolean translation)
+    {
+        this.horizontal = horizontal;
+        this.translation = translation;
+    }
+    
+    static SheetAxis of(boolean horizontal, boolean translation)
+    {
+        if (translation)
+        {
+            return horizontal ? HORIZONTAL_TRANSLATION : VERTICAL_TRANSLATION;
+        }
+        return horizontal ? HORIZONTAL : VERTICAL;
+    }
+    
+    /**
+     * @return The offset of the sheet on the screen: the {@code left} of a horizontal sheet, the {@code top}
+     *         of a vertical one, translation included.
+     */
+    abstract int getOffset(View view);
+    
+    /**
+     * Moves the view along the axis.
+     */
+    abstract void offset(View view, int offset);
+    
+    /**
+     * @return The {@code left} of a horizontal sheet, the {@code top} of a vertical one, without translation.
+     */
+    abstract int getLayoutPosition(View view);
+    
+    /**
+     * Places a view which has just been laid out by its parent at an offset from its layout position.
+     */
+    void layoutAt(View view, int offset)
+    {
+        offset(view, offset);
+    }
+    
+    abstract boolean canScroll(View view, int direction);
+    
+    /**
+     * @return The component along the axis: {@code x} for a horizontal sheet, {@code y} for a vertical one.
+     */
+    abstract int select(int x, int y);
+    
+    abstract float select(float x, float y);
+    
+    /**
+     * @return The velocity along the axis of a tracker whose velocity has been computed.
+     */
+    abstract float getVelocity(VelocityTracker tracker, int pointerId);
+    
+    /**
+     * Animates the view to the offset along the axis, keeping its other coordinate. The ViewDragHelper moves
+     * the layout position: a translated sheet is moved by what its translation lacks, until its next layout
+     * places it back by its translation.
+     *
+     * @see ViewDragHelper#smoothSlideViewTo(View, int, int)
+     */
+    abstract boolean smoothSlideViewTo(ViewDragHelper helper, View view, int offset);
+    
+    /**
+     * Settles the captured view at the offset along the axis, keeping its other coordinate, as
+     * {@link #smoothSlideViewTo(ViewDragHelper, View, int)} does.
+     *
+     * @see ViewDragHelper#settleCapturedViewAt(int, int)
+     */
+    abstract boolean settleCapturedViewAt(ViewDragHelper helper, View view, int offset);
+}
@@ -1,33 +1,46 @@
 package com.smobee.android.scrollsheetbehaviour.widget;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.FloatRange;
 import android.support.annotation.IntDef;
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.RestrictTo;
 import android.support.annotation.VisibleForTesting;
 import android.support.design.widget.CoordinatorLayout;
-import android.support.v4.math.MathUtils;
 import android.support.v4.view.AbsSavedState;
+import android.support.v4.view.GravityCompat;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.ViewDragHelper;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.util.TypedValue;
+import android.view.Gravity;
 import android.view.MotionEvent;
-import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
+import android.view.ViewPropertyAnimator;
+import android.view.animation.Animation;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
 
 import com.smobee.android.scrollsheetbehaviour.R;
+import com.smobee.android.scrollsheetbehaviour.geometry.ScrollerSettleEngine;
+import com.smobee.android.scrollsheetbehaviour.geometry.SettleEngine;
+import com.smobee.android.scrollsheetbehaviour.geometry.SheetGeometry;
+import com.smobee.android.scrollsheetbehaviour.geometry.TouchPredictor;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.UUID;
 
 import static android.support.annotation.RestrictTo.Scope.LIBRARY_GROUP;
@@ -40,14 +53,9 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
 {
     private static final String LOG_TAG = "SHEETBVIOR";
     
-    private static final int SCROLL_UP =  -1;
-    private static final int SCROLL_DOWN =  1;
-    private static final int SCROLL_LEFT =  -1;
-    private static final int SCROLL_RIGHT =  1;
-    
     private String getLogTag()
     {
-        return LOG_TAG + "-" + mIdentifierName;
+        return mLogTag;
     }
     
     /**
@@ -84,27 +92,27 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     /**
      * The sheet is dragging.
      */
-    public static final int STATE_DRAGGING = 1;
+    public static final int STATE_DRAGGING = SheetGeometry.STATE_DRAGGING;
     
     /**
      * The sheet is settling.
      */
-    public static final int STATE_SETTLING = 2;
+    public static final int STATE_SETTLING = SheetGeometry.STATE_SETTLING;
     
     /**
      * The sheet is expanded.
      */
-    public static final int STATE_EXPANDED = 3;
+    public static final int STATE_EXPANDED = SheetGeometry.STATE_EXPANDED;
     
     /**
      * The sheet is collapsed.
      */
-    public static final int STATE_COLLAPSED = 4;
+    public static final int STATE_COLLAPSED = SheetGeometry.STATE_COLLAPSED;
     
     /**
      * The sheet is hidden.
      */
-    public static final int STATE_HIDDEN = 5;
+    public static final int STATE_HIDDEN = SheetGeometry.STATE_HIDDEN;
     
     private String getActionString(int action)
     {
@@ -237,22 +245,22 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     /**
      * The sheet is at north position.
      */
-    public static final int POSITION_NORTH = 1;
+    public static final int POSITION_NORTH = SheetGeometry.POSITION_NORTH;
     
     /**
      * The sheet is at south position.
      */
-    public static final int POSITION_SOUTH = 2;
+    public static final int POSITION_SOUTH = SheetGeometry.POSITION_SOUTH;
     
     /**
      * The sheet is at east position.
      */
-    public static final int POSITION_EAST = 3;
+    public static final int POSITION_EAST = SheetGeometry.POSITION_EAST;
     
     /**
      * The sheet is at west position.
      */
-    public static final int POSITION_WEST = 4;
+    public static final int POSITION_WEST = SheetGeometry.POSITION_WEST;
     
     @RestrictTo(LIBRARY_GROUP)
     @IntDef({POSITION_NORTH, POSITION_SOUTH, POSITION_EAST, POSITION_WEST})
@@ -261,6 +269,24 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     {
     }
     
+    /**
+     * The sheet is moved by offsetting its layout bounds. This is the default.
+     */
+    public static final int MOVEMENT_OFFSET = 1;
+    
+    /**
+     * The sheet keeps its layout position and is moved by its translation, a property of its display list:
+     * a move does not touch the layout coordinates and a layout of the parent does not move the sheet.
+     */
+    public static final int MOVEMENT_TRANSLATION = 2;
+    
+    @RestrictTo(LIBRARY_GROUP)
+    @IntDef({MOVEMENT_OFFSET, MOVEMENT_TRANSLATION})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Movement
+    {
+    }
+    
     public enum NearestOffsetPosition
     {
         OVER_HIDDEN,
@@ -277,65 +303,107 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      * <p>This can be used as a parameter for {@link #setPeekSize(int)}.
      * {@link #getPeekSize()} will return this when the value is set.</p>
      */
-    public static final int PEEK_SIZE_AUTO = -1;
+    public static final int PEEK_SIZE_AUTO = SheetGeometry.PEEK_SIZE_AUTO;
     
-    private static final float HIDE_THRESHOLD = 0.5f;
-    
-    private static final float HIDE_FRICTION = 0.1f;
+    /**
+     * The default size of the edge zone, 20dp.
+     * <p>This can be used as a parameter for {@link #setEdgeSize(int)}.</p>
+     */
+    public static final int EDGE_SIZE_AUTO = -1;
     
     private float mMaximumVelocity;
     
-    private int mPeekSize;
-    
-    private boolean mPeekSizeAuto = false;
+    // offsets and target state decisions, shared with the JVM tests and benchmarks
+    private final SheetGeometry mGeometry = new SheetGeometry();
     
-    private int mPeekSizeMin;
+    // View access along the axis of the sheet, bound by setPosition() and setMovement()
+    private SheetAxis mAxis = SheetAxis.VERTICAL;
     
-    private int mOffsetHidden;
+    @SheetBehavior.Movement
+    private int mMovement = MOVEMENT_OFFSET;
     
-    private int mOffsetExpanded;
+    @SheetBehavior.State
+    private int mState = STATE_COLLAPSED;
     
-    private int mOffsetCollapsed;
+    private ViewDragHelper mViewDragHelper;
     
-    private boolean mHideable = false;
+    private boolean mIgnoreEvents;
     
-    private boolean mSkipCollapsed = false;
+    // decided at the down of each gesture: false when the sheet cannot react to it, the other events are then skipped
+    private boolean mGestureCandidate;
     
-    @SheetBehavior.State
-    private int mState = STATE_COLLAPSED;
+    private boolean mEdgeDragEnabled;
     
-    @SheetBehavior.Position
-    private int mPosition = POSITION_SOUTH; // like a bottom sheet.
+    private int mEdgeSize = EDGE_SIZE_AUTO;
     
-    // wether the sheet move horizontaly or verticaly
-    private boolean mSheetMoveHorizontaly = false;
-    // wheter the sheet when it's hidden, is place before top,left or after top,left
-    private boolean mSheetHiddenBeforeOrigin = false;
+    // design_sheet_edge_size, read once from the resources of the parent
+    private int mAutoEdgeSize = -1;
     
-    private ViewDragHelper mViewDragHelper;
+    // true from a down in the edge zone of the hidden sheet until the gesture reveals it or goes elsewhere
+    private boolean mEdgeDragPending;
     
-    private boolean mIgnoreEvents;
+    // the pointer that went down in the edge zone
+    private int mEdgePointerId = MotionEvent.INVALID_POINTER_ID;
     
-    private int mLastNestedScrollDy;
+    // milliseconds the dragged sheet is moved ahead of the finger, 0 when disabled
+    private int mDragPrediction;
     
-    private int mLastNestedScrollDx;
+    // fed with the samples of the dragging pointer, historical ones included
+    @VisibleForTesting
+    final TouchPredictor mTouchPredictor = new TouchPredictor();
     
-    private boolean mNestedScrolled;
+    // part of the position of the dragged sheet that comes from the prediction, not from the finger
+    private int mPredictedLead;
     
-    private int mParentHeight;
+    // last dx or dy pre-scrolled along the axis of the sheet
+    private int mLastNestedScrollDelta;
     
-    private int mParentWidth;
+    private boolean mNestedScrolled;
     
     private WeakReference<V> mViewRef;
     
     private WeakReference<View> mNestedScrollingChildRef;
     
+    // false once the hierarchy between the sheet and its scrolling child changed: findScrollingChild() is run again
+    private boolean mScrollingChildValid;
+    
+    // ViewGroups between the sheet (included) and its scrolling child, listened to by mHierarchyChangeListener
+    private final ArrayList<ViewGroup> mScrollingChildPath = new ArrayList<>();
+    
+    private final ViewGroup.OnHierarchyChangeListener mHierarchyChangeListener = new ViewGroup.OnHierarchyChangeListener()
+    {
+        @Override
+        public void onChildViewAdded(View parent, View child)
+        {
+            mScrollingChildValid = false;
+        }
+        
+        @Override
+        public void onChildViewRemoved(View parent, View child)
+        {
+            mScrollingChildValid = false;
+        }
+    };
+    
+    private static final SheetCallback[] NO_CALLBACKS = new SheetCallback[0];
+    
+    // copy-on-write: a dispatch loops over the array it started with, whatever is added or removed meanwhile
+    private SheetCallback[] mCallbacks = NO_CALLBACKS;
+    
+    // the callback set by setSheetCallback(), one of mCallbacks
     private SheetCallback mCallback;
     
-    private VelocityTracker mVelocityTracker;
+    // shared with the other sheets of the parent, set by the first event received
+    private SheetVelocitySource mVelocitySource;
+    
+    // shared with the other sheets of the parent, set by the first event received or the first nested scroll
+    private SheetGestureArbiter mGestureArbiter;
     
     private int mActivePointerId;
     
+    // pointer down on the scrolling child, kept after its up: the nested scroll it drives only stops after it
+    private int mScrollPointerId = MotionEvent.INVALID_POINTER_ID;
+    
     private int mInitialY;
     
     private int mInitialX;
@@ -344,6 +412,88 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     
     private String mIdentifierName;
     
+    // tag built once per identifier so that logging never concatenates it on the hot paths
+    private String mLogTag = LOG_TAG;
+    
+    private final SheetMetrics mMetrics = new SheetMetrics();
+    
+    // settles the sheet instead of the ViewDragHelper when set
+    private SettleEngine mSettleEngine;
+    
+    // settles a translated sheet when no engine is set: the ViewDragHelper only moves layout positions
+    private ScrollerSettleEngine mScrollerSettleEngine;
+    
+    // settles with the ViewPropertyAnimator of the sheet, see setAnimatorSettleEnabled()
+    private boolean mAnimatorSettleEnabled;
+    
+    // promotes the moving sheet to a hardware layer, see setHardwareLayerEnabled()
+    private boolean mHardwareLayerEnabled;
+    
+    // true while the sheet is on a hardware layer set by the behavior
+    private boolean mLayerPromoted;
+    
+    // takes the HIDDEN sheet out of the traversals of its parent, see setHiddenTraversalSkipped()
+    private boolean mHiddenTraversalSkipped = true;
+    
+    // true while the sheet is INVISIBLE or GONE because of the behavior
+    private boolean mHiddenFromTraversal;
+    
+    // coalescing and filtering of the slides, see setSlideCoalesced() and setSlideThreshold()
+    private boolean mSlideCoalesced;
+    
+    private float mSlideThreshold;
+    
+    private boolean mSlidePending;
+    
+    private int mPendingSlideLeft;
+    
+    private int mPendingSlideTop;
+    
+    private SheetFrameScheduler mSlideScheduler;
+    
+    private final SlideDispatcher mSlideDispatcher = new SlideDispatcher();
+    
+    // the last slide offset delivered to the callback
+    private boolean mSlideDelivered;
+    
+    private float mLastSlideOffset;
+    
+    // true while the SettleRunnable moves the sheet
+    private boolean mInSettleFrame;
+    
+    // set by SheetCoordinator.register(), notified of every change of state
+    SheetCoordinator mCoordinator;
+    
+    int mCoordinatorIndex = -1;
+    
+    // the only settle callback of the sheet, retargeted instead of posting a new one
+    private final SettleRunnable mSettleRunnable = new SettleRunnable();
+    
+    // state requested by setState() while a layout is pending, applied by mPendingStateRunnable
+    @SheetBehavior.State
+    private int mPendingState;
+    
+    private boolean mPendingStatePosted;
+    
+    private final Runnable mPendingStateRunnable = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            mPendingStatePosted = false;
+            V child = mViewRef != null ? mViewRef.get() : null;
+            if (child != null && mPendingState != mState)
+            {
+                startSettlingAnimation(child, mPendingState);
+            }
+        }
+    };
+    
+    private final SheetLatencyTracker mLatencyTracker = new SheetLatencyTracker();
+    
+    // Trace section names of this sheet, indexed by the SheetTrace section ids
+    private String[] mTraceSections = SheetTrace.sectionNames(null);
+    
     
     
     /**
@@ -352,12 +502,12 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     public SheetBehavior()
     {
         super();
-        Log.d(LOG_TAG, "SheetBehavior initializing from default constructor ...");
+        SheetLog.d(LOG_TAG, "SheetBehavior initializing from default constructor ...");
         setHideable(false);
         setSkipCollapsed(false);
         setPosition(POSITION_SOUTH);
         setIdentifierName(UUID.randomUUID().toString());
-        Log.d(LOG_TAG, "SheetBehavior initialized.");
+        SheetLog.d(LOG_TAG, "SheetBehavior initialized.");
     }
     
     /**
@@ -369,7 +519,7 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     public SheetBehavior(Context context, AttributeSet attrs)
     {
         super(context, attrs);
-        Log.d(LOG_TAG, "SheetBehavior initializing from ressources ...");
+        SheetLog.d(LOG_TAG, "SheetBehavior initializing from ressources ...");
         TypedArray a     = context.obtainStyledAttributes(attrs, R.styleable.SheetBehavior_Layout);
         TypedValue value = a.peekValue(R.styleable.SheetBehavior_Layout_sheet_behavior_peekSize);
         if (value != null && value.data == PEEK_SIZE_AUTO)
@@ -383,26 +533,31 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
         setHideable(a.getBoolean(R.styleable.SheetBehavior_Layout_sheet_behavior_hideable, false));
         setSkipCollapsed(a.getBoolean(R.styleable.SheetBehavior_Layout_sheet_behavior_skipCollapsed, false));
         setPosition(a.getInt(R.styleable.SheetBehavior_Layout_sheet_behavior_position,POSITION_SOUTH));
+        setMovement(a.getInt(R.styleable.SheetBehavior_Layout_sheet_behavior_movement, MOVEMENT_OFFSET));
         setIdentifierName(a.getString(R.styleable.SheetBehavior_Layout_sheet_behavior_identifier_name));
+        setEdgeDragEnabled(a.getBoolean(R.styleable.SheetBehavior_Layout_sheet_behavior_edgeDragEnabled, false));
+        setEdgeSize(a.getDimensionPixelSize(R.styleable.SheetBehavior_Layout_sheet_behavior_edgeSize, EDGE_SIZE_AUTO));
+        setHiddenTraversalSkipped(a.getBoolean(R.styleable.SheetBehavior_Layout_sheet_behavior_hiddenTraversalSkipped, true));
         a.recycle();
         ViewConfiguration configuration = ViewConfiguration.get(context);
         mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
-        Log.d(LOG_TAG, "SheetBehavior initialized.");
+        SheetLog.d(LOG_TAG, "SheetBehavior initialized.");
     }
     
     @Override
     public Parcelable onSaveInstanceState(CoordinatorLayout parent, V child)
     {
-        Log.d(getLogTag(),"onSaveInstanceState parent [" + parent + "] child [" + child + "]");
-        return new SheetBehavior.SavedState(super.onSaveInstanceState(parent, child), mState, mPosition,mIdentifierName);
+        SheetLog.d(getLogTag(), "onSaveInstanceState parent [%s] child [%s]", parent, child);
+        return new SheetBehavior.SavedState(super.onSaveInstanceState(parent, child), mState, mGeometry.getPosition(),mIdentifierName);
     }
     
     @Override
     public void onRestoreInstanceState(CoordinatorLayout parent, V child, Parcelable state)
     {
-        Log.d(getLogTag(),"onRestoreInstanceState ");
+        SheetLog.d(getLogTag(), "onRestoreInstanceState ");
         SheetBehavior.SavedState ss = (SheetBehavior.SavedState) state;
         super.onRestoreInstanceState(parent, child, ss.getSuperState());
+        int previousState = mState;
         // Intermediate states are restored as collapsed state
         if (ss.state == STATE_DRAGGING || ss.state == STATE_SETTLING)
         {
@@ -412,6 +567,7 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
         {
             mState = ss.state;
         }
+        dispatchCoordinatorState(previousState);
     }
     
     /**
@@ -424,6 +580,9 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     public final void setIdentifierName(final String identifierName)
     {
         mIdentifierName = identifierName;
+        mLogTag = LOG_TAG + "-" + identifierName;
+        mLatencyTracker.setIdentifierName(identifierName);
+        mTraceSections = SheetTrace.sectionNames(identifierName);
     }
     
     /**
@@ -447,24 +606,8 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public final void setPeekSize(int peekSize)
     {
-        Log.d(getLogTag(),"setPeekSize [" + peekSize + "]");
-        boolean layout = false;
-        if (peekSize == PEEK_SIZE_AUTO)
-        {
-            if (!mPeekSizeAuto)
-            {
-                mPeekSizeAuto = true;
-                layout = true;
-            }
-        }
-        else if (mPeekSizeAuto || mPeekSize != peekSize)
-        {
-            mPeekSizeAuto = false;
-            mPeekSize = Math.max(0, peekSize);
-            // TODO : depends of the postion of the view ...
-            mOffsetCollapsed = mParentHeight - mPeekSize;
-            layout = true;
-        }
+        SheetLog.d(getLogTag(), "setPeekSize [%d]", peekSize);
+        boolean layout = mGeometry.setPeekSize(peekSize);
         if (layout && mState == STATE_COLLAPSED && mViewRef != null)
         {
             V view = mViewRef.get();
@@ -484,8 +627,11 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public final int getPeekSize()
     {
-        Log.d(getLogTag(),"getPeekSize ");
-        return mPeekSizeAuto ? PEEK_SIZE_AUTO : mPeekSize;
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(getLogTag(), "getPeekSize ");
+        }
+        return mGeometry.getPeekSize();
     }
     
     /**
@@ -496,8 +642,8 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public void setHideable(boolean hideable)
     {
-        Log.d(getLogTag(),"setHideable [" + hideable + "]");
-        mHideable = hideable;
+        SheetLog.d(getLogTag(), "setHideable [%b]", hideable);
+        mGeometry.setHideable(hideable);
     }
     
     /**
@@ -508,8 +654,11 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public boolean isHideable()
     {
-        Log.d(getLogTag(),"isHideable ");
-        return mHideable;
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(getLogTag(), "isHideable ");
+        }
+        return mGeometry.isHideable();
     }
     
     /**
@@ -521,8 +670,8 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public void setSkipCollapsed(boolean skipCollapsed)
     {
-        Log.d(getLogTag(),"setSkipCollapsed [" + skipCollapsed + "]");
-        mSkipCollapsed = skipCollapsed;
+        SheetLog.d(getLogTag(), "setSkipCollapsed [%b]", skipCollapsed);
+        mGeometry.setSkipCollapsed(skipCollapsed);
     }
     
     /**
@@ -534,8 +683,11 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public boolean getSkipCollapsed()
     {
-        Log.d(getLogTag(),"getSkipCollapsed ");
-        return mSkipCollapsed;
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(getLogTag(), "getSkipCollapsed ");
+        }
+        return mGeometry.isSkipCollapsed();
     }
     
     /**
@@ -545,8 +697,58 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public void setSheetCallback(SheetBehavior.SheetCallback callback)
     {
-        Log.d(getLogTag(),"setSheetCallback ");
+        SheetLog.d(getLogTag(), "setSheetCallback ");
+        if (mCallback != null)
+        {
+            removeSheetCallback(mCallback);
+        }
         mCallback = callback;
+        if (callback != null)
+        {
+            addSheetCallback(callback);
+        }
+    }
+    
+    /**
+     * Adds a callback to be notified of the sheet events, after the callbacks already added. A callback may
+     * remove itself, or add or remove others, while it is notified: the change applies from the next event.
+     *
+     * @param callback The callback, added once only.
+     */
+    public void addSheetCallback(@NonNull SheetBehavior.SheetCallback callback)
+    {
+        SheetCallback[] callbacks = mCallbacks;
+        for (SheetCallback registered : callbacks)
+        {
+            if (registered == callback)
+            {
+                return;
+            }
+        }
+        SheetCallback[] added = new SheetCallback[callbacks.length + 1];
+        System.arraycopy(callbacks, 0, added, 0, callbacks.length);
+        added[callbacks.length] = callback;
+        mCallbacks = added;
+    }
+    
+    public void removeSheetCallback(@NonNull SheetBehavior.SheetCallback callback)
+    {
+        SheetCallback[] callbacks = mCallbacks;
+        for (int i = 0; i < callbacks.length; i++)
+        {
+            if (callbacks[i] == callback)
+            {
+                SheetCallback[] removed = callbacks.length == 1 ? NO_CALLBACKS : new SheetCallback[callbacks.length - 1];
+                System.arraycopy(callbacks, 0, removed, 0, i);
+                System.arraycopy(callbacks, i + 1, removed, i, callbacks.length - i - 1);
+                mCallbacks = removed;
+                break;
+            }
+        }
+        if (mCallback == callback)
+        {
+            mCallback = null;
+        }
     }
     
     /**
@@ -556,42 +758,66 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      * @param state One of {@link #STATE_COLLAPSED}, {@link #STATE_EXPANDED}, or
      *              {@link #STATE_HIDDEN}.
      */
-    public final void setState(final @SheetBehavior.State int state)
+    public final void setState(@SheetBehavior.State int state)
     {
-        if (state == mState)
+        if (state == mState && !mPendingStatePosted)
         {
             return;
         }
         if (mViewRef == null)
         {
             // The view is not laid out yet; modify mState and let onLayoutChild handle it later
-            if (state == STATE_COLLAPSED || state == STATE_EXPANDED || (mHideable && state == STATE_HIDDEN))
+            if (state == STATE_COLLAPSED || state == STATE_EXPANDED || (mGeometry.isHideable() && state == STATE_HIDDEN))
             {
+                int previousState = mState;
                 mState = state;
+                dispatchCoordinatorState(previousState);
             }
             return;
         }
-        final V child = mViewRef.get();
+        V child = mViewRef.get();
         if (child == null)
         {
             return;
         }
+        // a GONE sheet is laid out again by the next frame, before the animation starts.
+        revealForTraversal(child);
         // Start the animation; wait until a pending layout if there is one.
+        // Only the last requested state is applied after the layout.
         ViewParent parent = child.getParent();
         if (parent != null && parent.isLayoutRequested() && ViewCompat.isAttachedToWindow(child))
         {
-            child.post(new Runnable()
+            mPendingState = state;
+            if (!mPendingStatePosted)
             {
-                @Override
-                public void run()
-                {
-                    startSettlingAnimation(child, state);
-                }
-            });
+                mPendingStatePosted = true;
+                child.post(mPendingStateRunnable);
+            }
         }
         else
         {
-            startSettlingAnimation(child, state);
+            cancelPendingState(child);
+            if (state != mState)
+            {
+                startSettlingAnimation(child, state);
+            }
+        }
+    }
+    
+    private void dispatchCoordinatorState(@SheetBehavior.State int previousState)
+    {
+        if (mCoordinator != null && previousState != mState)
+        {
+            mCoordinator.onSheetStateChanged(mCoordinatorIndex, previousState, mState);
+        }
+    }
+    
+    private void cancelPendingState(View child)
+    {
+        if (mPendingStatePosted)
+        {
+            mPendingStatePosted = false;
+            child.removeCallbacks(mPendingStateRunnable);
         }
     }
     
@@ -618,39 +844,9 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
      */
     public final void setPosition(final @SheetBehavior.Position int position)
     {
-        Log.d(getLogTag(),"setPosition [" + position + "]");
-        mPosition = position;
-        switch(mPosition)
-        {
-            case POSITION_EAST:
-            {
-                mSheetMoveHorizontaly = true;
-                // the sheet will be hide by pushing it after the width of the contentView
-                mSheetHiddenBeforeOrigin = false;
-                break;
-            }
-            case POSITION_WEST:
-            {
-                mSheetMoveHorizontaly = true;
-                // the sheet will be hide by pushing it before the width of the contentView
-                mSheetHiddenBeforeOrigin = true;
-                break;
-            }
-            case POSITION_NORTH:
-            {
-                mSheetMoveHorizontaly = false;
-                // the sheet will be hide by pushing it before the height of the contentView
-                mSheetHiddenBeforeOrigin = true;
-                break;
-            }
-            case POSITION_SOUTH:
-            {
-                mSheetMoveHorizontaly = false;
-                // the sheet will be hide by pushing it after the height of the contentView
-                mSheetHiddenBeforeOrigin = false;
-                break;
-            }
-        }
+        SheetLog.d(getLogTag(), "setPosition [%d]", position);
+        mGeometry.setPosition(position);
+        mAxis = SheetAxis.of(mGeometry.isMovingHorizontally(), mMovement == MOVEMENT_TRANSLATION);
     }
     
     /**
@@ -662,23 +858,175 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     @SheetBehavior.Position
     public final int getPosition()
     {
-        Log.d(getLogTag(),"getPosition ");
-        return mPosition;
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(getLogTag(), "getPosition ");
+        }
+        return mGeometry.getPosition();
+    }
+    
+    /**
+     * Sets whether the hidden sheet can be dragged in from the edge of its parent on the side of its position: a
+     * drag starting in the edge zone and going away from that edge captures the sheet once past the touch slop,
+     * so that it follows the finger, and settles it on release as any other drag. When the sheet is registered
+     * in a {@link SheetCoordinator}, only the sheet of the edge is revealed, and only if the exclusivity policy
+     * allows it.
+     *
+     * @param enabled {@code true} to reveal the hidden sheet from its edge.
+     * @attr ref com.smobee.android.scrollsheetbehaviour.R.styleable#SheetBehavior_Layout_sheet_behavior_edgeDragEnabled
+     */
+    public final void setEdgeDragEnabled(boolean enabled)
+    {
+        SheetLog.d(getLogTag(), "setEdgeDragEnabled [%b]", enabled);
+        mEdgeDragEnabled = enabled;
+    }
+    
+    public final boolean isEdgeDragEnabled()
+    {
+        return mEdgeDragEnabled;
+    }
+    
+    /**
+     * Sets the size of the edge zone where a drag reveals the hidden sheet.
+     *
+     * @param edgeSize The size of the zone in pixels, measured from the edge of the parent, or
+     *                 {@link #EDGE_SIZE_AUTO} for the default size.
+     * @attr ref com.smobee.android.scrollsheetbehaviour.R.styleable#SheetBehavior_Layout_sheet_behavior_edgeSize
+     */
+    public final void setEdgeSize(int edgeSize)
+    {
+        if (edgeSize < 0 && edgeSize != EDGE_SIZE_AUTO)
+        {
+            throw new IllegalArgumentException("Illegal edge size: " + edgeSize);
+        }
+        mEdgeSize = edgeSize;
+    }
+    
+    /**
+     * @return The size of the edge zone in pixels, or {@link #EDGE_SIZE_AUTO}.
+     */
+    public final int getEdgeSize()
+    {
+        return mEdgeSize;
+    }
+    
+    /**
+     * Moves the dragged sheet ahead of the finger, where the finger is predicted to be when the frame is shown,
+     * to hide the latency between the touch and the display. The prediction extrapolates the last samples of
+     * the drag, the historical samples of the batched move events included. Disabled by default.
+     *
+     * @param millis How far ahead the finger is predicted, in milliseconds, usually one or two frames, or
+     *               {@code 0} to follow the last sample.
+     */
+    public final void setDragPrediction(@IntRange(from = 0) int millis)
+    {
+        if (millis < 0)
+        {
+            throw new IllegalArgumentException("Illegal drag prediction: " + millis);
+        }
+        mDragPrediction = millis;
+    }
+    
+    public final int getDragPrediction()
+    {
+        return mDragPrediction;
+    }
+    
+    /**
+     * Sets how the sheet is moved: by offsetting its layout bounds, or by its translation. To be set before
+     * the sheet is laid out, or while it rests in a stable state.
+     *
+     * @param movement One of {@link #MOVEMENT_OFFSET} or {@link #MOVEMENT_TRANSLATION}.
+     */
+    public final void setMovement(@SheetBehavior.Movement int movement)
+    {
+        if (movement != MOVEMENT_OFFSET && movement != MOVEMENT_TRANSLATION)
+        {
+            throw new IllegalArgumentException("Illegal movement argument: " + movement);
+        }
+        if (movement == mMovement)
+        {
+            return;
+        }
+        SheetLog.d(getLogTag(), "setMovement [%d]", movement);
+        mMovement = movement;
+        mAxis = SheetAxis.of(mGeometry.isMovingHorizontally(), movement == MOVEMENT_TRANSLATION);
+        V child = mViewRef != null ? mViewRef.get() : null;
+        if (child != null)
+        {
+            // le prochain layout replace le sheet selon le nouveau mode
+            child.setTranslationX(0f);
+            child.setTranslationY(0f);
+            child.requestLayout();
+        }
+    }
+    
+    /**
+     * Gets how the sheet is moved.
+     *
+     * @return One of {@link #MOVEMENT_OFFSET} or {@link #MOVEMENT_TRANSLATION}.
+     */
+    @SheetBehavior.Movement
+    public final int getMovement()
+    {
+        return mMovement;
     }
     
     
     void setStateInternal(@SheetBehavior.State int state)
     {
-        Log.d(getLogTag(),"setStateInternal from state [" + getStateString(mState) + "] => [" + getStateString(state) + "]");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(getLogTag(), "setStateInternal from state [%s] => [%s]", getStateString(mState), getStateString(state));
+        }
         if (mState == state)
         {
             return;
         }
+        int previousState = mState;
         mState = state;
         View sheet = mViewRef.get();
-        if (sheet != null && mCallback != null)
+        if (sheet != null)
+        {
+            updateHardwareLayer(sheet, state);
+            if (state == STATE_HIDDEN)
+            {
+                hideFromTraversal(sheet, true);
+            }
+            if (state == STATE_EXPANDED || state == STATE_COLLAPSED || state == STATE_HIDDEN)
+            {
+                dispatchRestingSlide(sheet);
+            }
+            ViewParent parent = sheet.getParent();
+            if ((state == STATE_EXPANDED || previousState == STATE_EXPANDED) && parent instanceof SheetCoordinatorLayout)
+            {
+                // les vues cachées par le sheet déployé sont à nouveau dessinées, ou plus du tout
+                ((SheetCoordinatorLayout) parent).onSheetOcclusionChanged();
+            }
+        }
+        dispatchCoordinatorState(previousState);
+        final SheetCallback[] callbacks = mCallbacks;
+        if (sheet != null && callbacks.length != 0)
         {
-            mCallback.onSheetStateChanged(sheet, state, mIdentifierName);
+            final boolean trace = SheetTrace.sEnabled;
+            if (trace)
+            {
+                SheetTrace.begin(mTraceSections[SheetTrace.DISPATCH_STATE_CHANGED]);
+            }
+            try
+            {
+                for (int i = 0; i < callbacks.length; i++)
+                {
+                    callbacks[i].onSheetStateChanged(sheet, state, mIdentifierName);
+                }
+            }
+            finally
+            {
+                if (trace)
+                {
+                    SheetTrace.end();
+                }
+            }
         }
     }
     
@@ -749,624 +1097,1017 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     
     private void startSettlingAnimation(V child, final @SheetBehavior.State int state)
     {
-        int top = child.getTop();
-        int left = child.getLeft();
+        // une animation en cours est reciblée avec sa vitesse courante
+        settleTo(child, state, mSettleRunnable.getVelocity(), false);
+    }
     
-        if(mSheetMoveHorizontaly)
+    /**
+     * @return A scroller settling like the ViewDragHelper, sized for the current layout.
+     */
+    private ScrollerSettleEngine getScrollerSettleEngine(View child)
+    {
+        if (mScrollerSettleEngine == null)
         {
-            // ce que l'on fait varier ici donc c'est left ...
-            if (state == STATE_COLLAPSED)
-            {
-                left = mOffsetCollapsed;
-            }
-            else if (state == STATE_EXPANDED)
-            {
-                left = mOffsetExpanded;
-            }
-            else if (mHideable && state == STATE_HIDDEN)
-            {
-                left = mOffsetHidden;
-            }
-            else
-            {
-                throw new IllegalArgumentException("Illegal state argument: " + state);
-            }
+            ViewConfiguration configuration = ViewConfiguration.get(child.getContext());
+            mScrollerSettleEngine = new ScrollerSettleEngine(configuration.getScaledMinimumFlingVelocity(), configuration.getScaledMaximumFlingVelocity());
         }
-        else
-        {
-            // ce que l'on fait varier ici donc c'est top ...
+        mScrollerSettleEngine.setRange(mGeometry.getParentWidth(), mGeometry.getDragRange());
+        return mScrollerSettleEngine;
+    }
     
-            if (state == STATE_COLLAPSED)
-            {
-                top = mOffsetCollapsed;
-            }
-            else if (state == STATE_EXPANDED)
-            {
-                top = mOffsetExpanded;
-            }
-            else if (mHideable && state == STATE_HIDDEN)
-            {
-                top = mOffsetHidden;
-            }
-            else
+    /**
+     * Settles the sheet to the offset of a state, when no settle of the ViewDragHelper is running: with the
+     * property animator of the sheet if enabled, with the settle engine if one is set, with a scroller
+     * engine for a translated sheet. With the ViewDragHelper otherwise.
+     *
+     * @param velocity The velocity of the sheet along its axis, used by the engines.
+     * @param released {@code true} when the sheet has just been released by the ViewDragHelper.
+     */
+    private void settleTo(View child, @SheetBehavior.State int targetState, float velocity, boolean released)
+    {
+        // on ne fait varier que left ou top, selon l'axe de déplacement du sheet ...
+        int offset = mGeometry.getOffsetForState(targetState);
+        boolean settling;
+        boolean helperSettling = mViewDragHelper.getViewDragState() == ViewDragHelper.STATE_SETTLING;
+        SettleEngine engine = mSettleEngine;
+        if (engine == null && mAxis.translation)
+        {
+            engine = getScrollerSettleEngine(child);
+        }
+        if (mAnimatorSettleEnabled && !helperSettling)
+        {
+            settling = mAxis.getOffset(child) != offset;
+            if (settling)
             {
-                throw new IllegalArgumentException("Illegal state argument: " + state);
+                // même durée que le ViewDragHelper pour ce déplacement et cette vitesse
+                ScrollerSettleEngine scroller = getScrollerSettleEngine(child);
+                scroller.start(mAxis.getOffset(child), offset, velocity);
+                mMetrics.onSettleStarted(targetState);
+                mSettleRunnable.startAnimator(child, targetState, offset, scroller.getDurationMillis());
             }
         }
-    
-        if (mViewDragHelper.smoothSlideViewTo(child, left, top))
+        else if (engine != null && !helperSettling)
         {
-            setStateInternal(STATE_SETTLING);
-            ViewCompat.postOnAnimation(child, new SheetBehavior.SettleRunnable(child, state));
+            settling = mAxis.getOffset(child) != offset;
+            if (settling)
+            {
+                mMetrics.onSettleStarted(targetState);
+                mSettleRunnable.start(child, targetState, engine, offset, velocity);
+            }
         }
         else
         {
-            setStateInternal(state);
+            settling = released ? mAxis.settleCapturedViewAt(mViewDragHelper, child, offset) : mAxis.smoothSlideViewTo(mViewDragHelper, child, offset);
+            if (settling)
+            {
+                postSettle(child, targetState);
+            }
         }
+        setStateInternal(settling ? STATE_SETTLING : targetState);
     }
     
     @VisibleForTesting
     int getPeekSizeMin() {
-        Log.d(getLogTag(),"getPeekSizeMin => [" + mPeekSizeMin + "]");
-        return mPeekSizeMin;
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(getLogTag(), "getPeekSizeMin => [%d]", mGeometry.getPeekSizeMin());
+        }
+        return mGeometry.getPeekSizeMin();
     }
     
-    private class SettleRunnable implements Runnable {
-        
-        private final View mView;
-        
-        @SheetBehavior.State
-        private final int mTargetState;
-        
-        SettleRunnable(View view, @SheetBehavior.State int targetState)
+    /**
+     * Enables or disables the systrace/Perfetto sections of all the sheets. The sections are named after
+     * the identifier of each sheet. Disabled by default.
+     *
+     * @param enabled {@code true} to emit trace sections around the sheet callbacks.
+     */
+    public static void setTraceEnabled(boolean enabled)
+    {
+        SheetTrace.sEnabled = enabled;
+    }
+    
+    /**
+     * Gets the frame timing of the settle animations of this sheet.
+     *
+     * @return The metrics recorded by this behavior.
+     */
+    public final SheetMetrics getMetrics()
+    {
+        return mMetrics;
+    }
+    
+    /**
+     * Enables or disables the measure of the touch to pixel latency of this sheet.
+     *
+     * @param enabled {@code true} to record the latency of the drags of this sheet.
+     * @see #getLatencyTracker()
+     */
+    public final void setLatencyTrackingEnabled(boolean enabled)
+    {
+        mLatencyTracker.setEnabled(enabled);
+    }
+    
+    /**
+     * Gets the touch to pixel latency recorded for this sheet.
+     *
+     * @return The latency tracker of this sheet, recording only once enabled with {@link #setLatencyTrackingEnabled(boolean)}.
+     */
+    public final SheetLatencyTracker getLatencyTracker()
+    {
+        return mLatencyTracker;
+    }
+    
+    /**
+     * Sets the engine settling the sheet to the offset of its target state, taking over from the scroller of
+     * the ViewDragHelper, which does not keep the release velocity. Takes effect on the next settle.
+     *
+     * @param engine The engine of this sheet, not shared with other sheets, or {@code null} to settle with
+     *               the ViewDragHelper (the default).
+     * @see com.smobee.android.scrollsheetbehaviour.geometry.SpringSettleEngine
+     */
+    public void setSettleEngine(@Nullable SettleEngine engine)
+    {
+        mSettleEngine = engine;
+    }
+    
+    @Nullable
+    public SettleEngine getSettleEngine()
+    {
+        return mSettleEngine;
+    }
+    
+    /**
+     * Enables or disables the settles handed to the ViewPropertyAnimator of the sheet once their target is
+     * known: the translation of the sheet is animated with a hardware layer, with the duration and the
+     * curve of the ViewDragHelper. No code of the behavior runs during the animation, and the platform may
+     * run it on its RenderThread, so that a busy main thread does not make the sheet stutter. The slide
+     * callback is only dispatched at the end of the settle, when the state of the behavior is synchronized.
+     * Takes precedence over the settle engine. Disabled by default.
+     *
+     * @param enabled {@code true} to settle with the property animator of the sheet.
+     */
+    public final void setAnimatorSettleEnabled(boolean enabled)
+    {
+        mAnimatorSettleEnabled = enabled;
+    }
+    
+    public final boolean isAnimatorSettleEnabled()
+    {
+        return mAnimatorSettleEnabled;
+    }
+    
+    /**
+     * Enables or disables the promotion of the sheet to a hardware layer while it is dragged or settling:
+     * each frame then only composites the layer instead of drawing the whole content of the sheet again.
+     * The layer is dropped as soon as the sheet rests. The sheet is not promoted when it already has a layer
+     * or when its content is animating, as the layer would be redrawn on every frame anyway. Disabled by
+     * default.
+     *
+     * @param enabled {@code true} to move the sheet on a hardware layer.
+     * @see SheetMetrics#getLayerPromotionCount()
+     */
+    public final void setHardwareLayerEnabled(boolean enabled)
+    {
+        mHardwareLayerEnabled = enabled;
+        V child = mViewRef != null ? mViewRef.get() : null;
+        if (child != null)
         {
-            mView = view;
-            mTargetState = targetState;
+            updateHardwareLayer(child, mState);
         }
-        
-        @Override
-        public void run()
+    }
+    
+    public final boolean isHardwareLayerEnabled()
+    {
+        return mHardwareLayerEnabled;
+    }
+    
+    /**
+     * Enables or disables the removal of the HIDDEN sheet from the traversals of its parent. Once hidden the
+     * sheet is made GONE, so that it is not measured, laid out nor drawn, or INVISIBLE, only not drawn, when
+     * other views of the CoordinatorLayout depend on it. The sheet is made VISIBLE again as soon as it is
+     * revealed by {@link #setState(int)} or captured by a drag: a GONE sheet is laid out by the next frame,
+     * before its animation starts. A visibility set by the application is never changed. Enabled by default:
+     * a sheet that must stay VISIBLE while hidden, e.g. because the application reads its visibility, turns it
+     * off with {@code app:sheet_behavior_hiddenTraversalSkipped="false"}.
+     *
+     * @param skipped {@code true} to keep the hidden sheet out of the traversals.
+     * @attr ref com.smobee.android.scrollsheetbehaviour.R.styleable#SheetBehavior_Layout_sheet_behavior_hiddenTraversalSkipped
+     */
+    public final void setHiddenTraversalSkipped(boolean skipped)
+    {
+        mHiddenTraversalSkipped = skipped;
+        V child = mViewRef != null ? mViewRef.get() : null;
+        if (child == null)
+        {
+            return;
+        }
+        if (!skipped)
+        {
+            revealForTraversal(child);
+        }
+        else if (mState == STATE_HIDDEN)
+        {
+            hideFromTraversal(child, true);
+        }
+    }
+    
+    public final boolean isHiddenTraversalSkipped()
+    {
+        return mHiddenTraversalSkipped;
+    }
+    
+    /**
+     * Enables or disables the coalescing of the slides of the sheet: the slides of a drag or of a nested scroll,
+     * which may come several times per frame, are delivered to {@link SheetCallback#onSheetSlide} at most once
+     * per frame, with the last position of the sheet. The slides of a settle are delivered at once, one per
+     * frame. Disabled by default.
+     */
+    public final void setSlideCoalesced(boolean coalesced)
+    {
+        mSlideCoalesced = coalesced;
+        if (!coalesced)
+        {
+            cancelPendingSlide();
+        }
+    }
+    
+    public final boolean isSlideCoalesced()
+    {
+        return mSlideCoalesced;
+    }
+    
+    /**
+     * Gets the slide offset of the sheet at its current position on the screen, as
+     * {@link SheetCallback#onSheetSlide} would report it. Cheap enough to be read on every frame.
+     *
+     * @return From 0 collapsed to 1 expanded, and from 0 to -1 hidden.
+     */
+    public final float getSlideOffset()
+    {
+        V child = mViewRef != null ? mViewRef.get() : null;
+        if (child == null)
+        {
+            // not laid out yet: the offset of the state
+            return mState == STATE_EXPANDED ? 1f : mState == STATE_HIDDEN ? -1f : 0f;
+        }
+        if (mAxis.horizontal)
+        {
+            return mGeometry.computeSlideOffset(child.getLeft() + Math.round(child.getTranslationX()));
+        }
+        return mGeometry.computeSlideOffset(child.getTop() + Math.round(child.getTranslationY()));
+    }
+    
+    /**
+     * Sets the smallest change of the slide offset delivered to {@link SheetCallback#onSheetSlide}: smaller
+     * changes are skipped. The slide of the sheet at rest in a stable state is always delivered, once. Defaults
+     * to {@code 0}, every slide is delivered.
+     *
+     * @param threshold The threshold, in slide offset units.
+     */
+    public final void setSlideThreshold(@FloatRange(from = 0f) float threshold)
+    {
+        mSlideThreshold = threshold;
+    }
+    
+    public final float getSlideThreshold()
+    {
+        return mSlideThreshold;
+    }
+    
+    /**
+     * @param allowGone {@code false} during a layout pass, where a GONE sheet would request another layout.
+     */
+    private void hideFromTraversal(View sheet, boolean allowGone)
+    {
+        if (!mHiddenTraversalSkipped || mHiddenFromTraversal || sheet.getVisibility() != View.VISIBLE)
+        {
+            return;
+        }
+        ViewParent parent = sheet.getParent();
+        boolean gone = allowGone && parent instanceof CoordinatorLayout && !hasDependents((CoordinatorLayout) parent, sheet);
+        mHiddenFromTraversal = true;
+        sheet.setVisibility(gone ? View.GONE : View.INVISIBLE);
+    }
+    
+    /**
+     * @return {@code true} if another child of the parent depends on the sheet, by the rules of
+     *         {@link CoordinatorLayout#getDependents(View)}, without building the list of the dependents.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean hasDependents(CoordinatorLayout parent, View sheet)
+    {
+        int layoutDirection = ViewCompat.getLayoutDirection(parent);
+        int insetEdge = Gravity.NO_GRAVITY;
+        if (sheet.getLayoutParams() instanceof CoordinatorLayout.LayoutParams)
+        {
+            insetEdge = GravityCompat.getAbsoluteGravity(((CoordinatorLayout.LayoutParams) sheet.getLayoutParams()).insetEdge, layoutDirection);
+        }
+        for (int i = 0, count = parent.getChildCount(); i < count; i++)
         {
-            if (mViewDragHelper != null && mViewDragHelper.continueSettling(true))
+            View other = parent.getChildAt(i);
+            if (other == sheet || !(other.getLayoutParams() instanceof CoordinatorLayout.LayoutParams))
             {
-                ViewCompat.postOnAnimation(mView, this);
+                continue;
             }
-            else
+            CoordinatorLayout.LayoutParams params = (CoordinatorLayout.LayoutParams) other.getLayoutParams();
+            // anchored to the sheet or to one of its descendants
+            if (params.getAnchorId() != View.NO_ID && sheet.findViewById(params.getAnchorId()) != null)
             {
-                setStateInternal(mTargetState);
+                return true;
+            }
+            // dodging the inset edge of the sheet
+            if (insetEdge != Gravity.NO_GRAVITY && (GravityCompat.getAbsoluteGravity(params.dodgeInsetEdges, layoutDirection) & insetEdge) == insetEdge)
+            {
+                return true;
+            }
+            CoordinatorLayout.Behavior behavior = params.getBehavior();
+            if (behavior != null && behavior.layoutDependsOn(parent, other, sheet))
+            {
+                return true;
             }
         }
+        return false;
     }
     
+    private void revealForTraversal(View sheet)
+    {
+        if (mHiddenFromTraversal)
+        {
+            mHiddenFromTraversal = false;
+            sheet.setVisibility(View.VISIBLE);
+        }
+    }
     
-    void dispatchOnSlide(int left, int top)
+    private void updateHardwareLayer(View sheet, @SheetBehavior.State int state)
     {
-        View sheet = mViewRef.get();
-        // TODO : update code here
-        if (sheet != null && mCallback != null)
+        boolean moving = state == STATE_DRAGGING || state == STATE_SETTLING;
+        if (moving && mHardwareLayerEnabled)
         {
-            if (top > mOffsetCollapsed)
+            if (mLayerPromoted || sheet.getLayerType() != View.LAYER_TYPE_NONE)
             {
-                mCallback.onSheetSlide(sheet,(float) (mOffsetCollapsed - top) / (mParentHeight - mOffsetCollapsed),mIdentifierName);
+                return;
             }
-            else
+            if (isContentAnimating(sheet))
             {
-                mCallback.onSheetSlide(sheet,(float) (mOffsetCollapsed - top) / (mOffsetCollapsed - mOffsetExpanded),mIdentifierName);
+                mMetrics.onLayerPromotionSkipped();
+                return;
             }
+            sheet.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            mLayerPromoted = true;
+            mMetrics.onLayerPromoted();
+        }
+        else if (mLayerPromoted)
+        {
+            mLayerPromoted = false;
+            sheet.setLayerType(View.LAYER_TYPE_NONE, null);
         }
     }
     
-    private final ViewDragHelper.Callback mDragCallback = new ViewDragHelper.Callback()
+    /**
+     * @return {@code true} if a descendant of the view runs an Animation, or has a transient state as the views
+     *         animated by a ViewPropertyAnimator, the item animations of a RecyclerView for example.
+     */
+    private static boolean isContentAnimating(View view)
     {
-        
-        /**
-         * Called when the user's input indicates that they want to capture the given child view
-         * with the pointer indicated by pointerId. The callback should return true if the user
-         * is permitted to drag the given view with the indicated pointer.
-         * <p>
-         * <p>ViewDragHelper may call this method multiple times for the same view even if
-         * the view is already captured; this indicates that a new pointer is trying to take
-         * control of the view.</p>
-         * <p>
-         * <p>If this method returns true, a call to {@link #onViewCaptured(View, int)}
-         * will follow if the capture is successful.</p>
-         *
-         * @param child     Child the user is attempting to capture
-         * @param pointerId ID of the pointer attempting the capture
-         * @return true if capture should be allowed, false otherwise
-         */
-        @Override
-        public boolean tryCaptureView(View child, int pointerId)
+        if (!(view instanceof ViewGroup))
         {
-            // si le sheet est déjà en train de dragger, on ne permet pas la capture.
-            if (mState == STATE_DRAGGING)
+            return false;
+        }
+        ViewGroup group = (ViewGroup) view;
+        for (int i = 0, count = group.getChildCount(); i < count; i++)
+        {
+            View child = group.getChildAt(i);
+            Animation animation = child.getAnimation();
+            if (ViewCompat.hasTransientState(child) || (animation != null && animation.hasStarted() && !animation.hasEnded()))
             {
-                return false;
+                return true;
             }
-            
-            // si un scroll est en cour sur la scroll view enfant, on ne permet pas la capture.
-            if (mTouchingScrollingChild)
+            if (isContentAnimating(child))
             {
-                return false;
+                return true;
             }
-            
-            if (mState == STATE_EXPANDED && mActivePointerId == pointerId)
+        }
+        return false;
+    }
+    
+    private void postSettle(View child, @SheetBehavior.State int targetState)
+    {
+        mMetrics.onSettleStarted(targetState);
+        mSettleRunnable.start(child, targetState);
+    }
+    
+    /**
+     * Drives the settle of the sheet, one frame at a time, until it ends, with the ViewDragHelper or with a
+     * settle engine. The frames come from the {@link SheetFrameScheduler} of the parent, shared with the other
+     * sheets, so that the settles of several sheets move on the same vsync. A single instance is owned by the
+     * behavior: a new settle started while one is running only changes its target.
+     * <p>
+     * A settle may also be handed to the ViewPropertyAnimator of the sheet, which then posts no callback of
+     * its own until the animation ends.
+     */
+    private class SettleRunnable implements SheetFrameScheduler.Client {
+        
+        private View mView;
+        
+        @SheetBehavior.State
+        private int mTargetState;
+        
+        private boolean mPosted;
+        
+        // engine of the running settle, null when it is driven by the ViewDragHelper
+        private SettleEngine mEngine;
+        
+        private long mEngineStartNanos;
+        
+        private SheetFrameScheduler mScheduler;
+        
+        // settle handed to the ViewPropertyAnimator of mView, towards the translation mAnimatedTranslation
+        private boolean mAnimating;
+        
+        private int mAnimatedTranslation;
+        
+        // true while the behavior cancels or replaces its own animation
+        private boolean mIgnoreAnimatorEvents;
+        
+        private final AnimatorListenerAdapter mAnimatorListener = new AnimatorListenerAdapter()
+        {
+            @Override
+            public void onAnimationEnd(Animator animation)
             {
-                View scroll = mNestedScrollingChildRef.get();
-                if (scroll != null )
+                // the animator of the view is shared: only the end of the settle, at its target, counts.
+                if (!mIgnoreAnimatorEvents && mAnimating && Math.round(mAxis.select(mView.getTranslationX(), mView.getTranslationY())) == mAnimatedTranslation)
                 {
-                    // ok on a une vue enfant qui peut scroller ...
-                    // on regarde dans quel sens elle peut scroller en fonction de notre type de sheet
-                    
-                    if(mSheetMoveHorizontaly)
-                    {
-                        // j'ai un sheet qui peut bouger horizontalement
-                        // comme je suis en état EXPANDED, je ne vais capturer que le drag qui permet de "rentrer/fermer" le sheet ...
-                        // sinon je n'interviens pas ... et je laisse les vues enfants prendre éventuellement le drag
-                        //
-                        // Donc si j'ai un sheet qui "arrive de gauche" donc mSheetHiddenBeforeOrigin == true
-                        // et que la vue peut scroller horizontallement vers la droite (SCROLL_RIGHT)
-                        // je n'inteviens pas ...
-                        if (scroll.canScrollHorizontally(SCROLL_RIGHT) && mSheetHiddenBeforeOrigin == true)
-                        {
-                            // on laisse le contenue scroller vers la droite
-                            return false;
-                        }
-                        // si j'ai un sheet qui "arrive de droite" donc mSheetHiddenBeforeOrigin == false
-                        // et que la vue peut scroller horizontallement vers la gauche (SCROLL_LEFT)
-                        // je n'inteviens pas ...
-                        else if (scroll.canScrollHorizontally(SCROLL_LEFT) && mSheetHiddenBeforeOrigin == false)
-                        {
-                            // on laisse le contenue scroller vers la gauche
-                            return false;
-                        }
-                    }
-                    else
+                    View view = mView;
+                    stopAnimator();
+                    if (mPosted)
                     {
-                        // j'ai un sheet qui bouge verticalement
-                        // comme je suis en état EXPANDED, je ne vais capturer que le drag qui permet de "rentrer/fermer" le sheet ...
-                        // sinon je n'interviens pas ... et je laisse les vues enfants prendre éventuellement le drag
-                        //
-                        // Donc si j'ai un sheet qui "arrive du bas" donc mSheetHiddenBeforeOrigin == false
-                        // et que la vue enfant peut scroller vers le haut (SCROLL_UP) je n'interviens pas
-                        if (scroll.canScrollVertically(SCROLL_UP) && mSheetHiddenBeforeOrigin == false)
-                        {
-                            // on laisse le contenue scroller vers le haut
-                            return false;
-                        }
-                        // sinon si la vue enfant peut scroller vers le bas (SCROLL_DOWN) et que le sheet "vient du haut" ( mSheetHiddenBeforeOrigin == true )
-                        // je n'interviens pas ...
-                        else if (scroll.canScrollVertically(SCROLL_DOWN) && mSheetHiddenBeforeOrigin == true)
-                        {
-                            // on laisse le contenue scroller vers le bas
-                            return false;
-                        }
+                        unschedule();
                     }
+                    mView = null;
+                    mMetrics.onSettleFinished();
+                    dispatchOnSlide(view);
+                    setStateInternal(mTargetState);
                 }
-                else
+                else if (!mIgnoreAnimatorEvents && mAnimating && mPosted)
                 {
-                    Log.w(getLogTag(),"tryCaptureView STATE_EXPANDED scroll view is null.");
+                    // another animation of the view ended, or cancelled this one: its frames are no longer counted
+                    unschedule();
                 }
             }
-            
-            // finalement si la weak reference dont on dispose est égale à la vue passée en paramètre, alors on capture ...
-            boolean captured =  mViewRef != null && mViewRef.get() == child;
-            return captured;
-        }
-    
-        @Override
-        public void onViewCaptured(View capturedChild, int activePointerId)
-        {
-            Log.d(getLogTag(),"onViewCaptured child [" + capturedChild + "] activePointerId [" + activePointerId + "]");
-        }
+        };
         
-        @Override
-        public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy)
+        void start(View view, @SheetBehavior.State int targetState)
         {
-            dispatchOnSlide(left, top);
+            mTargetState = targetState;
+            if (mAnimating)
+            {
+                stopAnimator();
+            }
+            if (mPosted && mView != view)
+            {
+                unschedule();
+            }
+            mView = view;
+            mEngine = null;
+            if (!mPosted)
+            {
+                schedule(view);
+            }
         }
         
-        @Override
-        public void onViewDragStateChanged(int state)
+        void start(View view, @SheetBehavior.State int targetState, SettleEngine engine, int offset, float velocity)
         {
-            // la seule chose qui nous intéresse ici , c'est de noter l'état STATE_DRAGGING
-            if (state == ViewDragHelper.STATE_DRAGGING)
+            mTargetState = targetState;
+            if (mAnimating)
             {
-                setStateInternal(STATE_DRAGGING);
+                stopAnimator();
+            }
+            if (mPosted && mView != view)
+            {
+                unschedule();
+            }
+            engine.start(mAxis.getOffset(view), offset, velocity);
+            // the time of the current frame, as the Scroller of the ViewDragHelper: the first frame already moves
+            mEngineStartNanos = AnimationUtils.currentAnimationTimeMillis() * 1000000L;
+            mView = view;
+            mEngine = engine;
+            if (!mPosted)
+            {
+                schedule(view);
             }
         }
         
-        private void onViewReleasedWithHorizontaleGesture(View releasedChild, float xVelocity, float yVelocity)
+        /**
+         * Hands the settle to the ViewPropertyAnimator of the view: its translation is animated to the offset,
+         * then folded into its layout position if the sheet is moved by offset.
+         */
+        void startAnimator(View view, @SheetBehavior.State int targetState, int offset, long durationMillis)
         {
-    
-            // le but de la methode est comme le documente le ViewDragHelper d'appeler une des 2 méthodes suivantes du ViewDragHelper:
-            // - settleCaptureViewAt()
-            // - flingCaturedView()
-            // Pour notre part, nous ne cherchons a appeler que settleCaptureViewAt()
-            // Notre but est de déterminer donc le topX et topY que nous allons passer à settleCaptureView().
-            //
-            // Comme le sheet bouge verticalement nous allons donc déterminer le topY en fonction des différents états du sheet :
-            //
-            // - COLLAPSED
-            // - HIDDEN
-            // - EXPANDED
-            // - etc
-            //
-            // Le topY parcontre dans ce cas ne bouge pas : c'est le Y actuel de la vue capturée : releasedChild.getTop().
-    
-            int topX ;
-            int topY = releasedChild.getTop();
-            @SheetBehavior.State int targetState;
-            if (xVelocity > 0)
+            mTargetState = targetState;
+            mEngine = null;
+            if (mPosted && mView != view)
             {
-                // C'est un déplacement vers la droite
-                if(mSheetHiddenBeforeOrigin)
-                {
-                    // si c'est un sheet qui vient de gauche
-                    // cela signifie que l'utilisateur veut "sortir" le sheet => STATE_EXPANDED
-                    topX = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else
-                {
-                    // si c'est un sheet qui vient de droite
-                    // cela signifie que l'utilisateur veut faire "rentrer" le sheet => STATE_COLLAPSED
-                    topX = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
+                unschedule();
             }
-            else if (mHideable && shouldHide(releasedChild, xVelocity,yVelocity))
+            if (mAnimating && mView != view)
             {
-                topX = mOffsetHidden;
-                targetState = STATE_HIDDEN;
+                stopAnimator();
             }
-            else if (xVelocity == 0.f)
+            mView = view;
+            // the frames of the animation are only counted, on the frames of the scheduler
+            if (!mPosted)
             {
-                // velocity null : l'utilisateur a arreter son geste à la présente position de la vue enfant : il veut la laisser à cette endroit !
-                // Nous allons donc regarder la position et en fonction de la position déterminer si le sheet
-                // doit finir à la position STATE_EXPANDED ou STATE_COLLAPSED
-        
-                int currentLeft = releasedChild.getLeft();
-                if (Math.abs(currentLeft - mOffsetExpanded) < Math.abs(currentLeft - mOffsetCollapsed))
+                schedule(view);
+            }
+            mAnimating = true;
+            mAnimatedTranslation = offset - mAxis.getLayoutPosition(view);
+            ViewPropertyAnimator animator = view.animate();
+            // the translation of the running animation, if any, is replaced: its cancel is not the end of the settle
+            mIgnoreAnimatorEvents = true;
+            try
+            {
+                if (mAxis.horizontal)
                 {
-                    topX = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
+                    animator.translationX(mAnimatedTranslation);
                 }
                 else
                 {
-                    topX = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
+                    animator.translationY(mAnimatedTranslation);
                 }
+                animator.setDuration(durationMillis).setInterpolator(QUINTIC_INTERPOLATOR).setListener(mAnimatorListener).withLayer().start();
             }
-            else
+            finally
             {
-                // velocity négative
-                // C'est un déplacement vers la gauche
-                if(mSheetHiddenBeforeOrigin)
+                mIgnoreAnimatorEvents = false;
+            }
+        }
+        
+        /**
+         * Stops the animation of the view where it is, keeping the offset of the sheet in the layout position
+         * when the sheet is moved by offset.
+         */
+        private void stopAnimator()
+        {
+            mAnimating = false;
+            ViewPropertyAnimator animator = mView.animate();
+            mIgnoreAnimatorEvents = true;
+            try
+            {
+                animator.setListener(null);
+                animator.cancel();
+            }
+            finally
+            {
+                mIgnoreAnimatorEvents = false;
+            }
+            if (!mAxis.translation)
+            {
+                int translation = Math.round(mAxis.select(mView.getTranslationX(), mView.getTranslationY()));
+                if (mAxis.horizontal)
                 {
-                    // si c'est un sheet qui vient de gauche
-                    // cela signifie que l'utilisateur veut faire "rentrer" le sheet => STATE_COLLAPSED
-            
-                    topX = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
+                    mView.setTranslationX(0f);
                 }
                 else
                 {
-                    // si c'est un sheet qui vient de droite
-                    // cela signifie que l'utilisateur veut faire "sortir" le sheet => STATE_EXPANDED
-                    topX = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
+                    mView.setTranslationY(0f);
                 }
+                mAxis.offset(mView, translation);
             }
-    
-            if (mViewDragHelper.settleCapturedViewAt(topX, topY))
+        }
+        
+        /**
+         * @return The velocity of the running engine settle, {@code 0} otherwise.
+         */
+        float getVelocity()
+        {
+            return mPosted && mEngine != null ? mEngine.getVelocity() : 0f;
+        }
+        
+        /**
+         * Removes the scheduled frame, if any, without changing the state of the sheet.
+         */
+        void cancel()
+        {
+            if (mPosted)
             {
-                setStateInternal(STATE_SETTLING);
-                ViewCompat.postOnAnimation(releasedChild, new SheetBehavior.SettleRunnable(releasedChild, targetState));
+                unschedule();
             }
-            else
+            if (mAnimating)
             {
-                setStateInternal(targetState);
+                stopAnimator();
             }
+            mMetrics.onSettleFinished();
+            mView = null;
+            mEngine = null;
         }
-    
-        private void onViewReleasedWithVerticaleGesture(View releasedChild, float xVelocity, float yVelocity)
+        
+        private void schedule(View view)
         {
-            
-            // le but de la methode est comme le documente le ViewDragHelper d'appeler une des 2 méthodes suivantes du ViewDragHelper:
-            // - settleCaptureViewAt()
-            // - flingCaturedView()
-            // Pour notre part, nous ne cherchons a appeler que settleCaptureViewAt()
-            // Notre but est de déterminer donc le topX et topY que nous allons passer à settleCaptureView().
-            //
-            // Comme le sheet bouge verticalement nous allons donc déterminer le topY en fonction des différents états du sheet :
-            //
-            // - COLLAPSED
-            // - HIDDEN
-            // - EXPANDED
-            // - etc
-            //
-            // Le topX parcontre dans ce cas ne bouge pas : c'est le X actuel de la vue capturée: releasedChild.getLeft().
-    
-            int topX = releasedChild.getLeft();
-            int topY;
-            @SheetBehavior.State int targetState;
-            if (yVelocity > 0)
+            mPosted = true;
+            mScheduler = SheetFrameScheduler.from(view);
+            mScheduler.schedule(this);
+        }
+        
+        private void unschedule()
+        {
+            mPosted = false;
+            mScheduler.unschedule(this);
+        }
+        
+        @Override
+        public void onSheetFrame(long frameTimeNanos)
+        {
+            final boolean trace = SheetTrace.sEnabled;
+            if (trace)
             {
-                // C'est un déplacement vers le haut
-                if(mSheetHiddenBeforeOrigin)
-                {
-                    // si c'est un sheet qui vient du haut
-                    // cela signifie que l'utilisateur veut "rentrer" le sheet => STATE_COLLAPSED
-                    topY = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
-                else
-                {
-                    // si c'est un sheet qui vient du bas
-                    // cela signifie que l'utilisateur veut faire apparaitre le sheet => STATE_EXPANDED
-                    topY = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
+                SheetTrace.begin(mTraceSections[SheetTrace.SETTLE]);
             }
-            else if (mHideable && shouldHide(releasedChild, xVelocity, yVelocity))
+            // the slides of a settle frame are dispatched at once: there is one per frame
+            mInSettleFrame = true;
+            try
             {
-                topY = mOffsetHidden;
-                targetState = STATE_HIDDEN;
+                settle(frameTimeNanos);
             }
-            else if (yVelocity == 0.f)
+            finally
             {
-                // velocity null : l'utilisateur a arreter son geste à la présente position de la vue enfant : il veut la laisser à cette endroit !
-                // Nous allons donc regarder la position et en fonction de la position déterminer si le sheet
-                // doit finir à la position STATE_EXPANDED ou STATE_COLLAPSED
-                
-                int currentTop = releasedChild.getTop();
-                if (Math.abs(currentTop - mOffsetExpanded) < Math.abs(currentTop - mOffsetCollapsed))
-                {
-                    topY = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else
+                mInSettleFrame = false;
+                if (trace)
                 {
-                    topY = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
+                    SheetTrace.end();
                 }
             }
-            else
+        }
+        
+        private void settle(long frameTimeNanos)
+        {
+            mMetrics.onSettleFrame(frameTimeNanos);
+            if (mAnimating)
             {
-                // velocity négative
-                
-                if(mSheetHiddenBeforeOrigin)
-                {
-                    // si c'est un sheet qui vient du haut
-                    // cela signifie que l'utilisateur veut faire apparaitre le sheet => STATE_EXPANDED
-    
-                    topY = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else
+                // the ViewPropertyAnimator moves the sheet on this frame
+                return;
+            }
+            // the moves of the settle are not driven by an input event
+            mLatencyTracker.clearPendingInput();
+            boolean running;
+            if (mEngine != null)
+            {
+                running = mEngine.computeOffset(Math.max(0L, frameTimeNanos - mEngineStartNanos));
+                int delta = mEngine.getOffset() - mAxis.getOffset(mView);
+                if (delta != 0)
                 {
-                    // si c'est un sheet qui vient du bas
-                    // cela signifie que l'utilisateur veut faire "rentrer" le sheet => STATE_COLLAPSED
-                    topY = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
+                    mAxis.offset(mView, delta);
+                    dispatchOnSlide(mView);
                 }
             }
-    
-            if (mViewDragHelper.settleCapturedViewAt(topX, topY))
+            else
             {
-                setStateInternal(STATE_SETTLING);
-                ViewCompat.postOnAnimation(releasedChild, new SheetBehavior.SettleRunnable(releasedChild, targetState));
+                running = mViewDragHelper != null && mViewDragHelper.continueSettling(true);
             }
-            else
+            if (!running)
             {
-                setStateInternal(targetState);
+                // unscheduled before the new state, which may start another settle of the sheet
+                unschedule();
+                mView = null;
+                mEngine = null;
+                mMetrics.onSettleFinished();
+                setStateInternal(mTargetState);
             }
         }
+    }
     
     
-        @Override
-        public void onViewReleased(View releasedChild, float xVelocity, float yVelocity)
+    /**
+     * Dispatches the slide of the sheet at its position on the screen.
+     */
+    private void dispatchOnSlide(View sheet)
+    {
+        if (mAxis.translation)
+        {
+            dispatchOnSlide(sheet.getLeft() + Math.round(sheet.getTranslationX()), sheet.getTop() + Math.round(sheet.getTranslationY()));
+        }
+        else
+        {
+            dispatchOnSlide(sheet.getLeft(), sheet.getTop());
+        }
+    }
+    
+    void dispatchOnSlide(int left, int top)
+    {
+        View sheet = mViewRef.get();
+        if (sheet == null || mCallbacks.length == 0)
+        {
+            return;
+        }
+        if (mSlideCoalesced && !mInSettleFrame)
         {
-            // on vient de relacher une vue ...
-            if(mSheetMoveHorizontaly)
+            // delivered by the next frame, with the last position reached until then
+            mPendingSlideLeft = left;
+            mPendingSlideTop = top;
+            if (!mSlidePending)
             {
-                // et notre sheet bouge horizontalement
-                // ce qui nous intéresse donc c'est la velocité horizontale (xVelocity)
-                onViewReleasedWithHorizontaleGesture(releasedChild, xVelocity, yVelocity);
-                
+                mSlidePending = true;
+                mSlideScheduler = SheetFrameScheduler.from(sheet);
+                mSlideScheduler.schedule(mSlideDispatcher);
             }
-            else
-            {
+            return;
+        }
+        cancelPendingSlide();
+        deliverSlide(sheet, computeSlideOffset(left, top), false);
+    }
     
-                // et notre sheet bouge verticalement
-                // ce qui nous intéresse donc c'est la velocité verticale (yVelocity)
-                onViewReleasedWithVerticaleGesture(releasedChild, xVelocity, yVelocity);
-            }
+    /**
+     * Delivers the slide of the sheet at rest, once, if slides were filtered since the last one delivered.
+     */
+    private void dispatchRestingSlide(View sheet)
+    {
+        if ((!mSlideCoalesced && mSlideThreshold <= 0f) || mCallbacks.length == 0 || (!mSlidePending && !mSlideDelivered))
+        {
+            return;
         }
-        
-        @Override
-        public int clampViewPositionVertical(View child, int top, int dy)
+        cancelPendingSlide();
+        if (mAxis.translation)
         {
-            int clampValue = 0;
-            if(!mSheetMoveHorizontaly)
+            deliverSlide(sheet, computeSlideOffset(sheet.getLeft() + Math.round(sheet.getTranslationX()), sheet.getTop() + Math.round(sheet.getTranslationY())), true);
+        }
+        else
+        {
+            deliverSlide(sheet, computeSlideOffset(sheet.getLeft(), sheet.getTop()), true);
+        }
+    }
+    
+    private void cancelPendingSlide()
+    {
+        if (mSlidePending)
+        {
+            mSlidePending = false;
+            mSlideScheduler.unschedule(mSlideDispatcher);
+        }
+    }
+    
+    /**
+     * @param resting {@code true} for the slide of the sheet at rest, only skipped when it is the last one delivered.
+     */
+    private void deliverSlide(View sheet, float slideOffset, boolean resting)
+    {
+        if (mSlideDelivered && (resting ? slideOffset == mLastSlideOffset : Math.abs(slideOffset - mLastSlideOffset) < mSlideThreshold))
+        {
+            return;
+        }
+        mSlideDelivered = true;
+        mLastSlideOffset = slideOffset;
+        final SheetCallback[] callbacks = mCallbacks;
+        final boolean trace = SheetTrace.sEnabled;
+        if (trace)
+        {
+            SheetTrace.begin(mTraceSections[SheetTrace.DISPATCH_SLIDE]);
+        }
+        try
+        {
+            for (int i = 0; i < callbacks.length; i++)
             {
-                if(!mSheetHiddenBeforeOrigin)
-                {
-                    clampValue = MathUtils.clamp(top + dy, mHideable ? mOffsetHidden : mOffsetCollapsed, mOffsetExpanded);
-                }
-                else
-                {
-                    clampValue = MathUtils.clamp(top + dy, mOffsetExpanded, mHideable ? mOffsetHidden : mOffsetCollapsed );
-                }
+                callbacks[i].onSheetSlide(sheet, slideOffset, mIdentifierName);
             }
-            else
+        }
+        finally
+        {
+            if (trace)
             {
-                clampValue = child.getTop();
+                SheetTrace.end();
             }
-    
-            return clampValue;
         }
-        
+    }
+    
+    private float computeSlideOffset(int left, int top)
+    {
+        return mGeometry.computeSlideOffset(mAxis.horizontal ? left : top);
+    }
+    
+    /**
+     * Delivers the coalesced slide of the sheet, once per frame.
+     */
+    private class SlideDispatcher implements SheetFrameScheduler.Client
+    {
         @Override
-        public int clampViewPositionHorizontal(View child, int left, int dx)
+        public void onSheetFrame(long frameTimeNanos)
         {
-            int clampValue = 0;
-            if(!mSheetMoveHorizontaly)
+            cancelPendingSlide();
+            View sheet = mViewRef != null ? mViewRef.get() : null;
+            if (sheet != null && mCallbacks.length != 0)
             {
-                clampValue = child.getLeft();
-            }
-            else
-            {
-                if(!mSheetHiddenBeforeOrigin)
-                {
-                    clampValue = MathUtils.clamp(left + dx, mOffsetExpanded, mHideable ? mOffsetHidden : mOffsetCollapsed);
-                }
-                else
-                {
-                    clampValue = MathUtils.clamp(left + dx, mHideable ? mOffsetHidden : mOffsetCollapsed, mOffsetExpanded );
-                }
+                deliverSlide(sheet, computeSlideOffset(mPendingSlideLeft, mPendingSlideTop), false);
             }
+        }
+    }
     
-            return clampValue;
+    // the curve of the settles of the ViewDragHelper
+    private static final Interpolator QUINTIC_INTERPOLATOR = new Interpolator()
+    {
+        @Override
+        public float getInterpolation(float t)
+        {
+            t -= 1.0f;
+            return t * t * t * t * t + 1.0f;
         }
+    };
+    
+    @VisibleForTesting
+    final ViewDragHelper.Callback mDragCallback = new ViewDragHelper.Callback()
+    {
         
+        /**
+         * Called when the user's input indicates that they want to capture the given child view
+         * with the pointer indicated by pointerId. The callback should return true if the user
+         * is permitted to drag the given view with the indicated pointer.
+         * <p>
+         * <p>ViewDragHelper may call this method multiple times for the same view even if
+         * the view is already captured; this indicates that a new pointer is trying to take
+         * control of the view.</p>
+         * <p>
+         * <p>If this method returns true, a call to {@link #onViewCaptured(View, int)}
+         * will follow if the capture is successful.</p>
+         *
+         * @param child     Child the user is attempting to capture
+         * @param pointerId ID of the pointer attempting the capture
+         * @return true if capture should be allowed, false otherwise
+         */
         @Override
-        public int getViewVerticalDragRange(View child)
+        public boolean tryCaptureView(View child, int pointerId)
         {
-            int dragRange = 0;
-            if(mSheetMoveHorizontaly)
+            // si le sheet est déjà en train de dragger, on ne permet pas la capture.
+            if (mState == STATE_DRAGGING)
             {
-                // si la vue bouge horizontalement, on retourne 0 : elle ne peut pas être draggée.
-                dragRange = 0;
+                return false;
             }
-            else
+            
+            // les bornes de layout d'un sheet translaté couvrent des zones où il n'est pas affiché :
+            // seul un appui sur le sheet affiché peut le capturer.
+            if (mAxis.translation && mIgnoreEvents)
+            {
+                return false;
+            }
+            
+            // si un scroll est en cour sur la scroll view enfant, on ne permet pas la capture.
+            if (mTouchingScrollingChild)
+            {
+                return false;
+            }
+            
+            if (mState == STATE_EXPANDED && mActivePointerId == pointerId)
             {
-                if (mHideable)
+                View scroll = mNestedScrollingChildRef.get();
+                if (scroll != null )
                 {
-                    dragRange = mParentHeight - mOffsetExpanded;
+                    // ok on a une vue enfant qui peut scroller ...
+                    // comme je suis en état EXPANDED, je ne vais capturer que le drag qui permet de "rentrer/fermer" le sheet ...
+                    // sinon je n'interviens pas ... et je laisse les vues enfants prendre éventuellement le drag
+                    //
+                    // Donc si la vue enfant peut encore scroller à l'opposé du côté où le sheet se cache
+                    // (vers le haut pour un sheet SOUTH, vers la droite pour un sheet WEST ...) je n'interviens pas
+                    if (mAxis.canScroll(scroll, -mGeometry.getDirection().getHideSign()))
+                    {
+                        // on laisse le contenue scroller
+                        return false;
+                    }
                 }
                 else
                 {
-                    dragRange = mOffsetCollapsed - mOffsetExpanded;
+                    SheetLog.w(getLogTag(), "tryCaptureView STATE_EXPANDED scroll view is null.");
                 }
             }
-    
-            return dragRange;
+            
+            // finalement si la weak reference dont on dispose est égale à la vue passée en paramètre, alors on capture ...
+            boolean captured =  mViewRef != null && mViewRef.get() == child;
+            // ... sauf si un autre sheet possède déjà le geste, ou si le geste est verrouillé sur l'autre axe
+            return captured && claimGesture(child);
         }
     
         @Override
-        public int getViewHorizontalDragRange(View child)
+        public void onViewCaptured(View capturedChild, int activePointerId)
         {
-            int dragRange = 0;
-            if(!mSheetMoveHorizontaly)
+            revealForTraversal(capturedChild);
+            if (SheetLog.DEBUG)
             {
-                // si la vue bouge verticalement, on retourne 0 : elle ne peut pas être draggée.
-                dragRange = 0;
+                SheetLog.d(getLogTag(), "onViewCaptured child [%s] activePointerId [%s]", capturedChild, activePointerId);
             }
-            else
+        }
+        
+        @Override
+        public void onViewPositionChanged(View changedView, int left, int top, int dx, int dy)
+        {
+            mLatencyTracker.onOffsetApplied();
+            dispatchOnSlide(changedView);
+        }
+        
+        @Override
+        public void onViewDragStateChanged(int state)
+        {
+            // la seule chose qui nous intéresse ici , c'est de noter l'état STATE_DRAGGING
+            if (state == ViewDragHelper.STATE_DRAGGING)
             {
-                if (mHideable)
-                {
-                    dragRange = mParentWidth - mOffsetExpanded;
-                }
-                else
-                {
-                    dragRange = mOffsetCollapsed - mOffsetExpanded;
-                }
+                // une animation en cours ne doit pas imposer son état final au sheet capturé
+                mSettleRunnable.cancel();
+                setStateInternal(STATE_DRAGGING);
             }
-    
-            return dragRange;
         }
-    };
-    
-    
-    private float getXVelocity()
-    {
-        float xVelocity = 0;
-        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
-        xVelocity = mVelocityTracker.getXVelocity(mActivePointerId);
-        return xVelocity;
-    }
-    
-    private float getYVelocity()
-    {
-        float yVelocity = 0;
-        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
-        yVelocity = mVelocityTracker.getYVelocity(mActivePointerId);
-    
-        return yVelocity;
-    }
-    
-    private boolean shouldHide(View child, float xvel, float yvel)
-    {
-        if (mSkipCollapsed)
+        
+        @Override
+        public void onViewReleased(View releasedChild, float xVelocity, float yVelocity)
         {
-            return true;
+            // le but de la methode est comme le documente le ViewDragHelper d'appeler une des 2 méthodes suivantes du ViewDragHelper:
+            // - settleCaptureViewAt()
+            // - flingCaturedView()
+            // Pour notre part, nous ne cherchons a appeler que settleCaptureViewAt()
+            //
+            // Seule la coordonnée de l'axe de déplacement du sheet change : left et la velocité horizontale (xVelocity)
+            // pour un sheet qui bouge horizontalement, top et la velocité verticale (yVelocity) sinon.
+            // L'état final (COLLAPSED, HIDDEN, EXPANDED) est choisi par SheetGeometry.
+            mPredictedLead = 0;
+            releaseGesture();
+            float velocity = getReleaseVelocity(xVelocity, yVelocity);
+            @SheetBehavior.State int targetState = mGeometry.getReleaseState(mAxis.getOffset(releasedChild), velocity);
+    
+            settleTo(releasedChild, targetState, velocity, true);
         }
         
-        if(!mSheetMoveHorizontaly)
+        @Override
+        public int clampViewPositionVertical(View child, int top, int dy)
         {
-            // si le point haut de la vue (top) est encore supérieur à mOffsetCollapsed et que
-            // la vue doit passer par l'état collapsed alors on ne cache pas la vue.
-            if (!mSheetHiddenBeforeOrigin)
+            if(mAxis.horizontal)
             {
-                if(child.getTop() > mOffsetCollapsed)
-                {
-                    // It should not hide, but collapse.
-                    return false;
-                }
-    
-                final float newTop = child.getTop() + yvel * HIDE_FRICTION;
-    
-                float threshold = Math.abs(newTop - mOffsetCollapsed) / (float) mPeekSize;
-                return threshold > HIDE_THRESHOLD;
+                return child.getTop();
             }
-            else
+            if (mAxis.translation)
             {
-                if(child.getTop() < mOffsetCollapsed)
-                {
-                    // It should not hide, but collapse.
-                    return false;
-                }
-    
-                final float newTop = child.getTop() + yvel * HIDE_FRICTION;
-    
-                float threshold = Math.abs(newTop - mOffsetCollapsed) / (float) mPeekSize;
-                return threshold > HIDE_THRESHOLD;
+                return dragByTranslation(child, dy);
             }
+            // top is already moved by dy, and by the lead of the previous move
+            return applyPredictedLead(mGeometry.clampOffset(top - mPredictedLead));
         }
-        else
+        
+        @Override
+        public int clampViewPositionHorizontal(View child, int left, int dx)
         {
-            // si le point haut de la vue (top) est encore supérieur à mOffsetCollapsed et que
-            // la vue doit passer par l'état collapsed alors on ne cache pas la vue.
-            if (!mSheetHiddenBeforeOrigin)
+            if(!mAxis.horizontal)
             {
-                if(child.getLeft() > mOffsetCollapsed)
-                {
-                    // It should not hide, but collapse.
-                    return false;
-                }
-        
-                final float newLeft = child.getLeft() + xvel * HIDE_FRICTION;
-        
-                float threshold = Math.abs(newLeft - mOffsetCollapsed) / (float) mPeekSize;
-                return threshold > HIDE_THRESHOLD;
+                return child.getLeft();
             }
-            else
+            if (mAxis.translation)
             {
-                if(child.getLeft() < mOffsetCollapsed)
-                {
-                    // It should not hide, but collapse.
-                    return false;
-                }
+                return dragByTranslation(child, dx);
+            }
+            return applyPredictedLead(mGeometry.clampOffset(left - mPredictedLead));
+        }
+        
+        /**
+         * Moves a translated sheet by the delta of a drag, clamped as a layout move would be, and returns its
+         * unchanged layout position so that the ViewDragHelper does not offset it.
+         */
+        private int dragByTranslation(View child, int delta)
+        {
+            int offset = mAxis.getOffset(child);
+            int predicted = applyPredictedLead(mGeometry.clampOffset(offset - mPredictedLead + delta));
+            mAxis.offset(child, predicted - offset);
+            return mAxis.getLayoutPosition(child);
+        }
+        
+        @Override
+        public int getViewVerticalDragRange(View child)
+        {
+            // si la vue bouge horizontalement, on retourne 0 : elle ne peut pas être draggée.
+            return mAxis.horizontal ? 0 : mGeometry.getDragRange();
+        }
+    
+        @Override
+        public int getViewHorizontalDragRange(View child)
+        {
+            // si la vue bouge verticalement, on retourne 0 : elle ne peut pas être draggée.
+            return mAxis.horizontal ? mGeometry.getDragRange() : 0;
+        }
+    };
     
-                final float newLeft = child.getLeft() + xvel * HIDE_FRICTION;
     
-                float threshold = Math.abs(newLeft - mOffsetCollapsed) / (float) mPeekSize;
-                return threshold > HIDE_THRESHOLD;
-            }
+    /**
+     * @return The velocity of the released sheet, read from the velocity source shared by the sheets of the
+     *         parent, which has already been given the event of the release. Cut to 0 below the minimum
+     *         velocity of the ViewDragHelper, as the velocities it passes to onViewReleased.
+     */
+    private float getReleaseVelocity(float xVelocity, float yVelocity)
+    {
+        if (mVelocitySource == null)
+        {
+            return mAxis.select(xVelocity, yVelocity);
         }
+        float velocity = mVelocitySource.getVelocity(mAxis, mViewDragHelper.getActivePointerId(), mMaximumVelocity);
+        return Math.abs(velocity) < mViewDragHelper.getMinVelocity() ? 0f : velocity;
+    }
+    
+    /**
+     * @return The velocity of the pointer that drove the nested scroll, read after its up has reset
+     *         {@code mActivePointerId}.
+     */
+    private float getNestedScrollVelocity()
+    {
+        return mVelocitySource != null ? mVelocitySource.getVelocity(mAxis, mScrollPointerId, mMaximumVelocity) : 0f;
     }
     
     
@@ -1379,7 +2120,10 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     @SuppressWarnings("unchecked")
     public static <V extends View> SheetBehavior<V> from(V view)
     {
-        Log.d("SheetBehavior","from viewId [" + view.getId() + "]");
+        if (SheetLog.VERBOSE)
+        {
+            SheetLog.v(LOG_TAG, "from viewId [%d]", view.getId());
+        }
         ViewGroup.LayoutParams params = view.getLayoutParams();
         if (!(params instanceof CoordinatorLayout.LayoutParams))
         {
@@ -1394,14 +2138,81 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     }
     
     
+    private void addGestureMovement(View child, MotionEvent event)
+    {
+        // looked up again for each gesture, in case the sheet moved to another parent
+        if (mVelocitySource == null || event.getActionMasked() == MotionEvent.ACTION_DOWN)
+        {
+            mVelocitySource = SheetVelocitySource.from(child);
+            mGestureArbiter = SheetGestureArbiter.from(child);
+        }
+        mVelocitySource.addMovement(event);
+        mGestureArbiter.onTouchEvent(event);
+    }
+    
+    /**
+     * @return {@code true} if the sheet owns the gesture running over its parent, or can take it.
+     */
+    private boolean claimGesture(View child)
+    {
+        if (mGestureArbiter == null)
+        {
+            mGestureArbiter = SheetGestureArbiter.from(child);
+        }
+        return mGestureArbiter.tryClaim(this, mAxis.horizontal);
+    }
+    
+    private void releaseGesture()
+    {
+        if (mGestureArbiter != null)
+        {
+            mGestureArbiter.release(this);
+        }
+    }
+    
     private void reset()
     {
         mActivePointerId = ViewDragHelper.INVALID_POINTER;
-        if (mVelocityTracker != null)
+        mTouchPredictor.reset();
+    }
+    
+    /**
+     * Adds the samples of a move of the dragging pointer to the predictor, the historical ones first.
+     */
+    private void addPredictionSamples(MotionEvent event)
+    {
+        int pointerIndex = event.findPointerIndex(mViewDragHelper.getActivePointerId());
+        if (pointerIndex < 0)
+        {
+            return;
+        }
+        for (int h = 0, historySize = event.getHistorySize(); h < historySize; h++)
+        {
+            mTouchPredictor.addSample(event.getHistoricalEventTime(h), mAxis.select(event.getHistoricalX(pointerIndex, h), event.getHistoricalY(pointerIndex, h)));
+        }
+        mTouchPredictor.addSample(event.getEventTime(), mAxis.select(event.getX(pointerIndex), event.getY(pointerIndex)));
+    }
+    
+    /**
+     * Moves a position of the dragged sheet that follows the finger ahead, by the predicted move of the finger.
+     *
+     * @param position The position of the sheet at the last sample of the finger, clamped.
+     * @return The position of the sheet at the predicted position of the finger, clamped.
+     */
+    private int applyPredictedLead(int position)
+    {
+        if (mDragPrediction == 0 && mPredictedLead == 0)
+        {
+            return position;
+        }
+        int lead = 0;
+        if (mDragPrediction > 0 && mTouchPredictor.getSampleCount() > 1)
         {
-            mVelocityTracker.recycle();
-            mVelocityTracker = null;
+            lead = Math.round(mTouchPredictor.predict(mTouchPredictor.getLastTime() + mDragPrediction) - mTouchPredictor.getLastPosition());
         }
+        int predicted = mGeometry.clampOffset(position + lead);
+        mPredictedLead = predicted - position;
+        return predicted;
     }
     
     @VisibleForTesting
@@ -1428,126 +2239,183 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     
     @Override
     public boolean onLayoutChild(CoordinatorLayout parent, V child, int layoutDirection)
+    {
+        if (!SheetTrace.sEnabled)
+        {
+            return layoutChild(parent, child, layoutDirection);
+        }
+        SheetTrace.begin(mTraceSections[SheetTrace.ON_LAYOUT_CHILD]);
+        try
+        {
+            return layoutChild(parent, child, layoutDirection);
+        }
+        finally
+        {
+            SheetTrace.end();
+        }
+    }
+    
+    private boolean layoutChild(CoordinatorLayout parent, V child, int layoutDirection)
     {
         if (ViewCompat.getFitsSystemWindows(parent) && !ViewCompat.getFitsSystemWindows(child))
         {
             ViewCompat.setFitsSystemWindows(child, true);
         }
         
-        int savedTop = child.getTop();
-        int savedLeft = child.getLeft();
+        int savedOffset = mAxis.getOffset(child);
         
         // Pour commencer on laisse la vue parent faire le layout ...
         parent.onLayoutChild(child, layoutDirection);
         
-        // on détermine la taille de la partie collapsed en fonction de la valeur de peekSize.
-        // Cette méthode doit être appelée avant computeRemarquableOffsets() car
-        // computeRemarquableOffsets() dépend de la valeur de PeekSize.
-        int peekSize = this.getComputePeekSize(parent);
-        
-        // on recalcul tous les offsets ...
-        // ces derniers ne pourront être considérés fiables qu'après l'opération
-        // la méthode suivante ne peut et ne doit être appelée que lorsque les layout de la vue parent et enfant
-        // sont effectifs.
-        this.computeRemarquableOffsets(parent,child,layoutDirection, peekSize);
-        
-        if(mSheetMoveHorizontaly)
+        // les offsets ne dépendent que des bornes du parent, du peekSize, de hideable et de la position :
+        // tant qu'aucun ne change, on garde ceux du layout précédent.
+        if (mGeometry.hasOffsetsFor(parent.getLeft(), parent.getTop(), parent.getWidth(), parent.getHeight()))
         {
-            if (mState == STATE_EXPANDED)
-            {
-                ViewCompat.offsetLeftAndRight(child, mOffsetExpanded);
-            }
-            else if (mHideable && mState == STATE_HIDDEN)
-            {
-                ViewCompat.offsetLeftAndRight(child, mOffsetHidden);
-            }
-            else if (mState == STATE_COLLAPSED)
-            {
-                ViewCompat.offsetLeftAndRight(child, mOffsetCollapsed);
-            }
-            else if (mState == STATE_DRAGGING || mState == STATE_SETTLING)
-            {
-                int moveOffset = 0;
-                if (mSheetMoveHorizontaly)
-                {
-                    if (mSheetHiddenBeforeOrigin)
-                    {
-                        moveOffset = savedLeft + child.getLeft();
-                    }
-                    else
-                    {
-                        moveOffset = savedLeft - child.getLeft();
-                    }
-                }
-                else
-                {
-                    if (mSheetHiddenBeforeOrigin)
-                    {
-                        moveOffset = savedTop + child.getTop();
-                    }
-                    else
-                    {
-                        moveOffset = savedTop - child.getTop();
-                    }
-                }
-                ViewCompat.offsetLeftAndRight(child, moveOffset);
-            }
+            mMetrics.onOffsetCacheHit();
         }
         else
         {
-            if (mState == STATE_EXPANDED)
-            {
-                ViewCompat.offsetTopAndBottom(child, mOffsetExpanded);
-            }
-            else if (mHideable && mState == STATE_HIDDEN)
+            mMetrics.onOffsetCacheMiss();
+            
+            // on détermine la taille de la partie collapsed en fonction de la valeur de peekSize.
+            // Cette méthode doit être appelée avant computeRemarquableOffsets() car
+            // computeRemarquableOffsets() dépend de la valeur de PeekSize.
+            int peekSize = this.getComputePeekSize(parent);
+            
+            // on recalcul tous les offsets ...
+            // ces derniers ne pourront être considérés fiables qu'après l'opération
+            // la méthode suivante ne peut et ne doit être appelée que lorsque les layout de la vue parent et enfant
+            // sont effectifs.
+            if (SheetTrace.sEnabled)
             {
-                ViewCompat.offsetTopAndBottom(child, mOffsetHidden);
+                SheetTrace.begin(mTraceSections[SheetTrace.COMPUTE_OFFSETS]);
+                this.computeRemarquableOffsets(parent,child,layoutDirection, peekSize);
+                SheetTrace.end();
             }
-            else if (mState == STATE_COLLAPSED)
+            else
             {
-                ViewCompat.offsetTopAndBottom(child, mOffsetCollapsed);
+                this.computeRemarquableOffsets(parent,child,layoutDirection, peekSize);
             }
-            else if (mState == STATE_DRAGGING || mState == STATE_SETTLING)
+        }
+        
+        if (mState == STATE_EXPANDED)
+        {
+            mAxis.layoutAt(child, mGeometry.getOffsetExpanded());
+        }
+        else if (mGeometry.isHideable() && mState == STATE_HIDDEN)
+        {
+            mAxis.layoutAt(child, mGeometry.getOffsetHidden());
+        }
+        else if (mState == STATE_COLLAPSED)
+        {
+            mAxis.layoutAt(child, mGeometry.getOffsetCollapsed());
+        }
+        else if ((mState == STATE_DRAGGING || mState == STATE_SETTLING) && !mAxis.translation)
+        {
+            // un sheet translaté garde sa translation : seul un sheet déplacé par offset doit être replacé
+            mAxis.offset(child, mGeometry.getLayoutMoveOffset(savedOffset, mAxis.getOffset(child)));
+        }
+        if (mViewDragHelper == null)
+        {
+            mViewDragHelper = ViewDragHelper.create(parent, mDragCallback);
+        }
+        if (mViewRef == null || mViewRef.get() != child)
+        {
+            mViewRef = new WeakReference<>(child);
+            mScrollingChildValid = false;
+        }
+        updateScrollingChild(child);
+        if (mState == STATE_HIDDEN)
+        {
+            // état restauré ou fixé avant le premier layout : le sheet n'est plus dessiné
+            hideFromTraversal(child, false);
+        }
+        return true;
+    }
+    
+    /**
+     * Resolves the nested scrolling child of the sheet, walking its subtree only when the cached one is no
+     * longer valid.
+     * <p>
+     * The cache is invalidated by a hierarchy change listener on each ViewGroup between the sheet and the
+     * scrolling child, which catches a view inserted before the path as well as the removal of the path, and
+     * is checked on each layout by walking the parents of the scrolling child up to the sheet. A sheet without
+     * a scrolling child is walked on each layout, as any view added in its subtree may become one.
+     * <p>
+     * A ViewGroup has a single hierarchy change listener: the one of the ViewGroups on this path is owned by
+     * the behavior.
+     */
+    private void updateScrollingChild(V child)
+    {
+        if (mScrollingChildValid && isScrollingChildAttached(child))
+        {
+            return;
+        }
+        releaseScrollingChildPath();
+        View scrollingChild = findScrollingChild(child);
+        if (mNestedScrollingChildRef == null || mNestedScrollingChildRef.get() != scrollingChild)
+        {
+            mNestedScrollingChildRef = new WeakReference<>(scrollingChild);
+        }
+        if (scrollingChild == null)
+        {
+            return;
+        }
+        ViewParent parent = scrollingChild.getParent();
+        if (scrollingChild != child)
+        {
+            while (parent instanceof ViewGroup)
             {
-                int moveOffset = 0;
-                if (mSheetMoveHorizontaly)
-                {
-                    if (mSheetHiddenBeforeOrigin)
-                    {
-                        moveOffset = savedLeft + child.getLeft();
-                    }
-                    else
-                    {
-                        moveOffset = savedLeft - child.getLeft();
-                    }
-                }
-                else
+                ViewGroup group = (ViewGroup) parent;
+                group.setOnHierarchyChangeListener(mHierarchyChangeListener);
+                mScrollingChildPath.add(group);
+                if (group == child)
                 {
-                    if (mSheetHiddenBeforeOrigin)
-                    {
-                        moveOffset = savedTop + child.getTop();
-                    }
-                    else
-                    {
-                        moveOffset = savedTop - child.getTop();
-                    }
+                    break;
                 }
-                ViewCompat.offsetTopAndBottom(child, moveOffset);
+                parent = group.getParent();
             }
         }
-        if (mViewDragHelper == null)
+        mScrollingChildValid = true;
+    }
+    
+    private boolean isScrollingChildAttached(V child)
+    {
+        View scrollingChild = mNestedScrollingChildRef != null ? mNestedScrollingChildRef.get() : null;
+        if (scrollingChild == null || !ViewCompat.isNestedScrollingEnabled(scrollingChild))
         {
-            mViewDragHelper = ViewDragHelper.create(parent, mDragCallback);
+            return false;
+        }
+        View view = scrollingChild;
+        while (view != child)
+        {
+            ViewParent parent = view.getParent();
+            if (!(parent instanceof View))
+            {
+                return false;
+            }
+            view = (View) parent;
         }
-        mViewRef = new WeakReference<>(child);
-        mNestedScrollingChildRef = new WeakReference<>(findScrollingChild(child));
         return true;
     }
     
+    private void releaseScrollingChildPath()
+    {
+        for (int i = 0, count = mScrollingChildPath.size(); i < count; i++)
+        {
+            mScrollingChildPath.get(i).setOnHierarchyChangeListener(null);
+        }
+        mScrollingChildPath.clear();
+        mScrollingChildValid = false;
+    }
+    
     
     private void computeRemarquableOffsets(CoordinatorLayout parent, V child, int layoutDirection, int peekSize)
     {
-        Log.d(getLogTag(),"computeRemarquableOffsets peekSize [" + peekSize + "]");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(getLogTag(), "computeRemarquableOffsets peekSize [%d]", peekSize);
+        }
         // ici on met à jour trois offsets :
         //
         // - mOffsetHidden
@@ -1632,162 +2500,244 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
         // - mSheetMoveHorizontaly == false
         // - mSheetHiddenBeforeOrigin == false
         
-        if(mSheetMoveHorizontaly)
+        mGeometry.computeOffsets(parent.getLeft(), parent.getTop(), parent.getWidth(), parent.getHeight(), peekSize);
+    
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(getLogTag(), "computeRemarquableOffsets hidden [%d] collapsed [%d] expanded [%d]", mGeometry.getOffsetHidden(), mGeometry.getOffsetCollapsed(), mGeometry.getOffsetExpanded());
+        }
+    }
+    
+    private int getComputePeekSize(CoordinatorLayout parent)
+    {
+        if (mGeometry.isPeekSizeAuto())
         {
-            // WEST and EAST
-            if(mSheetHiddenBeforeOrigin)
+            if (SheetLog.DEBUG)
             {
-                // WEST
-                mOffsetHidden = parent.getLeft() - parent.getWidth();
-                mOffsetCollapsed = mOffsetHidden + Math.abs(peekSize);
-                mOffsetExpanded = parent.getLeft();
+                SheetLog.d(getLogTag(), "getComputePeekSize peekSize set in AUTO mode.");
             }
-            else
+            if (mGeometry.getPeekSizeMin() == 0)
             {
-                // EAST
-                mOffsetHidden = parent.getLeft() + parent.getWidth();
-                mOffsetCollapsed = mOffsetHidden - Math.abs(peekSize) ;
-                mOffsetExpanded = parent.getLeft();
+                mGeometry.setPeekSizeMin(parent.getResources().getDimensionPixelSize(R.dimen.design_sheet_peek_size_min));
+                if (SheetLog.DEBUG)
+                {
+                    SheetLog.d(getLogTag(), "getComputePeekSize mPeekSizeMin read from default [%d]", mGeometry.getPeekSizeMin());
+                }
             }
         }
-        else
+        
+        // on met peekSize à 1/4 de la taille du parent en mode AUTO
+        int peekSize = mGeometry.computePeekSize(parent.getWidth(), parent.getHeight());
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(getLogTag(), "getComputePeekSize peekSize [%d]", peekSize);
+        }
+        return peekSize;
+    }
+    
+    @Override
+    public boolean onInterceptTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
+    {
+        if (!SheetTrace.sEnabled)
+        {
+            return interceptTouchEvent(parent, child, event);
+        }
+        SheetTrace.begin(mTraceSections[SheetTrace.ON_INTERCEPT_TOUCH_EVENT]);
+        try
+        {
+            return interceptTouchEvent(parent, child, event);
+        }
+        finally
+        {
+            SheetTrace.end();
+        }
+    }
+    
+    private boolean interceptTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
+    {
+        boolean intercepted = false;
+    
+        View scroll = mNestedScrollingChildRef != null ? mNestedScrollingChildRef.get() : null;
+    
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN)
+        {
+            // un sheet caché par hideFromTraversal n'est plus affiché, mais peut encore être tiré de son bord
+            mEdgeDragPending = isInEdgeZone(parent, child, event.getX(), event.getY());
+            mEdgePointerId = event.getPointerId(event.getActionIndex());
+        }
+        if (!child.isShown() && !mEdgeDragPending)
+        {
+            mIgnoreEvents = true;
+            mGestureCandidate = false;
+            intercepted = false;
+            return intercepted;
+        }
+        
+        if (action == MotionEvent.ACTION_DOWN)
         {
-            // NORTH and SOUTH
-            if(mSheetHiddenBeforeOrigin)
+            // the sheet is a candidate for the whole gesture when the down lands on it, on its scrolling child,
+            // or in its edge zone while it is hidden
+            reset();
+            mInitialX = (int) event.getX();
+            mInitialY = (int) event.getY();
+            if (scroll != null && parent.isPointInChildBounds(scroll, mInitialX, mInitialY))
             {
-                // NORTH
-                mOffsetHidden = parent.getTop() - parent.getHeight();
-                mOffsetCollapsed = mOffsetHidden + Math.abs(peekSize) ;
-                mOffsetExpanded = parent.getTop();
+                mActivePointerId = event.getPointerId(event.getActionIndex());
+                mTouchingScrollingChild = true;
             }
-            else
+            mScrollPointerId = mActivePointerId;
+            mIgnoreEvents = mActivePointerId == MotionEvent.INVALID_POINTER_ID && !parent.isPointInChildBounds(child, mInitialX, mInitialY);
+            mGestureCandidate = !mIgnoreEvents || mEdgeDragPending;
+            if (!mGestureCandidate)
+            {
+                return false;
+            }
+        }
+        else if (!mGestureCandidate)
+        {
+            // nothing to track until the next down: neither velocity nor ViewDragHelper
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)
+            {
+                mTouchingScrollingChild = false;
+                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                mIgnoreEvents = false;
+            }
+            return false;
+        }
+    
+        // the nested scroll triggered by this event, if any, is measured from it.
+        mLatencyTracker.onInputEvent(event.getEventTime());
+        
+        // Record the velocity
+        addGestureMovement(child, event);
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)
+        {
+            mTouchingScrollingChild = false;
+            mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+            mEdgeDragPending = false;
+            // Reset the ignore flag
+            if (mIgnoreEvents)
             {
-                // SOUTH
-                mOffsetHidden = parent.getTop() + parent.getHeight();;
-                mOffsetCollapsed = mOffsetHidden - Math.abs(peekSize) ;
-                mOffsetExpanded = parent.getTop();
+                mIgnoreEvents = false;
+                return false;
             }
         }
-    
-        Log.d(getLogTag(),"computeRemarquableOffsets mOffsetHidden .....[" + mOffsetHidden + "]");
-        Log.d(getLogTag(),"computeRemarquableOffsets mOffsetCollapsed ..[" + mOffsetCollapsed + "]");
-        Log.d(getLogTag(),"computeRemarquableOffsets mOffsetExpanded ...[" + mOffsetExpanded + "]");
-    }
-    
-    private int getComputePeekSize(CoordinatorLayout parent)
-    {
-        mParentHeight = parent.getHeight();
-        mParentWidth = parent.getWidth();
-        
-        
-        int peekSize;
-        if (mPeekSizeAuto)
+    
+        boolean shouldInterceptTouchEvent = mViewDragHelper.shouldInterceptTouchEvent(event);
+        if (!mIgnoreEvents && shouldInterceptTouchEvent)
+        {
+            return true;
+        }
+        if (mEdgeDragPending && action == MotionEvent.ACTION_MOVE)
+        {
+            return captureFromEdge(child, event);
+        }
+        // We have to handle cases that the ViewDragHelper does not capture the sheet because
+        // it is not the top most view of its parent. This is not necessary when the touch event is
+        // happening over the scrolling content as nested scrolling logic handles that case.
+        intercepted = action == MotionEvent.ACTION_MOVE && scroll != null && !mIgnoreEvents && mState != STATE_DRAGGING && !parent.isPointInChildBounds(scroll, (int) event.getX(), (int) event.getY()) && Math.abs(mAxis.select(mInitialX, mInitialY) - mAxis.select(event.getX(), event.getY())) > mViewDragHelper.getTouchSlop();
+        return intercepted;
+    }
+    
+    /**
+     * @return {@code true} if the point, in the coordinates of the parent, lies in the edge zone from which the
+     *         hidden sheet can be dragged in.
+     */
+    private boolean isInEdgeZone(CoordinatorLayout parent, V child, float x, float y)
+    {
+        if (!mEdgeDragEnabled || mState != STATE_HIDDEN || mViewDragHelper == null)
+        {
+            return false;
+        }
+        // seul un sheet caché par le behavior peut être révélé : une visibilité fixée par l'application est respectée
+        if (!child.isShown() && !mHiddenFromTraversal)
+        {
+            return false;
+        }
+        if (mCoordinator != null && !mCoordinator.isEdgeRevealAllowed(mCoordinatorIndex))
+        {
+            return false;
+        }
+        int edgeSize = mEdgeSize;
+        if (edgeSize == EDGE_SIZE_AUTO)
         {
-            Log.d(getLogTag(),"getComputePeekSize peekSize set in AUTO mode.");
-            if (mPeekSizeMin == 0)
+            if (mAutoEdgeSize < 0)
             {
-                mPeekSizeMin = parent.getResources().getDimensionPixelSize(R.dimen.design_sheet_peek_size_min);
-                Log.d(getLogTag(),"getComputePeekSize mPeekSizeMin read from default [" + mPeekSizeMin + "]");
+                mAutoEdgeSize = parent.getResources().getDimensionPixelSize(R.dimen.design_sheet_edge_size);
             }
-            
-            // on met peekSize à 1/3 de
-            if(mSheetMoveHorizontaly)
-            {
-                peekSize = Math.max( mPeekSizeMin, Math.abs( mParentWidth * 1 / 4 ) );
-            }
-            else
-            {
-                peekSize = Math.max( mPeekSizeMin, Math.abs( mParentHeight * 1 / 4 ) );
-            }
-            Log.d(getLogTag(),"getComputePeekSize compute peekSize [" + peekSize + "]");
+            edgeSize = mAutoEdgeSize;
         }
-        else
+        // le bord est du côté où le sheet se cache : en bas pour un sheet SOUTH, à gauche pour un sheet WEST ...
+        float along = mAxis.select(x, y);
+        if (mGeometry.getDirection().getHideSign() > 0)
         {
-            peekSize = mPeekSize;
-            Log.d(getLogTag(),"getComputePeekSize peekSize from configuration [" + peekSize + "]");
+            return along >= mAxis.select(parent.getWidth(), parent.getHeight()) - edgeSize;
         }
-    
-        Log.d(getLogTag(),"getComputePeekSize peekSize ...[" + peekSize + "]");
-        
-        return peekSize;
+        return along < edgeSize;
     }
     
-    @Override
-    public boolean onInterceptTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
+    /**
+     * Captures the hidden sheet once a drag started in its edge zone goes away from that edge past the touch
+     * slop. A drag crossing the axis of the sheet first is left to the other views.
+     *
+     * @return {@code true} if the sheet is captured, the following events of the gesture are then intercepted.
+     */
+    private boolean captureFromEdge(V child, MotionEvent event)
     {
-        boolean intercepted = false;
-    
-        View scroll = mNestedScrollingChildRef != null ? mNestedScrollingChildRef.get() : null;
-    
-        if (!child.isShown())
-        {
-            mIgnoreEvents = true;
-            intercepted = false;
-            return intercepted;
-        }
-    
-        int action = event.getActionMasked();
-        // Record the velocity
-        if (action == MotionEvent.ACTION_DOWN)
+        // only the pointer of the down is followed, another finger does not reveal the sheet
+        int pointerIndex = event.findPointerIndex(mEdgePointerId);
+        if (pointerIndex < 0)
         {
-            reset();
+            mEdgeDragPending = false;
+            return false;
         }
-        
-        if (mVelocityTracker == null)
+        float dx = event.getX(pointerIndex) - mInitialX;
+        float dy = event.getY(pointerIndex) - mInitialY;
+        float reveal = -mGeometry.getDirection().getHideSign() * mAxis.select(dx, dy);
+        int touchSlop = mViewDragHelper.getTouchSlop();
+        if (reveal > touchSlop)
         {
-            mVelocityTracker = VelocityTracker.obtain();
+            mEdgeDragPending = false;
+            if (!claimGesture(child))
+            {
+                return false;
+            }
+            mIgnoreEvents = false;
+            revealForTraversal(child);
+            mViewDragHelper.captureChildView(child, mEdgePointerId);
+            return true;
         }
-    
-        mVelocityTracker.addMovement(event);
-        switch (action)
+        if (Math.abs(mAxis.select(dy, dx)) > touchSlop)
         {
-            case MotionEvent.ACTION_UP:
-            case MotionEvent.ACTION_CANCEL:
-                mTouchingScrollingChild = false;
-                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
-                // Reset the ignore flag
-                if (mIgnoreEvents)
-                {
-                    mIgnoreEvents = false;
-                    return false;
-                }
-                break;
-            case MotionEvent.ACTION_DOWN:
-                mInitialX = (int) event.getX();
-                mInitialY = (int) event.getY();
-                if (scroll != null && parent.isPointInChildBounds(scroll, mInitialX, mInitialY))
-                {
-                    mActivePointerId = event.getPointerId(event.getActionIndex());
-                    mTouchingScrollingChild = true;
-                }
-                mIgnoreEvents = mActivePointerId == MotionEvent.INVALID_POINTER_ID && !parent.isPointInChildBounds(child, mInitialX, mInitialY);
-                break;
+            mEdgeDragPending = false;
         }
+        return false;
+    }
     
-        boolean shouldInterceptTouchEvent = mViewDragHelper.shouldInterceptTouchEvent(event);
-        if (!mIgnoreEvents && shouldInterceptTouchEvent)
+    @Override
+    public boolean onTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
+    {
+        if (!SheetTrace.sEnabled)
         {
-            return true;
+            return handleTouchEvent(parent, child, event);
         }
-        // We have to handle cases that the ViewDragHelper does not capture the sheet because
-        // it is not the top most view of its parent. This is not necessary when the touch event is
-        // happening over the scrolling content as nested scrolling logic handles that case.
-        if(!mSheetMoveHorizontaly)
+        SheetTrace.begin(mTraceSections[SheetTrace.ON_TOUCH_EVENT]);
+        try
         {
-            intercepted = action == MotionEvent.ACTION_MOVE && scroll != null && !mIgnoreEvents && mState != STATE_DRAGGING && !parent.isPointInChildBounds(scroll, (int) event.getX(), (int) event.getY()) && Math.abs(mInitialY - event.getY()) > mViewDragHelper.getTouchSlop();
+            return handleTouchEvent(parent, child, event);
         }
-        else
+        finally
         {
-            intercepted = action == MotionEvent.ACTION_MOVE && scroll != null && !mIgnoreEvents && mState != STATE_DRAGGING && !parent.isPointInChildBounds(scroll, (int) event.getX(), (int) event.getY()) && Math.abs(mInitialX - event.getX()) > mViewDragHelper.getTouchSlop();
+            SheetTrace.end();
         }
-        return intercepted;
     }
     
-    @Override
-    public boolean onTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
+    private boolean handleTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
     {
-        if (!child.isShown())
+        if (!child.isShown() || !mGestureCandidate)
         {
+            // rejected at the down of the gesture, see interceptTouchEvent
             return false;
         }
         int action = event.getActionMasked();
@@ -1796,58 +2746,29 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
             return true;
         }
     
-        if (mViewDragHelper != null)
-        {
-            mViewDragHelper.processTouchEvent(event);
-        }
-        // Record the velocity
+        mLatencyTracker.onInputEvent(event.getEventTime());
+        // Record the velocity, before the ViewDragHelper releases the sheet with it
         if (action == MotionEvent.ACTION_DOWN)
         {
             reset();
         }
-    
-        if (mVelocityTracker == null)
+        addGestureMovement(child, event);
+        if (mDragPrediction > 0 && action == MotionEvent.ACTION_MOVE && mState == STATE_DRAGGING)
         {
-            mVelocityTracker = VelocityTracker.obtain();
+            // before the ViewDragHelper moves the sheet, so that the clamp sees the samples of this move
+            addPredictionSamples(event);
+        }
+        if (mViewDragHelper != null)
+        {
+            mViewDragHelper.processTouchEvent(event);
         }
-        mVelocityTracker.addMovement(event);
         // The ViewDragHelper tries to capture only the top-most View. We have to explicitly tell it
         // to capture the bottom sheet in case it is not captured and the touch slop is passed.
         if (action == MotionEvent.ACTION_MOVE && !mIgnoreEvents)
         {
-            if(!mSheetMoveHorizontaly)
+            if (Math.abs(mAxis.select(mInitialX, mInitialY) - mAxis.select(event.getX(), event.getY())) > mViewDragHelper.getTouchSlop() && claimGesture(child))
             {
-                if(!mSheetHiddenBeforeOrigin)
-                {
-                    if (Math.abs(mInitialY - event.getY()) > mViewDragHelper.getTouchSlop())
-                    {
-                        mViewDragHelper.captureChildView(child, event.getPointerId(event.getActionIndex()));
-                    }
-                }
-                else
-                {
-                    if (Math.abs(event.getY() - mInitialY) > mViewDragHelper.getTouchSlop())
-                    {
-                        mViewDragHelper.captureChildView(child, event.getPointerId(event.getActionIndex()));
-                    }
-                }
-            }
-            else
-            {
-                if(!mSheetHiddenBeforeOrigin)
-                {
-                    if (Math.abs(mInitialX - event.getX()) > mViewDragHelper.getTouchSlop())
-                    {
-                        mViewDragHelper.captureChildView(child, event.getPointerId(event.getActionIndex()));
-                    }
-                }
-                else
-                {
-                    if (Math.abs( event.getX() - mInitialX) > mViewDragHelper.getTouchSlop())
-                    {
-                        mViewDragHelper.captureChildView(child, event.getPointerId(event.getActionIndex()));
-                    }
-                }
+                mViewDragHelper.captureChildView(child, event.getPointerId(event.getActionIndex()));
             }
         }
         return !mIgnoreEvents;
@@ -1856,389 +2777,112 @@ public class SheetBehavior <V extends View> extends CoordinatorLayout.Behavior<V
     @Override
     public boolean onStartNestedScroll(CoordinatorLayout coordinatorLayout, V child, View directTargetChild, View target, int nestedScrollAxes)
     {
-        // on autorise les nestedScroll dans toutes les directions... quelques soit le sheet ... si la vue supporte les nested scroll ...
-        boolean nestedScroll = false;
-        if(!mSheetMoveHorizontaly)
+        // on n'accepte que les nestedScroll du scroll enfant de ce sheet, et sur l'axe où il bouge :
+        // le scroll vertical d'un sheet WEST ne passe plus par onNestedPreScroll pour rien.
+        mLastNestedScrollDelta = 0;
+        mNestedScrolled = false;
+        View scrollingChild = mNestedScrollingChildRef != null ? mNestedScrollingChildRef.get() : null;
+        boolean nestedScroll = target == scrollingChild && (nestedScrollAxes & mAxis.select(ViewCompat.SCROLL_AXIS_HORIZONTAL, ViewCompat.SCROLL_AXIS_VERTICAL)) != 0;
+        return nestedScroll;
+    }
+    
+    @Override
+    public void onNestedPreScroll(CoordinatorLayout coordinatorLayout, V child, View target, int dx, int dy, int[] consumed)
+    {
+        if (!SheetTrace.sEnabled)
         {
-            mLastNestedScrollDy = 0;
-            mNestedScrolled = false;
-            nestedScroll = (nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0 || (nestedScrollAxes & ViewCompat.SCROLL_AXIS_HORIZONTAL) != 0;
+            nestedPreScroll(coordinatorLayout, child, target, dx, dy, consumed);
+            return;
         }
-        else
+        SheetTrace.begin(mTraceSections[SheetTrace.ON_NESTED_PRE_SCROLL]);
+        try
         {
-            mLastNestedScrollDx = 0;
-            mNestedScrolled = false;
-            nestedScroll = (nestedScrollAxes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0 || (nestedScrollAxes & ViewCompat.SCROLL_AXIS_HORIZONTAL) != 0;
+            nestedPreScroll(coordinatorLayout, child, target, dx, dy, consumed);
+        }
+        finally
+        {
+            SheetTrace.end();
         }
-        return nestedScroll;
     }
     
-    @Override
-    public void onNestedPreScroll(CoordinatorLayout coordinatorLayout, V child, View target, int dx, int dy, int[] consumed)
+    private void nestedPreScroll(CoordinatorLayout coordinatorLayout, V child, View target, int dx, int dy, int[] consumed)
     {
         View scrollingChild = mNestedScrollingChildRef.get();
         if (target != scrollingChild)
         {
             return;
         }
-        int currentTop = child.getTop();
-        int currentLeft = child.getLeft();
-        int newTop = currentTop - dy;
-        int newLeft = currentLeft - dx;
-        
-        if(!mSheetMoveHorizontaly)
+        final int delta = mAxis.select(dx, dy);
+        // un delta qui referme le sheet n'est consommé que si le contenu ne peut plus scroller dans ce sens
+        if (delta != 0 && !mGeometry.isTowardsExpanded(delta) && mAxis.canScroll(target, -mGeometry.getDirection().getHideSign()))
         {
-            if(!mSheetHiddenBeforeOrigin)
-            {
-                if (dy > 0)
-                {
-                    // Upward
-                    // Si on tente de dépasser mOffsetExpanded ...
-                    // on déplace le sheet pour qu'il arrive à mOffsetExpanded...
-                    // on clamp le sheet à cette valeur.
-                    if (newTop < mOffsetExpanded)
-                    {
-                        consumed[1] = currentTop - mOffsetExpanded;
-                        ViewCompat.offsetTopAndBottom(child, -consumed[1]);
-                        setStateInternal(STATE_EXPANDED);
-                    }
-                    else
-                    {
-                        consumed[1] = dy;
-                        ViewCompat.offsetTopAndBottom(child, -dy);
-                        setStateInternal(STATE_DRAGGING);
-                    }
-                }
-                else if (dy < 0)
-                {
-                    // Downward
-                    if (!target.canScrollVertically(-1))
-                    {
-                        if (newTop <= mOffsetCollapsed || mHideable)
-                        {
-                            consumed[1] = dy;
-                            ViewCompat.offsetTopAndBottom(child, -dy);
-                            setStateInternal(STATE_DRAGGING);
-                        }
-                        else
-                        {
-                            consumed[1] = currentTop - mOffsetCollapsed;
-                            ViewCompat.offsetTopAndBottom(child, -consumed[1]);
-                            setStateInternal(STATE_COLLAPSED);
-                        }
-                    }
-                    else
-                    {
-                        Log.e(getLogTag(), "onNestedPreScroll DOWNWARD moveOffset IGNORED");
-                    }
-                }
-            }
-            else
+            if (SheetLog.VERBOSE)
             {
-                if (dy < 0)
-                {
-                    // Downward
-                    
-                    if (newTop > mOffsetExpanded)
-                    {
-                        consumed[1] = currentTop - mOffsetExpanded;
-                        ViewCompat.offsetTopAndBottom(child, -consumed[1]);
-                        setStateInternal(STATE_EXPANDED);
-                    }
-                    else
-                    {
-                        consumed[1] = dy;
-                        ViewCompat.offsetTopAndBottom(child, -dy);
-                        setStateInternal(STATE_DRAGGING);
-                    }
-                }
-                else if (dy > 0)
-                {
-                    // Upward
-                    if (!target.canScrollVertically(1))
-                    {
-            
-                        if (newTop <= mOffsetCollapsed || mHideable)
-                        {
-                            consumed[1] = dy;
-                            ViewCompat.offsetTopAndBottom(child, -dy);
-                            setStateInternal(STATE_DRAGGING);
-                        }
-                        else
-                        {
-                            consumed[1] = currentTop - mOffsetCollapsed;
-                            ViewCompat.offsetTopAndBottom(child, -consumed[1]);
-                            setStateInternal(STATE_COLLAPSED);
-                        }
-                    }
-                    else
-                    {
-                        Log.e(getLogTag(), "onNestedPreScroll DOWNWARD moveOffset IGNORED");
-                    }
-                }
+                SheetLog.v(getLogTag(), "onNestedPreScroll DOWNWARD moveOffset IGNORED");
             }
-            mLastNestedScrollDy = dy;
         }
         else
         {
-            if(!mSheetHiddenBeforeOrigin)
-            {
-                if (dx > 0)
-                {
-                    //
-                    // Si on tente de dépasser mOffsetExpanded ...
-                    // on déplace le sheet pour qu'il arrive à mOffsetExpanded...
-                    // on clamp le sheet à cette valeur.
-                    if (newLeft < mOffsetExpanded)
-                    {
-                        consumed[0] = currentLeft - mOffsetExpanded;
-                        ViewCompat.offsetLeftAndRight(child, -consumed[0]);
-                        setStateInternal(STATE_EXPANDED);
-                    }
-                    else
-                    {
-                        consumed[0] = dx;
-                        ViewCompat.offsetLeftAndRight(child, -dx);
-                        setStateInternal(STATE_DRAGGING);
-                    }
-                }
-                else if (dx < 0)
-                {
-                    // Downward
-                    if (!target.canScrollHorizontally(-1))
-                    {
-                        if (newLeft <= mOffsetCollapsed || mHideable)
-                        {
-                            consumed[0] = dx;
-                            ViewCompat.offsetLeftAndRight(child, -dx);
-                            setStateInternal(STATE_DRAGGING);
-                        }
-                        else
-                        {
-                            consumed[0] = currentLeft - mOffsetCollapsed;
-                            ViewCompat.offsetLeftAndRight(child, -consumed[0]);
-                            setStateInternal(STATE_COLLAPSED);
-                        }
-                    }
-                    else
-                    {
-                        Log.e(getLogTag(), "onNestedPreScroll DOWNWARD moveOffset IGNORED");
-                    }
-                }
-            }
-            else
+            int currentOffset = mAxis.getOffset(child);
+            @SheetBehavior.State int state = mGeometry.getNestedPreScrollState(currentOffset, delta);
+            // le sheet ne bouge que s'il possède le geste : un autre sheet peut l'avoir capturé
+            if (state != 0 && claimGesture(child))
             {
-                if (dx < 0)
-                {
-                    // Downward
-            
-                    if (newLeft > mOffsetExpanded)
-                    {
-                        consumed[0] = currentLeft - mOffsetExpanded;
-                        ViewCompat.offsetLeftAndRight(child, -consumed[0]);
-                        setStateInternal(STATE_EXPANDED);
-                    }
-                    else
-                    {
-                        consumed[0] = dx;
-                        ViewCompat.offsetLeftAndRight(child, -dx);
-                        setStateInternal(STATE_DRAGGING);
-                    }
-                }
-                else if (dx > 0)
-                {
-                    // Upward
-                    if (!target.canScrollHorizontally(1))
-                    {
-                
-                        if (newLeft <= mOffsetCollapsed || mHideable)
-                        {
-                            consumed[0] = dx;
-                            ViewCompat.offsetLeftAndRight(child, -dx);
-                            setStateInternal(STATE_DRAGGING);
-                        }
-                        else
-                        {
-                            consumed[0] = currentLeft - mOffsetCollapsed;
-                            ViewCompat.offsetLeftAndRight(child, -consumed[0]);
-                            setStateInternal(STATE_COLLAPSED);
-                        }
-                    }
-                    else
-                    {
-                        Log.e(getLogTag(), "onNestedPreScroll DOWNWARD moveOffset IGNORED");
-                    }
-                }
+                // en DRAGGING le sheet suit tout le delta, sinon il s'arrête sur l'offset de l'état
+                int consumedDelta = state == STATE_DRAGGING ? delta : currentOffset - mGeometry.getOffsetForState(state);
+                consumed[mAxis.select(0, 1)] = consumedDelta;
+                mAxis.offset(child, -consumedDelta);
+                setStateInternal(state);
             }
-            mLastNestedScrollDx = dx;
         }
+        mLastNestedScrollDelta = delta;
         
-        dispatchOnSlide(child.getLeft(),child.getTop());
+        if (consumed[0] != 0 || consumed[1] != 0)
+        {
+            mLatencyTracker.onOffsetApplied();
+        }
+        dispatchOnSlide(child);
         mNestedScrolled = true;
     }
     
     @Override
     public void onStopNestedScroll(CoordinatorLayout coordinatorLayout, V child, View target)
     {
-        if (!mSheetMoveHorizontaly && child.getTop() == mOffsetExpanded || (mSheetMoveHorizontaly && child.getLeft() == mOffsetExpanded))
+        if (!SheetTrace.sEnabled)
         {
-            setStateInternal(STATE_EXPANDED);
+            stopNestedScroll(coordinatorLayout, child, target);
             return;
         }
-        
-        if (mNestedScrollingChildRef == null || target != mNestedScrollingChildRef.get() || !mNestedScrolled)
+        SheetTrace.begin(mTraceSections[SheetTrace.ON_STOP_NESTED_SCROLL]);
+        try
         {
-            return;
+            stopNestedScroll(coordinatorLayout, child, target);
         }
-        
-        int top = child.getTop();
-        int left = child.getLeft();
-        int targetState;
-        
-        if(!mSheetMoveHorizontaly)
+        finally
         {
-            if(!mSheetHiddenBeforeOrigin)
-            {
-                if (mLastNestedScrollDy > 0)
-                {
-                    top = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else if (mHideable && shouldHide(child, getXVelocity(), getYVelocity()))
-                {
-                    top = mOffsetHidden;
-                    targetState = STATE_HIDDEN;
-                }
-                else if (mLastNestedScrollDy == 0)
-                {
-                    int currentTop = child.getTop();
-                    if (Math.abs(currentTop - mOffsetExpanded) < Math.abs(currentTop - mOffsetCollapsed))
-                    {
-                        top = mOffsetExpanded;
-                        targetState = STATE_EXPANDED;
-                    }
-                    else
-                    {
-                        top = mOffsetCollapsed;
-                        targetState = STATE_COLLAPSED;
-                    }
-                }
-                else
-                {
-                    top = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
-            }
-            else
-            {
-                if (mLastNestedScrollDy < 0)
-                {
-                    top = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else if (mHideable && shouldHide(child, getXVelocity(), getYVelocity()))
-                {
-                    top = mOffsetHidden;
-                    targetState = STATE_HIDDEN;
-                }
-                else if (mLastNestedScrollDy == 0)
-                {
-                    int currentTop = child.getTop();
-                    if (Math.abs(currentTop - mOffsetExpanded) < Math.abs(currentTop - mOffsetCollapsed))
-                    {
-                        top = mOffsetExpanded;
-                        targetState = STATE_EXPANDED;
-                    }
-                    else
-                    {
-                        top = mOffsetCollapsed;
-                        targetState = STATE_COLLAPSED;
-                    }
-                }
-                else
-                {
-                    top = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
-            }
+            SheetTrace.end();
         }
-        else
+    }
+    
+    private void stopNestedScroll(CoordinatorLayout coordinatorLayout, V child, View target)
+    {
+        releaseGesture();
+        if (mAxis.getOffset(child) == mGeometry.getOffsetExpanded())
         {
-            if(!mSheetHiddenBeforeOrigin)
-            {
-                if (mLastNestedScrollDx > 0)
-                {
-                    left = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else if (mHideable && shouldHide(child, getXVelocity(), getYVelocity()))
-                {
-                    left = mOffsetHidden;
-                    targetState = STATE_HIDDEN;
-                }
-                else if (mLastNestedScrollDx == 0)
-                {
-                    int currentLeft = child.getLeft();
-                    if (Math.abs(currentLeft - mOffsetExpanded) < Math.abs(currentLeft - mOffsetCollapsed))
-                    {
-                        left = mOffsetExpanded;
-                        targetState = STATE_EXPANDED;
-                    }
-                    else
-                    {
-                        left = mOffsetCollapsed;
-                        targetState = STATE_COLLAPSED;
-                    }
-                }
-                else
-                {
-                    left = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
-            }
-            else
-            {
-                if (mLastNestedScrollDx < 0)
-                {
-                    left = mOffsetExpanded;
-                    targetState = STATE_EXPANDED;
-                }
-                else if (mHideable && shouldHide(child, getXVelocity(), getYVelocity()))
-                {
-                    left = mOffsetHidden;
-                    targetState = STATE_HIDDEN;
-                }
-                else if (mLastNestedScrollDx == 0)
-                {
-                    int currentLeft = child.getLeft();
-                    if (Math.abs(currentLeft - mOffsetExpanded) < Math.abs(currentLeft - mOffsetCollapsed))
-                    {
-                        left = mOffsetExpanded;
-                        targetState = STATE_EXPANDED;
-                    }
-                    else
-                    {
-                        left = mOffsetCollapsed;
-                        targetState = STATE_COLLAPSED;
-                    }
-                }
-                else
-                {
-                    left = mOffsetCollapsed;
-                    targetState = STATE_COLLAPSED;
-                }
-            }
+            setStateInternal(STATE_EXPANDED);
+            return;
         }
         
-        if (mViewDragHelper.smoothSlideViewTo(child, left, top))
-        {
-            setStateInternal(STATE_SETTLING);
-            ViewCompat.postOnAnimation(child, new SheetBehavior.SettleRunnable(child, targetState));
-        }
-        else
+        if (mNestedScrollingChildRef == null || target != mNestedScrollingChildRef.get() || !mNestedScrolled)
         {
-            setStateInternal(targetState);
+            return;
         }
+        
+        // la velocité n'est lue que si le sheet peut être caché ou qu'un moteur d'animation la reprend
+        float velocity = mGeometry.isHideable() || mSettleEngine != null ? getNestedScrollVelocity() : 0f;
+        int targetState = mGeometry.getNestedScrollStopState(mAxis.getOffset(child), mLastNestedScrollDelta, velocity);
+        
+        settleTo(child, targetState, velocity, false);
         mNestedScrolled = false;
     }
     
@@ -0,0 +1,250 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.Nullable;
+import android.support.annotation.RestrictTo;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import static android.support.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+/**
+ * Coordinates the sheets of a screen: tracks which ones are open, routes the swipes and the edge drags to the
+ * sheet of an edge and applies an exclusivity policy between them.
+ * <p>
+ * A sheet is open while it is not {@link SheetBehavior#STATE_HIDDEN}. Each registered sheet owns one bit of a
+ * mask that its behavior updates on every change of state, so that {@link #isAnySheetOpen()} and
+ * {@link #handleSwipe(int)} do not depend on the number of sheets. Up to {@link #MAX_SHEETS} sheets can be
+ * registered. All the methods are to be called from the main thread.
+ */
+public final class SheetCoordinator
+{
+    /**
+     * Any number of sheets can be open at the same time.
+     */
+    public static final int EXCLUSIVITY_NONE = 0;
+    
+    /**
+     * Opening a sheet hides the other open sheets, when they are hideable.
+     */
+    public static final int EXCLUSIVITY_SINGLE = 1;
+    
+    /**
+     * The swipes and the edge drags are ignored while a sheet is open. This is the default.
+     */
+    public static final int EXCLUSIVITY_BLOCKING = 2;
+    
+    @RestrictTo(LIBRARY_GROUP)
+    @IntDef({EXCLUSIVITY_NONE, EXCLUSIVITY_SINGLE, EXCLUSIVITY_BLOCKING})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Exclusivity
+    {
+    }
+    
+    public static final int MAX_SHEETS = Long.SIZE;
+    
+    private final SheetBehavior<?>[] mSheets = new SheetBehavior<?>[MAX_SHEETS];
+    
+    // bit i set while mSheets[i] is registered
+    private long mRegisteredMask;
+    
+    // bit i set while mSheets[i] is not hidden
+    private long mOpenMask;
+    
+    // indexed by position: the index of the sheet revealed by a swipe from that edge, -1 if there is none
+    private final int[] mEdgeSheets = {-1, -1, -1, -1, -1};
+    
+    @Exclusivity
+    private int mExclusivity = EXCLUSIVITY_BLOCKING;
+    
+    /**
+     * Registers a sheet. The first sheet registered at a position becomes the sheet of that edge, see
+     * {@link #setEdgeSheet(int, SheetBehavior)}. A sheet is registered in one coordinator at most.
+     *
+     * @throws IllegalStateException if the sheet is registered in another coordinator, or if
+     *                               {@link #MAX_SHEETS} sheets are already registered.
+     */
+    public void register(SheetBehavior<?> behavior)
+    {
+        if (behavior.mCoordinator == this)
+        {
+            return;
+        }
+        if (behavior.mCoordinator != null)
+        {
+            throw new IllegalStateException("The sheet [" + behavior.getIdentifierName() + "] is registered in another SheetCoordinator");
+        }
+        if (mRegisteredMask == -1L)
+        {
+            throw new IllegalStateException("More than " + MAX_SHEETS + " sheets in a SheetCoordinator");
+        }
+        int index = Long.numberOfTrailingZeros(~mRegisteredMask);
+        mSheets[index] = behavior;
+        mRegisteredMask |= 1L << index;
+        behavior.mCoordinator = this;
+        behavior.mCoordinatorIndex = index;
+        int position = behavior.getPosition();
+        if (mEdgeSheets[position] == -1)
+        {
+            mEdgeSheets[position] = index;
+        }
+        if (behavior.getState() != SheetBehavior.STATE_HIDDEN)
+        {
+            mOpenMask |= 1L << index;
+        }
+    }
+    
+    public void unregister(SheetBehavior<?> behavior)
+    {
+        if (behavior.mCoordinator != this)
+        {
+            return;
+        }
+        int index = behavior.mCoordinatorIndex;
+        long bit = 1L << index;
+        mSheets[index] = null;
+        mRegisteredMask &= ~bit;
+        mOpenMask &= ~bit;
+        behavior.mCoordinator = null;
+        behavior.mCoordinatorIndex = -1;
+        for (int position = 0; position < mEdgeSheets.length; position++)
+        {
+            if (mEdgeSheets[position] == index)
+            {
+                mEdgeSheets[position] = findSheetAt(position);
+            }
+        }
+    }
+    
+    /**
+     * Sets the sheet revealed by a swipe from an edge, instead of the first sheet registered at that position.
+     *
+     * @param position One of {@link SheetBehavior#POSITION_NORTH}, {@link SheetBehavior#POSITION_SOUTH},
+     *                 {@link SheetBehavior#POSITION_EAST} or {@link SheetBehavior#POSITION_WEST}.
+     * @param behavior A registered sheet, or {@code null} to ignore the swipes from that edge.
+     */
+    public void setEdgeSheet(@SheetBehavior.Position int position, @Nullable SheetBehavior<?> behavior)
+    {
+        if (behavior != null && behavior.mCoordinator != this)
+        {
+            throw new IllegalArgumentException("The sheet [" + behavior.getIdentifierName() + "] is not registered in this SheetCoordinator");
+        }
+        mEdgeSheets[position] = behavior != null ? behavior.mCoordinatorIndex : -1;
+    }
+    
+    @Nullable
+    public SheetBehavior<?> getEdgeSheet(@SheetBehavior.Position int position)
+    {
+        int index = mEdgeSheets[position];
+        return index != -1 ? mSheets[index] : null;
+    }
+    
+    /**
+     * @param exclusivity One of {@link #EXCLUSIVITY_NONE}, {@link #EXCLUSIVITY_SINGLE} or
+     *                    {@link #EXCLUSIVITY_BLOCKING}.
+     */
+    public void setExclusivity(@Exclusivity int exclusivity)
+    {
+        mExclusivity = exclusivity;
+    }
+    
+    @Exclusivity
+    public int getExclusivity()
+    {
+        return mExclusivity;
+    }
+    
+    public boolean isAnySheetOpen()
+    {
+        return mOpenMask != 0;
+    }
+    
+    public int getOpenSheetCount()
+    {
+        return Long.bitCount(mOpenMask);
+    }
+    
+    /**
+     * Expands the sheet of an edge, as asked by a swipe going away from that edge: a swipe up reveals the
+     * {@link SheetBehavior#POSITION_SOUTH} sheet.
+     *
+     * @param position The edge the sheet comes from.
+     * @return {@code true} if a hidden sheet was expanded.
+     */
+    public boolean handleSwipe(@SheetBehavior.Position int position)
+    {
+        if (mExclusivity == EXCLUSIVITY_BLOCKING && mOpenMask != 0)
+        {
+            return false;
+        }
+        int index = mEdgeSheets[position];
+        if (index == -1 || (mOpenMask & (1L << index)) != 0)
+        {
+            return false;
+        }
+        mSheets[index].setState(SheetBehavior.STATE_EXPANDED);
+        return true;
+    }
+    
+    /**
+     * Called by a registered {@link SheetBehavior} at the down of a drag in its edge zone: the drag reveals the
+     * sheet only if it is the sheet of its edge, and if the policy lets a sheet open.
+     */
+    boolean isEdgeRevealAllowed(int index)
+    {
+        if (mExclusivity == EXCLUSIVITY_BLOCKING && mOpenMask != 0)
+        {
+            return false;
+        }
+        return mEdgeSheets[mSheets[index].getPosition()] == index;
+    }
+    
+    /**
+     * Called by a registered {@link SheetBehavior} when the state of its sheet changes.
+     */
+    void onSheetStateChanged(int index, @SheetBehavior.State int previousState, @SheetBehavior.State int state)
+    {
+        long bit = 1L << index;
+        if (state == SheetBehavior.STATE_HIDDEN)
+        {
+            mOpenMask &= ~bit;
+            return;
+        }
+        mOpenMask |= bit;
+        if (previousState == SheetBehavior.STATE_HIDDEN && mExclusivity == EXCLUSIVITY_SINGLE)
+        {
+            hideOpenSheets(bit);
+        }
+    }
+    
+    private void hideOpenSheets(long keptBit)
+    {
+        long others = mOpenMask & ~keptBit;
+        while (others != 0)
+        {
+            int index = Long.numberOfTrailingZeros(others);
+            others &= others - 1;
+            SheetBehavior<?> sheet = mSheets[index];
+            if (sheet.isHideable())
+            {
+                sheet.setState(SheetBehavior.STATE_HIDDEN);
+            }
+        }
+    }
+    
+    private int findSheetAt(int position)
+    {
+        long registered = mRegisteredMask;
+        while (registered != 0)
+        {
+            int index = Long.numberOfTrailingZeros(registered);
+            registered &= registered - 1;
+            if (mSheets[index].getPosition() == position)
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
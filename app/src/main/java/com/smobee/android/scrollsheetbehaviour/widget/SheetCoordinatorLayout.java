@@ -0,0 +1,156 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * A CoordinatorLayout that does not draw what an EXPANDED sheet hides.
+ * <p>
+ * While a child driven by a {@link SheetBehavior} is EXPANDED, opaque ({@link View#isOpaque()}) and covers
+ * the whole layout at its current position, the children drawn before it, the main content and the sheets
+ * below it, are skipped by {@link #drawChild(Canvas, View, long)}. They are still measured and laid out. The
+ * children drawn after the covering sheet, those with a higher elevation, are drawn as usual.
+ * <p>
+ * The covering sheet is looked for once per draw. The sheet behaviors invalidate the layout when a sheet
+ * enters or leaves STATE_EXPANDED, so that the skipped children are recorded again as soon as the covering
+ * sheet starts to move.
+ */
+public class SheetCoordinatorLayout extends CoordinatorLayout
+{
+    private boolean mOcclusionCullingEnabled = true;
+    
+    // the sheet hiding the whole layout during the current draw, null if there is none
+    private View mOccluder;
+    
+    // true once mOccluder is drawn: the children that follow it are drawn above it
+    private boolean mOccluderDrawn;
+    
+    public SheetCoordinatorLayout(Context context)
+    {
+        super(context);
+    }
+    
+    public SheetCoordinatorLayout(Context context, AttributeSet attrs)
+    {
+        super(context, attrs);
+    }
+    
+    public SheetCoordinatorLayout(Context context, AttributeSet attrs, int defStyleAttr)
+    {
+        super(context, attrs, defStyleAttr);
+    }
+    
+    /**
+     * Enables or disables the skipping of the children hidden by an EXPANDED opaque sheet. Enabled by default.
+     */
+    public void setOcclusionCullingEnabled(boolean enabled)
+    {
+        if (mOcclusionCullingEnabled != enabled)
+        {
+            mOcclusionCullingEnabled = enabled;
+            invalidate();
+        }
+    }
+    
+    public boolean isOcclusionCullingEnabled()
+    {
+        return mOcclusionCullingEnabled;
+    }
+    
+    /**
+     * Called by a {@link SheetBehavior} when its sheet enters or leaves STATE_EXPANDED.
+     */
+    void onSheetOcclusionChanged()
+    {
+        if (mOcclusionCullingEnabled)
+        {
+            invalidate();
+        }
+    }
+    
+    @Override
+    protected void dispatchDraw(Canvas canvas)
+    {
+        mOccluder = mOcclusionCullingEnabled ? findOccluder() : null;
+        mOccluderDrawn = false;
+        try
+        {
+            super.dispatchDraw(canvas);
+        }
+        finally
+        {
+            mOccluder = null;
+        }
+    }
+    
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime)
+    {
+        if (mOccluder != null && !mOccluderDrawn)
+        {
+            if (child != mOccluder)
+            {
+                // drawn before the covering sheet, so below it
+                return false;
+            }
+            mOccluderDrawn = true;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+    
+    /**
+     * @return the covering sheet with the highest elevation, the last one among children of equal elevation.
+     */
+    private View findOccluder()
+    {
+        View occluder = null;
+        float occluderZ = 0;
+        for (int i = 0, count = getChildCount(); i < count; i++)
+        {
+            View child = getChildAt(i);
+            if (!isOccluding(child))
+            {
+                continue;
+            }
+            float z = ViewCompat.getZ(child);
+            if (occluder == null || z >= occluderZ)
+            {
+                occluder = child;
+                occluderZ = z;
+            }
+        }
+        return occluder;
+    }
+    
+    private boolean isOccluding(View child)
+    {
+        if (child.getVisibility() != View.VISIBLE || !child.isOpaque())
+        {
+            return false;
+        }
+        ViewGroup.LayoutParams params = child.getLayoutParams();
+        if (!(params instanceof CoordinatorLayout.LayoutParams))
+        {
+            return false;
+        }
+        CoordinatorLayout.Behavior behavior = ((CoordinatorLayout.LayoutParams) params).getBehavior();
+        if (!(behavior instanceof SheetBehavior) || ((SheetBehavior) behavior).getState() != SheetBehavior.STATE_EXPANDED)
+        {
+            return false;
+        }
+        if (child.getScaleX() != 1 || child.getScaleY() != 1 || child.getRotation() != 0)
+        {
+            return false;
+        }
+        float left = child.getLeft() + child.getTranslationX();
+        float top = child.getTop() + child.getTranslationY();
+        float right = child.getRight() + child.getTranslationX();
+        float bottom = child.getBottom() + child.getTranslationY();
+        return left <= 0 && top <= 0 && right >= getWidth() && bottom >= getHeight();
+    }
+}
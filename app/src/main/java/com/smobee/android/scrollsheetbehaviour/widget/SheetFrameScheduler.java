@@ -0,0 +1,118 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewParent;
+
+import com.smobee.android.scrollsheetbehaviour.R;
+
+import java.util.ArrayList;
+
+/**
+ * The frame loop shared by the sheets of a CoordinatorLayout.
+ * <p>
+ * A single Choreographer frame callback advances every scheduled client, in the order they were scheduled,
+ * so that the settles of several sheets started together, one sheet closing while another opens, move on
+ * the same vsync. The callback is only posted while a client is scheduled. A client stays scheduled until
+ * it unschedules itself.
+ */
+final class SheetFrameScheduler implements Choreographer.FrameCallback
+{
+    interface Client
+    {
+        void onSheetFrame(long frameTimeNanos);
+    }
+    
+    private final ArrayList<Client> mClients = new ArrayList<>();
+    
+    // the clients of the running frame, reused from frame to frame
+    private final ArrayList<Client> mFrameClients = new ArrayList<>();
+    
+    private Choreographer mChoreographer;
+    
+    private boolean mPosted;
+    
+    private boolean mDispatching;
+    
+    private SheetFrameScheduler()
+    {
+    }
+    
+    /**
+     * @return The scheduler of the parent of the sheet, created on first use and kept as a tag of the parent.
+     */
+    static SheetFrameScheduler from(View sheet)
+    {
+        ViewParent parent = sheet.getParent();
+        View host = parent instanceof View ? (View) parent : sheet;
+        SheetFrameScheduler scheduler = (SheetFrameScheduler) host.getTag(R.id.sheet_frame_scheduler);
+        if (scheduler == null)
+        {
+            scheduler = new SheetFrameScheduler();
+            host.setTag(R.id.sheet_frame_scheduler, scheduler);
+        }
+        return scheduler;
+    }
+    
+    void schedule(Client client)
+    {
+        if (mClients.contains(client))
+        {
+            return;
+        }
+        mClients.add(client);
+        // a client scheduled during a frame runs from the next one, posted at the end of the frame
+        if (!mPosted && !mDispatching)
+        {
+            post();
+        }
+    }
+    
+    void unschedule(Client client)
+    {
+        if (mClients.remove(client) && mClients.isEmpty() && mPosted)
+        {
+            mPosted = false;
+            mChoreographer.removeFrameCallback(this);
+        }
+    }
+    
+    private void post()
+    {
+        if (mChoreographer == null)
+        {
+            mChoreographer = Choreographer.getInstance();
+        }
+        mPosted = true;
+        mChoreographer.postFrameCallback(this);
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        mPosted = false;
+        mDispatching = true;
+        mFrameClients.addAll(mClients);
+        try
+        {
+            for (int i = 0, count = mFrameClients.size(); i < count; i++)
+            {
+                Client client = mFrameClients.get(i);
+                // skips the clients unscheduled by a previous client of this frame
+                if (mClients.contains(client))
+                {
+                    client.onSheetFrame(frameTimeNanos);
+                }
+            }
+        }
+        finally
+        {
+            mFrameClients.clear();
+            mDispatching = false;
+        }
+        if (!mClients.isEmpty())
+        {
+            post();
+        }
+    }
+}
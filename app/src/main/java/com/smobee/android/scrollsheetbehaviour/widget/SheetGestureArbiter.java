@@ -0,0 +1,120 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+
+import com.smobee.android.scrollsheetbehaviour.R;
+
+/**
+ * Decides which sheet of a CoordinatorLayout owns the gesture running over it, shared by its sheets.
+ * <p>
+ * The axis of the gesture is locked once, when it first passes the touch slop, on the axis it moved most along:
+ * a diagonal drag then moves the sheets of that axis only. The first sheet that moves, captured by its
+ * ViewDragHelper or moved by a nested scroll, owns the gesture: the other sheets are refused until it is
+ * released or the next gesture starts.
+ */
+final class SheetGestureArbiter
+{
+    private static final int AXIS_NONE = 0;
+    
+    private static final int AXIS_HORIZONTAL = 1;
+    
+    private static final int AXIS_VERTICAL = 2;
+    
+    private final int mTouchSlop;
+    
+    // the down time of the gesture, which all its events carry
+    private long mDownTime = -1L;
+    
+    private float mInitialX;
+    
+    private float mInitialY;
+    
+    private int mLockedAxis = AXIS_NONE;
+    
+    private SheetBehavior<?> mOwner;
+    
+    SheetGestureArbiter(int touchSlop)
+    {
+        mTouchSlop = touchSlop;
+    }
+    
+    /**
+     * @return The arbiter of the parent of the sheet, created on first use and kept as a tag of the parent.
+     */
+    static SheetGestureArbiter from(View sheet)
+    {
+        ViewParent parent = sheet.getParent();
+        View host = parent instanceof View ? (View) parent : sheet;
+        SheetGestureArbiter arbiter = (SheetGestureArbiter) host.getTag(R.id.sheet_gesture_arbiter);
+        if (arbiter == null)
+        {
+            arbiter = new SheetGestureArbiter(ViewConfiguration.get(host.getContext()).getScaledTouchSlop());
+            host.setTag(R.id.sheet_gesture_arbiter, arbiter);
+        }
+        return arbiter;
+    }
+    
+    /**
+     * Follows an event of the gesture. The same event may be handed by several sheets: a gesture starts with
+     * the first event of a new down time, and its axis is locked at most once.
+     */
+    void onTouchEvent(MotionEvent event)
+    {
+        if (event.getDownTime() != mDownTime)
+        {
+            mDownTime = event.getDownTime();
+            mInitialX = event.getX();
+            mInitialY = event.getY();
+            mLockedAxis = AXIS_NONE;
+            mOwner = null;
+            return;
+        }
+        if (mLockedAxis != AXIS_NONE || event.getActionMasked() != MotionEvent.ACTION_MOVE)
+        {
+            return;
+        }
+        float dx = Math.abs(event.getX() - mInitialX);
+        float dy = Math.abs(event.getY() - mInitialY);
+        if (dx > mTouchSlop || dy > mTouchSlop)
+        {
+            mLockedAxis = dx > dy ? AXIS_HORIZONTAL : AXIS_VERTICAL;
+        }
+    }
+    
+    /**
+     * Gives the gesture to a sheet, unless another sheet owns it or its axis is locked on the other axis. A
+     * claim before the slop locks the axis of the sheet.
+     *
+     * @param horizontal {@code true} if the sheet moves horizontally.
+     * @return {@code true} if the sheet owns the gesture.
+     */
+    boolean tryClaim(SheetBehavior<?> sheet, boolean horizontal)
+    {
+        if (mOwner != null)
+        {
+            return mOwner == sheet;
+        }
+        int axis = horizontal ? AXIS_HORIZONTAL : AXIS_VERTICAL;
+        if (mLockedAxis != AXIS_NONE && mLockedAxis != axis)
+        {
+            return false;
+        }
+        mLockedAxis = axis;
+        mOwner = sheet;
+        return true;
+    }
+    
+    /**
+     * Called by the owner once it no longer moves with the gesture. The axis stays locked until the next gesture.
+     */
+    void release(SheetBehavior<?> sheet)
+    {
+        if (mOwner == sheet)
+        {
+            mOwner = null;
+        }
+    }
+}
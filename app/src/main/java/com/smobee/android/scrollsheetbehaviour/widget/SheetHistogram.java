@@ -0,0 +1,85 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+/**
+ * Fixed size histogram of non negative integer samples (for example milliseconds).
+ * <p>
+ * Bucket {@code i} counts the samples equal to {@code i}; the last bucket counts every sample at or above
+ * its index. Recording never allocates.
+ */
+final class SheetHistogram
+{
+    private final int[] mBuckets;
+    
+    private int mCount;
+    
+    SheetHistogram(int bucketCount)
+    {
+        if (bucketCount < 2)
+        {
+            throw new IllegalArgumentException("Illegal bucket count: " + bucketCount);
+        }
+        mBuckets = new int[bucketCount];
+    }
+    
+    void record(long value)
+    {
+        int overflow = mBuckets.length - 1;
+        int index;
+        if (value <= 0)
+        {
+            index = 0;
+        }
+        else if (value >= overflow)
+        {
+            index = overflow;
+        }
+        else
+        {
+            index = (int) value;
+        }
+        mBuckets[index]++;
+        mCount++;
+    }
+    
+    int getCount()
+    {
+        return mCount;
+    }
+    
+    /**
+     * @param fraction The percentile as a fraction in ]0,1], for example 0.95f for the 95th percentile.
+     * @return The smallest value such that at least {@code fraction} of the samples are at or below it, or
+     *         0 when nothing was recorded. A result equal to the last bucket means "at least that much".
+     */
+    int getPercentile(float fraction)
+    {
+        if (mCount == 0)
+        {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * mCount);
+        if (rank < 1)
+        {
+            rank = 1;
+        }
+        int seen = 0;
+        for (int i = 0; i < mBuckets.length; i++)
+        {
+            seen += mBuckets[i];
+            if (seen >= rank)
+            {
+                return i;
+            }
+        }
+        return mBuckets.length - 1;
+    }
+    
+    void reset()
+    {
+        for (int i = 0; i < mBuckets.length; i++)
+        {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
+import android.view.Choreographer;
+
+/**
+ * Opt-in measure of the touch to pixel latency of a sheet.
+ * <p>
+ * Two latencies are sampled for every input event that moves the sheet, both starting at the
+ * {@link android.view.MotionEvent#getEventTime() event time}:
+ * <ul>
+ * <li>input to offset: until the sheet offset is applied ({@link SystemClock#uptimeMillis()}),</li>
+ * <li>input to frame: until the vsync time of the frame that draws the new offset
+ * ({@link Choreographer} frame time).</li>
+ * </ul>
+ * The samples are aggregated in fixed size millisecond histograms, so the percentiles can be read at any
+ * time without allocating. A disabled tracker costs a single branch per event.
+ */
+public final class SheetLatencyTracker implements Choreographer.FrameCallback
+{
+    // 1ms buckets, everything at or above 100ms lands in the last one.
+    private static final int BUCKET_COUNT = 101;
+    
+    private final SheetHistogram mInputToOffset = new SheetHistogram(BUCKET_COUNT);
+    
+    private final SheetHistogram mInputToFrame = new SheetHistogram(BUCKET_COUNT);
+    
+    private String mIdentifierName;
+    
+    private boolean mEnabled;
+    
+    // time of the input event being dispatched, 0 when none
+    private long mPendingInputTime;
+    
+    // time of the input event waiting for its frame, 0 when none
+    private long mFrameInputTime;
+    
+    private boolean mFrameCallbackPosted;
+    
+    private Choreographer mChoreographer;
+    
+    SheetLatencyTracker()
+    {
+    }
+    
+    /**
+     * @return The identifier name of the sheet this tracker measures.
+     */
+    public String getIdentifierName()
+    {
+        return mIdentifierName;
+    }
+    
+    /**
+     * @return {@code true} if latencies are being recorded.
+     */
+    public boolean isEnabled()
+    {
+        return mEnabled;
+    }
+    
+    /**
+     * @return The number of input to offset samples recorded.
+     */
+    public int getSampleCount()
+    {
+        return mInputToOffset.getCount();
+    }
+    
+    /**
+     * @param fraction The percentile as a fraction, for example 0.5f, 0.95f or 0.99f.
+     * @return The input to offset latency percentile in milliseconds (100 means 100ms or more).
+     */
+    public int getInputToOffsetPercentileMillis(float fraction)
+    {
+        return mInputToOffset.getPercentile(fraction);
+    }
+    
+    /**
+     * @param fraction The percentile as a fraction, for example 0.5f, 0.95f or 0.99f.
+     * @return The input to frame latency percentile in milliseconds (100 means 100ms or more).
+     */
+    public int getInputToFramePercentileMillis(float fraction)
+    {
+        return mInputToFrame.getPercentile(fraction);
+    }
+    
+    /**
+     * Forgets every recorded sample.
+     */
+    public void reset()
+    {
+        mInputToOffset.reset();
+        mInputToFrame.reset();
+    }
+    
+    void setIdentifierName(String identifierName)
+    {
+        mIdentifierName = identifierName;
+    }
+    
+    void setEnabled(boolean enabled)
+    {
+        mEnabled = enabled;
+        if (!enabled)
+        {
+            mPendingInputTime = 0;
+            mFrameInputTime = 0;
+            if (mFrameCallbackPosted)
+            {
+                mChoreographer.removeFrameCallback(this);
+                mFrameCallbackPosted = false;
+            }
+        }
+    }
+    
+    /**
+     * Called when an input event that may move the sheet is about to be handled.
+     */
+    void onInputEvent(long eventTime)
+    {
+        if (mEnabled)
+        {
+            mPendingInputTime = eventTime;
+        }
+    }
+    
+    /**
+     * Called when the sheet moves for another reason than an input event (settling ...).
+     */
+    void clearPendingInput()
+    {
+        mPendingInputTime = 0;
+    }
+    
+    /**
+     * Called once the sheet offset has been applied.
+     */
+    void onOffsetApplied()
+    {
+        if (!mEnabled || mPendingInputTime == 0)
+        {
+            return;
+        }
+        onOffsetApplied(SystemClock.uptimeMillis());
+    }
+    
+    /**
+     * Records the latency of the pending input event, its offset applied at the given time.
+     */
+    @VisibleForTesting
+    void onOffsetApplied(long uptimeMillis)
+    {
+        long inputTime = mPendingInputTime;
+        mPendingInputTime = 0;
+        mInputToOffset.record(uptimeMillis - inputTime);
+        if (mFrameInputTime == 0)
+        {
+            // the oldest input waiting for the frame gives the latency of that frame.
+            mFrameInputTime = inputTime;
+        }
+        if (!mFrameCallbackPosted)
+        {
+            if (mChoreographer == null)
+            {
+                mChoreographer = Choreographer.getInstance();
+            }
+            mChoreographer.postFrameCallback(this);
+            mFrameCallbackPosted = true;
+        }
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        mFrameCallbackPosted = false;
+        if (mFrameInputTime != 0)
+        {
+            mInputToFrame.record(frameTimeNanos / 1000000L - mFrameInputTime);
+            mFrameInputTime = 0;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.support.annotation.VisibleForTesting;
+import android.util.Log;
+
+import com.smobee.android.scrollsheetbehaviour.BuildConfig;
+
+import java.util.Locale;
+
+/**
+ * Logging facade used by the sheet behaviors.
+ * <p>
+ * The enabled levels are {@code static final} constants derived from {@code BuildConfig.SHEET_LOG_LEVEL}:
+ * when a level is disabled, the guarded calls and the building of their messages are removed at
+ * compile time (javac dead code elimination, then R8/ProGuard inlining of the empty methods).
+ * <p>
+ * Hot paths must either test the level constant themselves ({@code if (SheetLog.DEBUG) ...}) or use the
+ * lazily formatted overloads which take primitive arguments: the message is only formatted, and the
+ * arguments only boxed, when the level is enabled.
+ */
+final class SheetLog
+{
+    /**
+     * The lowest {@link Log} priority that is printed. Anything above {@link Log#ASSERT} turns logging off.
+     */
+    static final int LEVEL = BuildConfig.SHEET_LOG_LEVEL;
+    
+    static final boolean VERBOSE = LEVEL <= Log.VERBOSE;
+    
+    static final boolean DEBUG = LEVEL <= Log.DEBUG;
+    
+    static final boolean WARN = LEVEL <= Log.WARN;
+    
+    static final boolean ERROR = LEVEL <= Log.ERROR;
+    
+    /**
+     * Number of calls of the v and d overloads, whatever the level: a call that reaches them has evaluated its
+     * arguments, which a call guarded by a level constant turned off never does.
+     */
+    @VisibleForTesting
+    static int sCalls;
+    
+    private SheetLog()
+    {
+    }
+    
+    static void v(String tag, String message)
+    {
+        sCalls++;
+        if (VERBOSE)
+        {
+            Log.v(tag, message);
+        }
+    }
+    
+    static void v(String tag, String format, int arg)
+    {
+        sCalls++;
+        if (VERBOSE)
+        {
+            Log.v(tag, String.format(Locale.US, format, arg));
+        }
+    }
+    
+    static void v(String tag, String format, int arg1, int arg2)
+    {
+        sCalls++;
+        if (VERBOSE)
+        {
+            Log.v(tag, String.format(Locale.US, format, arg1, arg2));
+        }
+    }
+    
+    static void d(String tag, String message)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, message);
+        }
+    }
+    
+    static void d(String tag, String format, int arg)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg));
+        }
+    }
+    
+    static void d(String tag, String format, int arg1, int arg2)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg1, arg2));
+        }
+    }
+    
+    static void d(String tag, String format, int arg1, int arg2, int arg3)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg1, arg2, arg3));
+        }
+    }
+    
+    static void d(String tag, String format, boolean arg)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg));
+        }
+    }
+    
+    static void d(String tag, String format, Object arg)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg));
+        }
+    }
+    
+    static void d(String tag, String format, Object arg1, Object arg2)
+    {
+        sCalls++;
+        if (DEBUG)
+        {
+            Log.d(tag, String.format(Locale.US, format, arg1, arg2));
+        }
+    }
+    
+    static void w(String tag, String message)
+    {
+        if (WARN)
+        {
+            Log.w(tag, message);
+        }
+    }
+    
+    static void e(String tag, String message)
+    {
+        if (ERROR)
+        {
+            Log.e(tag, message);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+/**
+ * Frame timing of the settle animations run by a {@link SheetBehavior}.
+ * <p>
+ * For every settle the behavior records its duration, the number of frames it took, the worst gap
+ * between two frames and the number of frames that exceeded the frame budget. The figures are
+ * accumulated per target state ({@link SheetBehavior#STATE_EXPANDED}, {@link SheetBehavior#STATE_COLLAPSED}
+ * or {@link SheetBehavior#STATE_HIDDEN}).
+ * <p>
+ * Every time is the frame time given by the Choreographer, not the time the behavior happened to run: a settle
+ * lasts from its first frame to its last one, and the frame gaps are measured between two frames of the settle,
+ * so that the wait for the first frame is not counted as a gap.
+ * <p>
+ * The metrics also count how often a layout pass of the sheet reused the offsets computed by a previous
+ * pass instead of computing them again, and how often the moving sheet was promoted to a hardware layer.
+ * <p>
+ * Recording only writes into arrays allocated with the metrics object: measuring a settle never
+ * allocates. Everything is expected to happen on the main thread.
+ */
+public final class SheetMetrics
+{
+    /**
+     * Frame budget of a 60Hz display.
+     */
+    public static final long FRAME_BUDGET_60HZ_NANOS = 16666667L;
+    
+    /**
+     * Frame budget of a 90Hz display.
+     */
+    public static final long FRAME_BUDGET_90HZ_NANOS = 11111111L;
+    
+    /**
+     * Frame budget of a 120Hz display.
+     */
+    public static final long FRAME_BUDGET_120HZ_NANOS = 8333333L;
+    
+    // indexed by @SheetBehavior.State
+    private static final int STATE_COUNT = SheetBehavior.STATE_HIDDEN + 1;
+    
+    private long mFrameBudgetNanos = FRAME_BUDGET_60HZ_NANOS;
+    
+    private final int[] mSettleCount = new int[STATE_COUNT];
+    
+    private final long[] mSettleDurationNanos = new long[STATE_COUNT];
+    
+    private final long[] mLastSettleDurationNanos = new long[STATE_COUNT];
+    
+    private final int[] mFrameCount = new int[STATE_COUNT];
+    
+    private final long[] mWorstFrameGapNanos = new long[STATE_COUNT];
+    
+    private final int[] mOverBudgetFrameCount = new int[STATE_COUNT];
+    
+    private int mOffsetCacheHitCount;
+    
+    private int mOffsetCacheMissCount;
+    
+    private int mLayerPromotionCount;
+    
+    private int mLayerPromotionSkipCount;
+    
+    // the settle being recorded, if any
+    private boolean mSettling;
+    
+    private int mSettleTargetState;
+    
+    // false until the first frame of the settle
+    private boolean mSettleFramed;
+    
+    private long mSettleStartNanos;
+    
+    private long mLastFrameNanos;
+    
+    /**
+     * Sets the frame budget used to count the janky frames.
+     *
+     * @param frameBudgetNanos The budget of one frame in nanoseconds, for example {@link #FRAME_BUDGET_60HZ_NANOS},
+     *                         {@link #FRAME_BUDGET_90HZ_NANOS} or {@link #FRAME_BUDGET_120HZ_NANOS}.
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos)
+    {
+        if (frameBudgetNanos <= 0)
+        {
+            throw new IllegalArgumentException("Illegal frame budget: " + frameBudgetNanos);
+        }
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+    
+    /**
+     * @return The frame budget used to count the janky frames, in nanoseconds.
+     */
+    public long getFrameBudgetNanos()
+    {
+        return mFrameBudgetNanos;
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The number of settles that reached the target state.
+     */
+    public int getSettleCount(@SheetBehavior.State int targetState)
+    {
+        return mSettleCount[targetState];
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The cumulated duration of the settles to the target state, in nanoseconds.
+     */
+    public long getSettleDurationNanos(@SheetBehavior.State int targetState)
+    {
+        return mSettleDurationNanos[targetState];
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The duration of the last settle to the target state, in nanoseconds.
+     */
+    public long getLastSettleDurationNanos(@SheetBehavior.State int targetState)
+    {
+        return mLastSettleDurationNanos[targetState];
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The number of frames of all the settles to the target state.
+     */
+    public int getFrameCount(@SheetBehavior.State int targetState)
+    {
+        return mFrameCount[targetState];
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The longest time seen between two frames of a settle to the target state, in nanoseconds.
+     */
+    public long getWorstFrameGapNanos(@SheetBehavior.State int targetState)
+    {
+        return mWorstFrameGapNanos[targetState];
+    }
+    
+    /**
+     * @param targetState The target state of the settles.
+     * @return The number of frames of the settles to the target state that took longer than the frame budget.
+     */
+    public int getOverBudgetFrameCount(@SheetBehavior.State int targetState)
+    {
+        return mOverBudgetFrameCount[targetState];
+    }
+    
+    /**
+     * @return The number of layout passes that reused the offsets of the sheet.
+     */
+    public int getOffsetCacheHitCount()
+    {
+        return mOffsetCacheHitCount;
+    }
+    
+    /**
+     * @return The number of layout passes that computed the offsets of the sheet.
+     */
+    public int getOffsetCacheMissCount()
+    {
+        return mOffsetCacheMissCount;
+    }
+    
+    /**
+     * @return The number of drags and settles during which the sheet was on a hardware layer.
+     * @see SheetBehavior#setHardwareLayerEnabled(boolean)
+     */
+    public int getLayerPromotionCount()
+    {
+        return mLayerPromotionCount;
+    }
+    
+    /**
+     * @return The number of drags and settles that did not promote the sheet because its content was animating.
+     */
+    public int getLayerPromotionSkipCount()
+    {
+        return mLayerPromotionSkipCount;
+    }
+    
+    /**
+     * Forgets everything that was recorded so far.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < STATE_COUNT; i++)
+        {
+            mSettleCount[i] = 0;
+            mSettleDurationNanos[i] = 0;
+            mLastSettleDurationNanos[i] = 0;
+            mFrameCount[i] = 0;
+            mWorstFrameGapNanos[i] = 0;
+            mOverBudgetFrameCount[i] = 0;
+        }
+        mOffsetCacheHitCount = 0;
+        mOffsetCacheMissCount = 0;
+        mLayerPromotionCount = 0;
+        mLayerPromotionSkipCount = 0;
+        mSettling = false;
+    }
+    
+    void onOffsetCacheHit()
+    {
+        mOffsetCacheHitCount++;
+    }
+    
+    void onOffsetCacheMiss()
+    {
+        mOffsetCacheMissCount++;
+    }
+    
+    void onLayerPromoted()
+    {
+        mLayerPromotionCount++;
+    }
+    
+    void onLayerPromotionSkipped()
+    {
+        mLayerPromotionSkipCount++;
+    }
+    
+    void onSettleStarted(@SheetBehavior.State int targetState)
+    {
+        if (mSettling)
+        {
+            // the previous settle has been retargeted: account what it did so far.
+            onSettleFinished();
+        }
+        mSettling = true;
+        mSettleTargetState = targetState;
+        mSettleFramed = false;
+    }
+    
+    /**
+     * @param frameTimeNanos The time of the frame, as given by the Choreographer.
+     */
+    void onSettleFrame(long frameTimeNanos)
+    {
+        if (!mSettling)
+        {
+            return;
+        }
+        int state = mSettleTargetState;
+        mFrameCount[state]++;
+        if (!mSettleFramed)
+        {
+            // the gaps are counted from the first frame
+            mSettleFramed = true;
+            mSettleStartNanos = frameTimeNanos;
+            mLastFrameNanos = frameTimeNanos;
+            return;
+        }
+        long gap = frameTimeNanos - mLastFrameNanos;
+        mLastFrameNanos = frameTimeNanos;
+        if (gap > mWorstFrameGapNanos[state])
+        {
+            mWorstFrameGapNanos[state] = gap;
+        }
+        if (gap > mFrameBudgetNanos)
+        {
+            mOverBudgetFrameCount[state]++;
+        }
+    }
+    
+    /**
+     * Ends the settle at its last frame.
+     */
+    void onSettleFinished()
+    {
+        if (!mSettling)
+        {
+            return;
+        }
+        mSettling = false;
+        int state = mSettleTargetState;
+        long duration = mSettleFramed ? mLastFrameNanos - mSettleStartNanos : 0L;
+        mSettleCount[state]++;
+        mSettleDurationNanos[state] += duration;
+        mLastSettleDurationNanos[state] = duration;
+    }
+}
@@ -0,0 +1,77 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.os.Trace;
+
+/**
+ * Systrace/Perfetto sections of the sheet behaviors.
+ * <p>
+ * The section names embed the identifier of the sheet and are built once per identifier by
+ * {@link #sectionNames(String)}, so that tracing does not allocate. When tracing is disabled, which is the
+ * default, each traced callback only pays the test of {@link #sEnabled}.
+ */
+final class SheetTrace
+{
+    static final int ON_LAYOUT_CHILD = 0;
+    
+    static final int COMPUTE_OFFSETS = 1;
+    
+    static final int ON_INTERCEPT_TOUCH_EVENT = 2;
+    
+    static final int ON_TOUCH_EVENT = 3;
+    
+    static final int ON_NESTED_PRE_SCROLL = 4;
+    
+    static final int ON_STOP_NESTED_SCROLL = 5;
+    
+    static final int SETTLE = 6;
+    
+    static final int DISPATCH_STATE_CHANGED = 7;
+    
+    static final int DISPATCH_SLIDE = 8;
+    
+    private static final String[] SECTIONS = {
+            "onLayoutChild",
+            "computeRemarquableOffsets",
+            "onInterceptTouchEvent",
+            "onTouchEvent",
+            "onNestedPreScroll",
+            "onStopNestedScroll",
+            "settle",
+            "onSheetStateChanged",
+            "onSheetSlide"
+    };
+    
+    // Trace section names are truncated by the platform above this length
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+    
+    static boolean sEnabled = false;
+    
+    private SheetTrace()
+    {
+    }
+    
+    static String[] sectionNames(String identifierName)
+    {
+        String[] names = new String[SECTIONS.length];
+        for (int i = 0; i < SECTIONS.length; i++)
+        {
+            String name = "Sheet[" + identifierName + "]#" + SECTIONS[i];
+            if (name.length() > MAX_SECTION_NAME_LENGTH)
+            {
+                name = name.substring(0, MAX_SECTION_NAME_LENGTH);
+            }
+            names[i] = name;
+        }
+        return names;
+    }
+    
+    static void begin(String sectionName)
+    {
+        Trace.beginSection(sectionName);
+    }
+    
+    static void end()
+    {
+        Trace.endSection();
+    }
+}
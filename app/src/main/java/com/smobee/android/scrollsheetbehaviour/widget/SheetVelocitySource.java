@@ -0,0 +1,104 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewParent;
+
+import com.smobee.android.scrollsheetbehaviour.R;
+
+/**
+ * The velocity of the gesture running over a CoordinatorLayout, shared by its sheets.
+ * <p>
+ * The CoordinatorLayout hands the same event to the behavior of each sheet, first to intercept it, then to
+ * handle it: an event is added once to the single VelocityTracker of the layout, however many sheets receive
+ * it. The velocity is only computed when a sheet reads it, once per new event, usually once per release.
+ */
+final class SheetVelocitySource
+{
+    private VelocityTracker mTracker;
+    
+    // the last event added, to recognize it when it is handed to the next sheet
+    private long mLastEventTime = -1L;
+    
+    private int mLastAction;
+    
+    private float mLastX;
+    
+    private float mLastY;
+    
+    // the velocities of mTracker are computed for the last event added
+    private boolean mComputed;
+    
+    private float mComputedMaximumVelocity;
+    
+    private SheetVelocitySource()
+    {
+    }
+    
+    /**
+     * @return The velocity source of the parent of the sheet, created on first use and kept as a tag of the parent.
+     */
+    static SheetVelocitySource from(View sheet)
+    {
+        ViewParent parent = sheet.getParent();
+        View host = parent instanceof View ? (View) parent : sheet;
+        SheetVelocitySource source = (SheetVelocitySource) host.getTag(R.id.sheet_velocity_source);
+        if (source == null)
+        {
+            source = new SheetVelocitySource();
+            host.setTag(R.id.sheet_velocity_source, source);
+        }
+        return source;
+    }
+    
+    /**
+     * Adds an event of the gesture, unless it is the last event added. An ACTION_DOWN starts a new gesture.
+     */
+    void addMovement(MotionEvent event)
+    {
+        int action = event.getActionMasked();
+        long eventTime = event.getEventTime();
+        float x = event.getX();
+        float y = event.getY();
+        if (eventTime == mLastEventTime && action == mLastAction && x == mLastX && y == mLastY)
+        {
+            return;
+        }
+        mLastEventTime = eventTime;
+        mLastAction = action;
+        mLastX = x;
+        mLastY = y;
+        if (mTracker == null)
+        {
+            mTracker = VelocityTracker.obtain();
+        }
+        else if (action == MotionEvent.ACTION_DOWN)
+        {
+            mTracker.clear();
+        }
+        mTracker.addMovement(event);
+        mComputed = false;
+    }
+    
+    /**
+     * @param axis            The moving axis of the sheet.
+     * @param pointerId       The pointer of the gesture.
+     * @param maximumVelocity The maximum velocity, in pixels per second.
+     * @return The velocity along the axis, in pixels per second, {@code 0} if no event was added.
+     */
+    float getVelocity(SheetAxis axis, int pointerId, float maximumVelocity)
+    {
+        if (mTracker == null)
+        {
+            return 0f;
+        }
+        if (!mComputed || mComputedMaximumVelocity != maximumVelocity)
+        {
+            mTracker.computeCurrentVelocity(1000, maximumVelocity);
+            mComputed = true;
+            mComputedMaximumVelocity = maximumVelocity;
+        }
+        return axis.getVelocity(mTracker, pointerId);
+    }
+}
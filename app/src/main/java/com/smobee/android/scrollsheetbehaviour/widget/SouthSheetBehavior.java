@@ -220,38 +220,44 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
         }
     
     
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child top     [" + child.getTop() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child bottom  [" + child.getBottom() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child left    [" + child.getLeft() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child right   [" + child.getRight() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child width   [" + child.getWidth() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE child height  [" + child.getHeight() + "]");
-    
-    
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent top    [" + parent.getTop() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent bottom [" + parent.getBottom() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent left   [" + parent.getLeft() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent right  [" + parent.getRight() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent width  [" + parent.getWidth() + "]");
-        Log.d(LOG_TAG,"onLayoutChild BEFORE parent height [" + parent.getHeight() + "]");
+        if (SheetLog.DEBUG)
+        {
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child top     [" + child.getTop() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child bottom  [" + child.getBottom() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child left    [" + child.getLeft() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child right   [" + child.getRight() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child width   [" + child.getWidth() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE child height  [" + child.getHeight() + "]");
+            
+            
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent top    [" + parent.getTop() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent bottom [" + parent.getBottom() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent left   [" + parent.getLeft() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent right  [" + parent.getRight() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent width  [" + parent.getWidth() + "]");
+            Log.d(LOG_TAG,"onLayoutChild BEFORE parent height [" + parent.getHeight() + "]");
+        }
         
         int savedTop = child.getTop();
         // First let the parent lay it out
         parent.onLayoutChild(child, layoutDirection);
     
-        Log.d(LOG_TAG,"onLayoutChild AFTER child top       [" + child.getTop() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER child bottom    [" + child.getBottom() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER child left      [" + child.getLeft() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER child right     [" + child.getRight() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER child width     [" + child.getWidth() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER child height    [" + child.getHeight() + "]");
-    
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent top      [" + parent.getTop() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent bottom   [" + parent.getBottom() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent left     [" + parent.getLeft() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent right    [" + parent.getRight() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent width    [" + parent.getWidth() + "]");
-        Log.d(LOG_TAG,"onLayoutChild AFTER parent height   [" + parent.getHeight() + "]");
+        if (SheetLog.DEBUG)
+        {
+            Log.d(LOG_TAG,"onLayoutChild AFTER child top       [" + child.getTop() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER child bottom    [" + child.getBottom() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER child left      [" + child.getLeft() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER child right     [" + child.getRight() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER child width     [" + child.getWidth() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER child height    [" + child.getHeight() + "]");
+            
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent top      [" + parent.getTop() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent bottom   [" + parent.getBottom() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent left     [" + parent.getLeft() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent right    [" + parent.getRight() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent width    [" + parent.getWidth() + "]");
+            Log.d(LOG_TAG,"onLayoutChild AFTER parent height   [" + parent.getHeight() + "]");
+        }
         
         // Offset the bottom sheet
         mParentHeight = parent.getHeight();
@@ -308,10 +314,16 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
     @Override
     public boolean onInterceptTouchEvent(CoordinatorLayout parent, V child, MotionEvent event)
     {
-        Log.d(LOG_TAG,"onInterceptTouchEvent");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(LOG_TAG, "onInterceptTouchEvent");
+        }
         if (!child.isShown())
         {
-            Log.d(LOG_TAG,"onInterceptTouchEvent child not shown. => FALSE");
+            if (SheetLog.DEBUG)
+            {
+                SheetLog.d(LOG_TAG, "onInterceptTouchEvent child not shown. => FALSE");
+            }
             mIgnoreEvents = true;
             return false;
         }
@@ -319,7 +331,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
         // Record the velocity
         if (action == MotionEvent.ACTION_DOWN)
         {
-            Log.d(LOG_TAG,"onInterceptTouchEvent => RESET");
+            if (SheetLog.DEBUG)
+            {
+                SheetLog.d(LOG_TAG, "onInterceptTouchEvent => RESET");
+            }
             reset();
         }
         if (mVelocityTracker == null)
@@ -344,22 +359,39 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
                 int initialX = (int) event.getX();
                 mInitialY = (int) event.getY();
                 View scroll = mNestedScrollingChildRef != null ? mNestedScrollingChildRef.get() : null;
-                Log.d(LOG_TAG,"onInterceptTouchEvent ACTION_DOWN => scroll [" + scroll + "]");
+                if (SheetLog.DEBUG)
+                {
+                    SheetLog.d(LOG_TAG, "onInterceptTouchEvent ACTION_DOWN => scroll [" + scroll + "]");
+                }
                 if (scroll != null && parent.isPointInChildBounds(scroll, initialX, mInitialY))
                 {
                     mActivePointerId = event.getPointerId(event.getActionIndex());
                     mTouchingScrollingChild = true;
                 }
-                Log.d(LOG_TAG,"onInterceptTouchEvent ACTION_DOWN => scroll [" + scroll + "] mTouchingScrollingChild [" + mTouchingScrollingChild + "]");
+                if (SheetLog.DEBUG)
+                {
+                    SheetLog.d(LOG_TAG, "onInterceptTouchEvent ACTION_DOWN => scroll [" + scroll + "] mTouchingScrollingChild [" + mTouchingScrollingChild + "]");
+                }
                 mIgnoreEvents = mActivePointerId == MotionEvent.INVALID_POINTER_ID && !parent.isPointInChildBounds(child, initialX, mInitialY);
-                Log.d(LOG_TAG,"onInterceptTouchEvent ACTION_DOWN => mIgnoreEvents [" + mIgnoreEvents + "]");
+                if (SheetLog.DEBUG)
+                {
+                    SheetLog.d(LOG_TAG, "onInterceptTouchEvent ACTION_DOWN => mIgnoreEvents [" + mIgnoreEvents + "]");
+                }
                 break;
         }
     
-        Log.d(LOG_TAG,"onInterceptTouchEvent mIgnoreEvents [" + mIgnoreEvents + "] dragHelperIntercept [" + mViewDragHelper.shouldInterceptTouchEvent(event) + "] ");
-        if (!mIgnoreEvents && mViewDragHelper.shouldInterceptTouchEvent(event))
+        // the drag helper records the event: it must be asked exactly once per event, whatever the log level.
+        boolean dragHelperIntercept = mViewDragHelper.shouldInterceptTouchEvent(event);
+        if (SheetLog.DEBUG)
         {
-            Log.d(LOG_TAG,"onInterceptTouchEvent mIgnoreEvents [" + mIgnoreEvents + "] dragHelperIntercept [" + mViewDragHelper.shouldInterceptTouchEvent(event) + "] => TRUE ");
+            SheetLog.d(LOG_TAG, "onInterceptTouchEvent mIgnoreEvents [%s] dragHelperIntercept [%s]", mIgnoreEvents, dragHelperIntercept);
+        }
+        if (!mIgnoreEvents && dragHelperIntercept)
+        {
+            if (SheetLog.DEBUG)
+            {
+                SheetLog.d(LOG_TAG, "onInterceptTouchEvent => TRUE ");
+            }
             return true;
         }
         // We have to handle cases that the ViewDragHelper does not capture the bottom sheet because
@@ -368,7 +400,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
         View scroll = mNestedScrollingChildRef.get();
         
         boolean intercepted = action == MotionEvent.ACTION_MOVE && scroll != null && !mIgnoreEvents && mState != STATE_DRAGGING && !parent.isPointInChildBounds(scroll, (int) event.getX(), (int) event.getY()) && Math.abs(mInitialY - event.getY()) > mViewDragHelper.getTouchSlop();
-        Log.d(LOG_TAG,"onInterceptTouchEvent mIgnoreEvents [" + mIgnoreEvents + "] => intercepted [" + intercepted + "]");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(LOG_TAG, "onInterceptTouchEvent mIgnoreEvents [" + mIgnoreEvents + "] => intercepted [" + intercepted + "]");
+        }
         return intercepted;
     }
     
@@ -423,7 +458,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
     @Override
     public void onNestedPreScroll(CoordinatorLayout coordinatorLayout, V child, View target, int dx, int dy, int[] consumed)
     {
-        Log.d(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll dx [" + dx + "] dy [" + dy + "]" );
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll dx [" + dx + "] dy [" + dy + "]" );
+        }
         View scrollingChild = mNestedScrollingChildRef.get();
         if (target != scrollingChild)
         {
@@ -438,7 +476,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
             if (newTop < mOffsetExpanded)
             {
                 consumed[1] = currentTop - mOffsetExpanded;
-                Log.w(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll UPWARD moveOffset [" + (-consumed[1]) + "] EXPANDED");
+                if (SheetLog.WARN)
+                {
+                    SheetLog.w(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll UPWARD moveOffset [" + (-consumed[1]) + "] EXPANDED");
+                }
                 ViewCompat.offsetTopAndBottom(child, -consumed[1]);
                 setStateInternal(STATE_EXPANDED);
                 // Log.d(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll UPWARD currentTop [" + currentTop + "] newTop [" + newTop + "] mOffsetExpanded [" + mOffsetExpanded + "] offset [" + (-consumed[1]) + "] EXPANDED");
@@ -446,7 +487,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
             else
             {
                 consumed[1] = dy;
-                Log.w(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll UPWARD moveOffset [" + (-dy) + "] DRAGGING");
+                if (SheetLog.WARN)
+                {
+                    SheetLog.w(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll UPWARD moveOffset [" + (-dy) + "] DRAGGING");
+                }
                 ViewCompat.offsetTopAndBottom(child, -dy);
                 setStateInternal(STATE_DRAGGING);
                 // Log.d(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll UPWARD currentTop [" + currentTop + "] newTop [" + newTop + "] mOffsetExpanded [" + mOffsetExpanded + "] offset [" + (-dy) + "] DRAGGING");
@@ -460,7 +504,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
                 if (newTop <= mOffsetCollapsed || mHideable)
                 {
                     consumed[1] = dy;
-                    Log.w(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset [" + (-dy) + "] DRAGGING");
+                    if (SheetLog.WARN)
+                    {
+                        SheetLog.w(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset [" + (-dy) + "] DRAGGING");
+                    }
                     ViewCompat.offsetTopAndBottom(child, -dy);
                     setStateInternal(STATE_DRAGGING);
                     // Log.d(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll DOWNWARD currentTop [" + currentTop + "] newTop [" + newTop + "] mOffsetCollapsed [" + mOffsetCollapsed + "] offset [" + (-dy) + "] DRAGGING");
@@ -468,7 +515,10 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
                 else
                 {
                     consumed[1] = currentTop - mOffsetCollapsed;
-                    Log.w(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset [" + (-consumed[1]) + "] COLLAPSED");
+                    if (SheetLog.WARN)
+                    {
+                        SheetLog.w(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset [" + (-consumed[1]) + "] COLLAPSED");
+                    }
                     ViewCompat.offsetTopAndBottom(child, -consumed[1]);
                     setStateInternal(STATE_COLLAPSED);
                     // Log.d(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll DOWNWARD currentTop [" + currentTop + "] newTop [" + newTop + "] mOffsetCollapsed [" + mOffsetCollapsed + "] offset [" + (-consumed[1]) + "] COLLAPSED");
@@ -476,7 +526,7 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
             }
             else
             {
-                Log.e(LOG_TAG,"*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset IGNORED");
+                SheetLog.e(LOG_TAG, "*** DEPRECATED *** onNestedPreScroll DOWNWARD moveOffset IGNORED");
             }
         }
         dispatchOnSlide(child.getTop());
@@ -749,10 +799,16 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
     @VisibleForTesting
     View findScrollingChild(View view)
     {
-        Log.d(LOG_TAG,"findScrollingChild [" + view + "]");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(LOG_TAG, "findScrollingChild [" + view + "]");
+        }
         if (ViewCompat.isNestedScrollingEnabled(view))
         {
-            Log.d(LOG_TAG,"findScrollingChild isNestedScrollingEnabled [true] => view [" + view +"]");
+            if (SheetLog.DEBUG)
+            {
+                SheetLog.d(LOG_TAG, "findScrollingChild isNestedScrollingEnabled [true] => view [" + view +"]");
+            }
             return view;
         }
         if (view instanceof ViewGroup)
@@ -763,12 +819,18 @@ public class SouthSheetBehavior<V extends View> extends CoordinatorLayout.Behavi
                 View scrollingChild = findScrollingChild(group.getChildAt(i));
                 if (scrollingChild != null)
                 {
-                    Log.d(LOG_TAG,"findScrollingChild in child => view [" + view +"]");
+                    if (SheetLog.DEBUG)
+                    {
+                        SheetLog.d(LOG_TAG, "findScrollingChild in child => view [" + view +"]");
+                    }
                     return scrollingChild;
                 }
             }
         }
-        Log.d(LOG_TAG,"findScrollingChild in child => view [null]");
+        if (SheetLog.DEBUG)
+        {
+            SheetLog.d(LOG_TAG, "findScrollingChild in child => view [null]");
+        }
         return null;
     }
     
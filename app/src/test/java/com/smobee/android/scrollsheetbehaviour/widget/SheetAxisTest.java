@@ -0,0 +1,87 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.os.SystemClock;
+import android.support.v4.widget.ViewDragHelper;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Settles translated sheets with a ViewDragHelper, which moves their layout position, frame after frame.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetAxisTest
+{
+    private static final int SIZE = 1000;
+    
+    private static final int MAX_FRAMES = 200;
+    
+    private View mSheet;
+    
+    private ViewDragHelper mHelper;
+    
+    @Before
+    public void setUp()
+    {
+        FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+        mSheet = new View(RuntimeEnvironment.application);
+        parent.addView(mSheet);
+        parent.layout(0, 0, SIZE, SIZE);
+        mSheet.layout(0, 0, SIZE, SIZE);
+        mHelper = ViewDragHelper.create(parent, new ViewDragHelper.Callback()
+        {
+            @Override
+            public boolean tryCaptureView(View child, int pointerId)
+            {
+                return true;
+            }
+        });
+    }
+    
+    @Test
+    public void verticalTranslation_settledByTheHelper_reachesTheOffset()
+    {
+        SheetAxis axis = SheetAxis.VERTICAL_TRANSLATION;
+        axis.layoutAt(mSheet, 800);
+        
+        assertTrue(axis.smoothSlideViewTo(mHelper, mSheet, 200));
+        settle();
+        assertEquals(200, axis.getOffset(mSheet));
+        // the translation is kept, the layout position makes up the difference until the next layout
+        assertEquals(800f, mSheet.getTranslationY(), 0f);
+        assertEquals(0, mSheet.getLeft());
+    }
+    
+    @Test
+    public void horizontalTranslation_settledByTheHelper_reachesTheOffset()
+    {
+        SheetAxis axis = SheetAxis.HORIZONTAL_TRANSLATION;
+        axis.layoutAt(mSheet, -700);
+        
+        assertTrue(axis.smoothSlideViewTo(mHelper, mSheet, -100));
+        settle();
+        assertEquals(-100, axis.getOffset(mSheet));
+        assertEquals(-700f, mSheet.getTranslationX(), 0f);
+        assertEquals(0, mSheet.getTop());
+    }
+    
+    private void settle()
+    {
+        int frames = 0;
+        while (mHelper.continueSettling(false) && ++frames < MAX_FRAMES)
+        {
+            SystemClock.sleep(16L);
+        }
+        assertEquals(ViewDragHelper.STATE_IDLE, mHelper.getViewDragState());
+    }
+}
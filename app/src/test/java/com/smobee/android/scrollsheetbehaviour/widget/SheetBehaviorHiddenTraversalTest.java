@@ -0,0 +1,216 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.design.widget.CoordinatorLayout;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.smobee.android.scrollsheetbehaviour.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the measures and the draws of a sheet once it is HIDDEN, and checks that it is back in the
+ * traversals of its parent one frame before the animation revealing it starts.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetBehaviorHiddenTraversalTest
+{
+    private static final int WIDTH = 1080;
+    
+    private static final int HEIGHT = 1920;
+    
+    private static final int MAX_LOOPS = 200;
+    
+    private Context mContext;
+    
+    private CoordinatorLayout mParent;
+    
+    private CountingSheet mSheet;
+    
+    private SheetBehavior<CountingSheet> mBehavior;
+    
+    private Canvas mCanvas;
+    
+    @Before
+    public void setUp()
+    {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        // the posted settles only run from settle(), frame after frame
+        ShadowLooper.pauseMainLooper();
+        mContext = new ContextThemeWrapper(activity, R.style.AppTheme);
+        mParent = new CoordinatorLayout(mContext);
+        mSheet = new CountingSheet(mContext);
+        mBehavior = new SheetBehavior<>();
+        mBehavior.setHideable(true);
+        mBehavior.setPeekSize(200);
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(mBehavior);
+        mParent.addView(mSheet, params);
+        activity.setContentView(mParent);
+        mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        frame();
+    }
+    
+    @Test
+    public void hiddenSheet_isNeitherMeasuredNorDrawn()
+    {
+        hide();
+        assertEquals(View.GONE, mSheet.getVisibility());
+        
+        mSheet.reset();
+        mParent.requestLayout();
+        for (int i = 0; i < 10; i++)
+        {
+            frame();
+        }
+        assertEquals(0, mSheet.mMeasureCount);
+        assertEquals(0, mSheet.mDrawCount);
+    }
+    
+    @Test
+    public void hiddenSheetWithDependents_isOnlyNotDrawn()
+    {
+        View dependent = new View(mContext);
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(100, 100);
+        params.setBehavior(new CoordinatorLayout.Behavior<View>()
+        {
+            @Override
+            public boolean layoutDependsOn(CoordinatorLayout parent, View child, View dependency)
+            {
+                return dependency instanceof CountingSheet;
+            }
+        });
+        mParent.addView(dependent, params);
+        frame();
+        
+        hide();
+        assertEquals(View.INVISIBLE, mSheet.getVisibility());
+        
+        mSheet.reset();
+        mParent.requestLayout();
+        frame();
+        assertTrue(mSheet.mMeasureCount > 0);
+        assertEquals(0, mSheet.mDrawCount);
+    }
+    
+    @Test
+    public void hiddenSheetWithAnchoredView_isOnlyNotDrawn()
+    {
+        mSheet.setId(View.generateViewId());
+        View anchored = new View(mContext);
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(100, 100);
+        params.setAnchorId(mSheet.getId());
+        mParent.addView(anchored, params);
+        frame();
+        
+        hide();
+        assertEquals(View.INVISIBLE, mSheet.getVisibility());
+    }
+    
+    @Test
+    public void reveal_tracesTheSheetBeforeItsAnimation()
+    {
+        hide();
+        mSheet.reset();
+        
+        mBehavior.setState(SheetBehavior.STATE_COLLAPSED);
+        assertEquals(View.VISIBLE, mSheet.getVisibility());
+        // the animation waits for the layout of the sheet
+        assertEquals(SheetBehavior.STATE_HIDDEN, mBehavior.getState());
+        
+        frame();
+        assertTrue(mSheet.mMeasureCount > 0);
+        assertTrue(mSheet.mDrawCount > 0);
+        assertEquals(SheetBehavior.STATE_HIDDEN, mBehavior.getState());
+        
+        settle();
+        assertEquals(SheetBehavior.STATE_COLLAPSED, mBehavior.getState());
+    }
+    
+    @Test
+    public void disabled_hiddenSheetStaysVisible()
+    {
+        mBehavior.setHiddenTraversalSkipped(false);
+        hide();
+        assertEquals(View.VISIBLE, mSheet.getVisibility());
+    }
+    
+    private void hide()
+    {
+        mBehavior.setState(SheetBehavior.STATE_HIDDEN);
+        settle();
+        assertEquals(SheetBehavior.STATE_HIDDEN, mBehavior.getState());
+    }
+    
+    private void settle()
+    {
+        int loops = 0;
+        do
+        {
+            ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+            frame();
+        }
+        while (mBehavior.getState() == SheetBehavior.STATE_SETTLING && ++loops < MAX_LOOPS);
+    }
+    
+    /**
+     * A traversal of the parent, as run by a frame.
+     */
+    private void frame()
+    {
+        if (mParent.isLayoutRequested())
+        {
+            mParent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            mParent.layout(0, 0, WIDTH, HEIGHT);
+        }
+        mParent.draw(mCanvas);
+    }
+    
+    private static class CountingSheet extends FrameLayout
+    {
+        int mMeasureCount;
+        
+        int mDrawCount;
+        
+        CountingSheet(Context context)
+        {
+            super(context);
+        }
+        
+        void reset()
+        {
+            mMeasureCount = 0;
+            mDrawCount = 0;
+        }
+        
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec)
+        {
+            mMeasureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+        
+        @Override
+        protected void dispatchDraw(Canvas canvas)
+        {
+            mDrawCount++;
+            super.dispatchDraw(canvas);
+        }
+    }
+}
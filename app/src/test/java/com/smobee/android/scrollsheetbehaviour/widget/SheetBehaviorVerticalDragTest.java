@@ -0,0 +1,155 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Drags a vertical sheet laid out in its parent, by calling its drag callback as its ViewDragHelper does on each
+ * move of the finger.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetBehaviorVerticalDragTest
+{
+    private static final int WIDTH = 1080;
+    
+    private static final int HEIGHT = 1920;
+    
+    private static final int PEEK_SIZE = 200;
+    
+    private CoordinatorLayout mParent;
+    
+    private View mSheet;
+    
+    private SheetBehavior<View> mBehavior;
+    
+    @Before
+    public void setUp()
+    {
+        mParent = new CoordinatorLayout(RuntimeEnvironment.application);
+        mSheet = new View(RuntimeEnvironment.application);
+        mBehavior = new SheetBehavior<>();
+        mBehavior.setPeekSize(PEEK_SIZE);
+    }
+    
+    @Test
+    public void offsetDrag_southSheet_followsTheFinger()
+    {
+        layout(SheetBehavior.POSITION_SOUTH, true);
+        assertEquals(HEIGHT - PEEK_SIZE, mSheet.getTop());
+        
+        assertEquals(HEIGHT - PEEK_SIZE - 500, drag(-500));
+        assertEquals(HEIGHT - PEEK_SIZE - 400, drag(100));
+        // no further than the expanded and the hidden offsets
+        assertEquals(0, drag(-HEIGHT));
+        assertEquals(HEIGHT, drag(2 * HEIGHT));
+    }
+    
+    @Test
+    public void offsetDrag_northSheet_followsTheFinger()
+    {
+        layout(SheetBehavior.POSITION_NORTH, false);
+        assertEquals(PEEK_SIZE - HEIGHT, mSheet.getTop());
+        
+        assertEquals(PEEK_SIZE - HEIGHT + 500, drag(500));
+        // no further than the expanded and the collapsed offsets
+        assertEquals(0, drag(HEIGHT));
+        assertEquals(PEEK_SIZE - HEIGHT, drag(-2 * HEIGHT));
+    }
+    
+    @Test
+    public void translationDrag_southSheet_followsTheFinger()
+    {
+        mBehavior.setMovement(SheetBehavior.MOVEMENT_TRANSLATION);
+        layout(SheetBehavior.POSITION_SOUTH, true);
+        assertEquals(HEIGHT - PEEK_SIZE, drag(0));
+        
+        assertEquals(HEIGHT - PEEK_SIZE - 500, drag(-500));
+        assertEquals(HEIGHT - PEEK_SIZE - 400, drag(100));
+        // the sheet is only translated, its layout stays where it was
+        assertEquals(0, mSheet.getTop());
+        assertEquals(HEIGHT - PEEK_SIZE - 400, mSheet.getTranslationY(), 0f);
+        assertEquals(0, drag(-HEIGHT));
+        assertEquals(HEIGHT, drag(2 * HEIGHT));
+    }
+    
+    @Test
+    public void predictedLead_staysBetweenTheBoundsOfTheDrag()
+    {
+        mBehavior.setDragPrediction(16);
+        layout(SheetBehavior.POSITION_SOUTH, false);
+        
+        // the finger moves up 2 pixels per millisecond: the sheet is moved 32 pixels ahead of it
+        moveFinger(0L, -2f);
+        assertEquals(HEIGHT - PEEK_SIZE - 100 - 32, drag(-100));
+        // the lead of the previous move is not added twice
+        assertEquals(HEIGHT - PEEK_SIZE - 200 - 32, drag(-100));
+        // 20 pixels from the expanded offset, the lead is cut by the bound of the drag...
+        assertEquals(0, drag(-(HEIGHT - PEEK_SIZE - 200 - 20)));
+        // ... and only what was applied of it is taken back on the next move
+        assertEquals(20 + 50 - 32, drag(50));
+        
+        // the finger turns down, up to 20 pixels from the collapsed offset
+        moveFinger(100L, 2f);
+        assertEquals(HEIGHT - PEEK_SIZE, drag(HEIGHT - PEEK_SIZE - 20 - 70));
+        assertEquals(HEIGHT - PEEK_SIZE - 20 - 100 + 32, drag(-100));
+    }
+    
+    @Test
+    public void predictedLead_disabled_leavesTheDragUnchanged()
+    {
+        layout(SheetBehavior.POSITION_SOUTH, true);
+        
+        moveFinger(0L, -2f);
+        assertEquals(HEIGHT - PEEK_SIZE - 500, drag(-500));
+        assertEquals(HEIGHT - PEEK_SIZE - 400, drag(100));
+    }
+    
+    private void layout(int position, boolean hideable)
+    {
+        mBehavior.setPosition(position);
+        mBehavior.setHideable(hideable);
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(mBehavior);
+        mParent.addView(mSheet, params);
+        mParent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mParent.layout(0, 0, WIDTH, HEIGHT);
+    }
+    
+    /**
+     * Feeds the predictor of the sheet with the samples of a finger moving at a steady speed for 12 milliseconds.
+     *
+     * @param speed The speed of the finger, in pixels per millisecond.
+     */
+    private void moveFinger(long startTime, float speed)
+    {
+        for (long time = 0L; time <= 12L; time += 4L)
+        {
+            mBehavior.mTouchPredictor.addSample(startTime + time, speed * time);
+        }
+    }
+    
+    /**
+     * Moves the finger by {@code dy} and moves the sheet to the clamped top, as ViewDragHelper#dragTo does.
+     *
+     * @return The offset of the sheet: its top plus its translation.
+     */
+    private int drag(int dy)
+    {
+        int oldTop = mSheet.getTop();
+        int top = mBehavior.mDragCallback.clampViewPositionVertical(mSheet, oldTop + dy, dy);
+        ViewCompat.offsetTopAndBottom(mSheet, top - oldTop);
+        return mSheet.getTop() + Math.round(mSheet.getTranslationY());
+    }
+}
@@ -0,0 +1,148 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.support.annotation.NonNull;
+import android.support.design.widget.CoordinatorLayout;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetCallbackDispatchTest
+{
+    private static final int WIDTH = 1080;
+    
+    private static final int HEIGHT = 1920;
+    
+    private static final int LISTENERS = 8;
+    
+    private static final int SLIDES = 10000;
+    
+    private SheetBehavior<View> mBehavior;
+    
+    private CountingCallback[] mCallbacks;
+    
+    @Before
+    public void setUp()
+    {
+        CoordinatorLayout parent = new CoordinatorLayout(RuntimeEnvironment.application);
+        View sheet = new View(RuntimeEnvironment.application);
+        mBehavior = new SheetBehavior<>();
+        mBehavior.setPeekSize(200);
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(mBehavior);
+        parent.addView(sheet, params);
+        parent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, WIDTH, HEIGHT);
+        mCallbacks = new CountingCallback[LISTENERS];
+        for (int i = 0; i < LISTENERS; i++)
+        {
+            mCallbacks[i] = new CountingCallback();
+            mBehavior.addSheetCallback(mCallbacks[i]);
+        }
+    }
+    
+    @Test
+    public void slide_dispatchedToEveryListenerWithoutAllocation()
+    {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        // warm up: the first slides and the first calls of the bean are kept out of the measure
+        slides();
+        allocatedBytes(threads, false);
+        // the same measure around an empty loop: what the bean allocates by itself
+        long emptyLoop = allocatedBytes(threads, false);
+        
+        assertEquals(emptyLoop, allocatedBytes(threads, true));
+        for (CountingCallback callback : mCallbacks)
+        {
+            assertEquals(2 * SLIDES, callback.mSlides);
+        }
+    }
+    
+    @Test
+    public void listener_removesItselfDuringDispatch()
+    {
+        final CountingCallback once = new CountingCallback()
+        {
+            @Override
+            public void onSheetSlide(@NonNull View sheet, float slideOffset, String nickName)
+            {
+                super.onSheetSlide(sheet, slideOffset, nickName);
+                mBehavior.removeSheetCallback(this);
+            }
+        };
+        mBehavior.addSheetCallback(once);
+        mBehavior.dispatchOnSlide(0, 500);
+        mBehavior.dispatchOnSlide(0, 600);
+        assertEquals(1, once.mSlides);
+        for (CountingCallback callback : mCallbacks)
+        {
+            assertEquals(2, callback.mSlides);
+        }
+    }
+    
+    private void slides()
+    {
+        for (int i = 0; i < SLIDES; i++)
+        {
+            mBehavior.dispatchOnSlide(0, 500 + (i & 255));
+        }
+    }
+    
+    /**
+     * @return The bytes allocated by the current thread while it runs the slides, or an empty loop as long.
+     */
+    private long allocatedBytes(com.sun.management.ThreadMXBean threads, boolean dispatch)
+    {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        if (dispatch)
+        {
+            slides();
+        }
+        else
+        {
+            for (int i = 0; i < SLIDES; i++)
+            {
+                // nothing but the loop
+            }
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+    
+    private static com.sun.management.ThreadMXBean threadMXBean()
+    {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled());
+        return sunThreads;
+    }
+    
+    private static class CountingCallback implements SheetBehavior.SheetCallback
+    {
+        int mSlides;
+        
+        @Override
+        public void onSheetStateChanged(@NonNull View sheet, int newState, String nickName)
+        {
+        }
+        
+        @Override
+        public void onSheetSlide(@NonNull View sheet, float slideOffset, String nickName)
+        {
+            mSlides++;
+        }
+    }
+}
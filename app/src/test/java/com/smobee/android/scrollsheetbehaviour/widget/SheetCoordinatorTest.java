@@ -0,0 +1,127 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The sheets are not laid out: {@link SheetBehavior#setState(int)} changes their state at once.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetCoordinatorTest
+{
+    private SheetCoordinator mCoordinator;
+    
+    private SheetBehavior<?> mSouth;
+    
+    private SheetBehavior<?> mNorth;
+    
+    private SheetBehavior<?> mSecondSouth;
+    
+    @Before
+    public void setUp()
+    {
+        mCoordinator = new SheetCoordinator();
+        mSouth = hiddenSheet(SheetBehavior.POSITION_SOUTH);
+        mNorth = hiddenSheet(SheetBehavior.POSITION_NORTH);
+        mSecondSouth = hiddenSheet(SheetBehavior.POSITION_SOUTH);
+        mCoordinator.register(mSouth);
+        mCoordinator.register(mNorth);
+        mCoordinator.register(mSecondSouth);
+    }
+    
+    private static SheetBehavior<?> hiddenSheet(int position)
+    {
+        SheetBehavior<?> behavior = new SheetBehavior<>();
+        behavior.setPosition(position);
+        behavior.setHideable(true);
+        behavior.setState(SheetBehavior.STATE_HIDDEN);
+        return behavior;
+    }
+    
+    @Test
+    public void openSheets_trackedOnEveryStateChange()
+    {
+        assertFalse(mCoordinator.isAnySheetOpen());
+        mNorth.setState(SheetBehavior.STATE_COLLAPSED);
+        mSecondSouth.setState(SheetBehavior.STATE_EXPANDED);
+        assertEquals(2, mCoordinator.getOpenSheetCount());
+        mNorth.setState(SheetBehavior.STATE_HIDDEN);
+        assertEquals(1, mCoordinator.getOpenSheetCount());
+        mCoordinator.unregister(mSecondSouth);
+        assertFalse(mCoordinator.isAnySheetOpen());
+        mSecondSouth.setState(SheetBehavior.STATE_HIDDEN);
+        assertFalse(mCoordinator.isAnySheetOpen());
+    }
+    
+    @Test
+    public void swipe_routedToTheEdgeSheet()
+    {
+        assertSame(mSouth, mCoordinator.getEdgeSheet(SheetBehavior.POSITION_SOUTH));
+        assertNull(mCoordinator.getEdgeSheet(SheetBehavior.POSITION_EAST));
+        assertFalse(mCoordinator.handleSwipe(SheetBehavior.POSITION_EAST));
+        
+        mCoordinator.setEdgeSheet(SheetBehavior.POSITION_SOUTH, mSecondSouth);
+        assertTrue(mCoordinator.handleSwipe(SheetBehavior.POSITION_SOUTH));
+        assertEquals(SheetBehavior.STATE_EXPANDED, mSecondSouth.getState());
+        assertEquals(SheetBehavior.STATE_HIDDEN, mSouth.getState());
+        
+        mCoordinator.unregister(mSecondSouth);
+        assertSame(mSouth, mCoordinator.getEdgeSheet(SheetBehavior.POSITION_SOUTH));
+    }
+    
+    @Test
+    public void exclusivityBlocking_ignoresSwipesWhileASheetIsOpen()
+    {
+        mCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_BLOCKING);
+        assertTrue(mCoordinator.handleSwipe(SheetBehavior.POSITION_NORTH));
+        assertFalse(mCoordinator.handleSwipe(SheetBehavior.POSITION_SOUTH));
+        assertEquals(SheetBehavior.STATE_HIDDEN, mSouth.getState());
+    }
+    
+    @Test
+    public void edgeReveal_onlyTheEdgeSheetAndOnlyWhenAllowed()
+    {
+        assertTrue(mCoordinator.isEdgeRevealAllowed(mSouth.mCoordinatorIndex));
+        assertFalse(mCoordinator.isEdgeRevealAllowed(mSecondSouth.mCoordinatorIndex));
+        
+        mCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_BLOCKING);
+        mNorth.setState(SheetBehavior.STATE_EXPANDED);
+        assertFalse(mCoordinator.isEdgeRevealAllowed(mSouth.mCoordinatorIndex));
+        
+        mCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_SINGLE);
+        assertTrue(mCoordinator.isEdgeRevealAllowed(mSouth.mCoordinatorIndex));
+    }
+    
+    @Test
+    public void exclusivitySingle_hidesTheOtherSheets()
+    {
+        mCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_SINGLE);
+        mNorth.setState(SheetBehavior.STATE_EXPANDED);
+        mSecondSouth.setState(SheetBehavior.STATE_COLLAPSED);
+        assertEquals(SheetBehavior.STATE_HIDDEN, mNorth.getState());
+        
+        assertTrue(mCoordinator.handleSwipe(SheetBehavior.POSITION_SOUTH));
+        assertEquals(SheetBehavior.STATE_HIDDEN, mSecondSouth.getState());
+        assertEquals(1, mCoordinator.getOpenSheetCount());
+    }
+    
+    @Test
+    public void exclusivityNone_keepsEverySheetOpen()
+    {
+        mCoordinator.setExclusivity(SheetCoordinator.EXCLUSIVITY_NONE);
+        assertTrue(mCoordinator.handleSwipe(SheetBehavior.POSITION_NORTH));
+        assertTrue(mCoordinator.handleSwipe(SheetBehavior.POSITION_SOUTH));
+        assertFalse(mCoordinator.handleSwipe(SheetBehavior.POSITION_SOUTH));
+        assertEquals(2, mCoordinator.getOpenSheetCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetGestureArbiterTest
+{
+    private static final int TOUCH_SLOP = 8;
+    
+    private SheetGestureArbiter mArbiter;
+    
+    private SheetBehavior<?> mSouth;
+    
+    private SheetBehavior<?> mNorth;
+    
+    private SheetBehavior<?> mWest;
+    
+    @Before
+    public void setUp()
+    {
+        mArbiter = new SheetGestureArbiter(TOUCH_SLOP);
+        mSouth = new SheetBehavior<>();
+        mNorth = new SheetBehavior<>();
+        mNorth.setPosition(SheetBehavior.POSITION_NORTH);
+        mWest = new SheetBehavior<>();
+        mWest.setPosition(SheetBehavior.POSITION_WEST);
+    }
+    
+    private void touch(long downTime, int action, float x, float y)
+    {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + 10, action, x, y, 0);
+        mArbiter.onTouchEvent(event);
+        event.recycle();
+    }
+    
+    @Test
+    public void diagonalDrag_lockedOnTheAxisItMovedMostAlong()
+    {
+        touch(100, MotionEvent.ACTION_DOWN, 200, 200);
+        // within the slop: nothing is locked yet
+        touch(100, MotionEvent.ACTION_MOVE, 204, 205);
+        // past the slop, further along y than along x
+        touch(100, MotionEvent.ACTION_MOVE, 210, 215);
+        assertFalse(mArbiter.tryClaim(mWest, true));
+        assertTrue(mArbiter.tryClaim(mSouth, false));
+    }
+    
+    @Test
+    public void gesture_ownedByTheFirstSheetThatClaimsIt()
+    {
+        touch(100, MotionEvent.ACTION_DOWN, 200, 200);
+        assertTrue(mArbiter.tryClaim(mSouth, false));
+        assertTrue(mArbiter.tryClaim(mSouth, false));
+        assertFalse(mArbiter.tryClaim(mNorth, false));
+        
+        mArbiter.release(mSouth);
+        assertTrue(mArbiter.tryClaim(mNorth, false));
+        // the axis of the first claim stays locked until the next gesture
+        mArbiter.release(mNorth);
+        assertFalse(mArbiter.tryClaim(mWest, true));
+        
+        touch(200, MotionEvent.ACTION_DOWN, 200, 200);
+        assertTrue(mArbiter.tryClaim(mWest, true));
+    }
+}
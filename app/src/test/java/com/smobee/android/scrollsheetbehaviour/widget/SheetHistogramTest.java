@@ -0,0 +1,117 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Records synthetic samples in 1ms buckets, as the latency tracker does.
+ */
+public class SheetHistogramTest
+{
+    private static final int BUCKET_COUNT = 101;
+    
+    @Test
+    public void samples_landInTheBucketOfTheirValue()
+    {
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        histogram.record(0L);
+        assertEquals(0, histogram.getPercentile(1f));
+        histogram.record(1L);
+        assertEquals(1, histogram.getPercentile(1f));
+        histogram.record(99L);
+        assertEquals(99, histogram.getPercentile(1f));
+        assertEquals(3, histogram.getCount());
+    }
+    
+    @Test
+    public void negativeSample_landsInTheFirstBucket()
+    {
+        // an event time after the frame time, from a clock skew
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        histogram.record(-5L);
+        assertEquals(0, histogram.getPercentile(1f));
+        assertEquals(1, histogram.getCount());
+    }
+    
+    @Test
+    public void samplesAtOrAboveTheLastBucket_landInTheOverflowBucket()
+    {
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        histogram.record(100L);
+        histogram.record(101L);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(3, histogram.getCount());
+        assertEquals(100, histogram.getPercentile(0.01f));
+        assertEquals(100, histogram.getPercentile(1f));
+    }
+    
+    @Test
+    public void percentiles_ofAUniformSpread()
+    {
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        for (int value = 1; value <= 100; value++)
+        {
+            histogram.record(value);
+        }
+        assertEquals(50, histogram.getPercentile(0.5f));
+        assertEquals(95, histogram.getPercentile(0.95f));
+        assertEquals(99, histogram.getPercentile(0.99f));
+        // the 100th sample is in the overflow bucket
+        assertEquals(100, histogram.getPercentile(1f));
+    }
+    
+    @Test
+    public void percentiles_ofALongTail()
+    {
+        // 90 fast samples, 8 slow ones and 2 beyond the last bucket
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        for (int i = 0; i < 90; i++)
+        {
+            histogram.record(4L);
+        }
+        for (int i = 0; i < 8; i++)
+        {
+            histogram.record(40L);
+        }
+        histogram.record(250L);
+        histogram.record(1000L);
+        assertEquals(4, histogram.getPercentile(0.5f));
+        assertEquals(4, histogram.getPercentile(0.9f));
+        assertEquals(40, histogram.getPercentile(0.95f));
+        assertEquals(40, histogram.getPercentile(0.98f));
+        assertEquals(100, histogram.getPercentile(0.99f));
+    }
+    
+    @Test
+    public void percentile_rankIsRoundedUp()
+    {
+        // the median of 3 samples is the second one, the lowest fraction still gives the first one
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        histogram.record(10L);
+        histogram.record(20L);
+        histogram.record(30L);
+        assertEquals(20, histogram.getPercentile(0.5f));
+        assertEquals(10, histogram.getPercentile(0.001f));
+    }
+    
+    @Test
+    public void empty_hasNoPercentile()
+    {
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.99f));
+    }
+    
+    @Test
+    public void reset_forgetsTheSamples()
+    {
+        SheetHistogram histogram = new SheetHistogram(BUCKET_COUNT);
+        histogram.record(42L);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(1f));
+        histogram.record(7L);
+        assertEquals(7, histogram.getPercentile(0.5f));
+    }
+}
@@ -0,0 +1,117 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Feeds the latency trackers of two sheets with synthetic event, offset and frame times. The frames are
+ * dispatched by the test: the main looper is paused, the Choreographer never calls the trackers by itself.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetLatencyTrackerTest
+{
+    private static final long NANOS_PER_MILLI = 1000000L;
+    
+    private SheetBehavior<?> mNorth;
+    
+    private SheetBehavior<?> mSouth;
+    
+    @Before
+    public void setUp()
+    {
+        ShadowLooper.pauseMainLooper();
+        mNorth = new SheetBehavior<>();
+        mNorth.setIdentifierName("north");
+        mNorth.setLatencyTrackingEnabled(true);
+        mSouth = new SheetBehavior<>();
+        mSouth.setIdentifierName("south");
+        mSouth.setLatencyTrackingEnabled(true);
+    }
+    
+    @Test
+    public void samples_areAggregatedPerSheet()
+    {
+        SheetLatencyTracker north = mNorth.getLatencyTracker();
+        SheetLatencyTracker south = mSouth.getLatencyTracker();
+        assertEquals("north", north.getIdentifierName());
+        assertEquals("south", south.getIdentifierName());
+        
+        // the north sheet moves 2ms after its events, drawn 10ms after them
+        for (long time = 1000L; time < 1100L; time += 10L)
+        {
+            move(north, time, time + 2L, time + 10L);
+        }
+        // the south sheet moves 30ms after its events, drawn 40ms after them
+        for (long time = 1000L; time < 1050L; time += 10L)
+        {
+            move(south, time, time + 30L, time + 40L);
+        }
+        
+        assertEquals(10, north.getSampleCount());
+        assertEquals(2, north.getInputToOffsetPercentileMillis(0.99f));
+        assertEquals(10, north.getInputToFramePercentileMillis(0.99f));
+        assertEquals(5, south.getSampleCount());
+        assertEquals(30, south.getInputToOffsetPercentileMillis(0.5f));
+        assertEquals(40, south.getInputToFramePercentileMillis(0.5f));
+        
+        north.reset();
+        assertEquals(0, north.getSampleCount());
+        assertEquals(5, south.getSampleCount());
+    }
+    
+    @Test
+    public void inputsOfOneFrame_giveTheLatencyOfTheOldest()
+    {
+        SheetLatencyTracker tracker = mSouth.getLatencyTracker();
+        for (long time = 1000L; time < 1004L; time++)
+        {
+            tracker.onInputEvent(time);
+            tracker.onOffsetApplied(time + 1L);
+        }
+        tracker.doFrame(1016L * NANOS_PER_MILLI);
+        
+        assertEquals(4, tracker.getSampleCount());
+        assertEquals(1, tracker.getInputToOffsetPercentileMillis(1f));
+        assertEquals(16, tracker.getInputToFramePercentileMillis(1f));
+    }
+    
+    @Test
+    public void moveWithoutInput_isNotSampled()
+    {
+        SheetLatencyTracker tracker = mSouth.getLatencyTracker();
+        tracker.onInputEvent(1000L);
+        // a settle frame moves the sheet: the event did not move it
+        tracker.clearPendingInput();
+        tracker.onOffsetApplied();
+        tracker.doFrame(1016L * NANOS_PER_MILLI);
+        
+        assertEquals(0, tracker.getSampleCount());
+        assertEquals(0, tracker.getInputToFramePercentileMillis(1f));
+    }
+    
+    @Test
+    public void disabledTracker_recordsNothing()
+    {
+        mSouth.setLatencyTrackingEnabled(false);
+        SheetLatencyTracker tracker = mSouth.getLatencyTracker();
+        tracker.onInputEvent(1000L);
+        tracker.onOffsetApplied();
+        tracker.doFrame(1016L * NANOS_PER_MILLI);
+        
+        assertEquals(0, tracker.getSampleCount());
+    }
+    
+    private static void move(SheetLatencyTracker tracker, long eventTime, long offsetTime, long frameTime)
+    {
+        tracker.onInputEvent(eventTime);
+        tracker.onOffsetApplied(offsetTime);
+        tracker.doFrame(frameTime * NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,177 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import android.app.Activity;
+import android.support.design.widget.CoordinatorLayout;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLog;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the sheet logs cost nothing when their level is turned off: no message is built and no argument
+ * is boxed.
+ * <p>
+ * The layout and drag checks need DEBUG turned off: they run in the release unit tests
+ * ({@code ./gradlew testReleaseUnitTest}), whose SHEET_LOG_LEVEL is above ASSERT, and are skipped in the debug
+ * ones, which log at DEBUG.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class SheetLogTest
+{
+    private static final String TAG = "SHEETBVIOR-test";
+    
+    private static final int WIDTH = 1080;
+    
+    private static final int HEIGHT = 1920;
+    
+    private static final int PEEK_SIZE = 200;
+    
+    private static final int CALLS = 100;
+    
+    private static final int DRAG_EVENTS = 100;
+    
+    private Activity mActivity;
+    
+    private CoordinatorLayout mParent;
+    
+    private View mSheet;
+    
+    @Before
+    public void setUp()
+    {
+        mActivity = Robolectric.setupActivity(Activity.class);
+        // the layout is run by the test only, and the settle after the drag is not run
+        ShadowLooper.pauseMainLooper();
+        mParent = new CoordinatorLayout(mActivity);
+        mSheet = new FrameLayout(mActivity);
+    }
+    
+    @Test
+    public void disabledLevel_sheetBehaviorLayoutAndDrag_buildsNoMessage()
+    {
+        Assume.assumeFalse(SheetLog.DEBUG);
+        SheetBehavior<View> behavior = new SheetBehavior<>();
+        behavior.setPeekSize(PEEK_SIZE);
+        attach(behavior);
+        
+        layoutAndDrag();
+    }
+    
+    @Test
+    public void disabledLevel_southSheetBehaviorLayoutAndDrag_buildsNoMessage()
+    {
+        Assume.assumeFalse(SheetLog.DEBUG);
+        SouthSheetBehavior<View> behavior = new SouthSheetBehavior<>();
+        behavior.setPeekHeight(PEEK_SIZE);
+        attach(behavior);
+        
+        layoutAndDrag();
+    }
+    
+    @Test
+    public void disabledLevel_calls_allocateNothing()
+    {
+        // VERBOSE is turned off in the debug unit tests too
+        Assume.assumeFalse(SheetLog.VERBOSE);
+        
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+        
+        // warm up: class loading and the first calls of the bean are kept out of the measure
+        for (int i = 0; i < 10; i++)
+        {
+            allocatedBytes(bean, true);
+            allocatedBytes(bean, false);
+        }
+        // the same measure around an empty loop: what the bean allocates by itself
+        long emptyLoop = allocatedBytes(bean, false);
+        
+        assertEquals(emptyLoop, allocatedBytes(bean, true));
+    }
+    
+    private void attach(CoordinatorLayout.Behavior<View> behavior)
+    {
+        CoordinatorLayout.LayoutParams params = new CoordinatorLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT);
+        params.setBehavior(behavior);
+        mParent.addView(mSheet, params);
+        mActivity.setContentView(mParent);
+    }
+    
+    /**
+     * Lays the collapsed sheet out, then drags it up with a 100 events gesture, and checks that no log call was
+     * reached on the way and that nothing was printed.
+     */
+    private void layoutAndDrag()
+    {
+        ShadowLog.reset();
+        SheetLog.sCalls = 0;
+        
+        mParent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mParent.layout(0, 0, WIDTH, HEIGHT);
+        assertEquals(HEIGHT - PEEK_SIZE, mSheet.getTop());
+        
+        long downTime = 1000L;
+        float x = WIDTH / 2f;
+        float y = HEIGHT - PEEK_SIZE / 2f;
+        touch(downTime, downTime, MotionEvent.ACTION_DOWN, x, y);
+        for (int i = 1; i <= DRAG_EVENTS; i++)
+        {
+            touch(downTime, downTime + 8L * i, MotionEvent.ACTION_MOVE, x, y - 10f * i);
+        }
+        // the gesture did move the sheet
+        assertTrue(mSheet.getTop() < HEIGHT - PEEK_SIZE);
+        touch(downTime, downTime + 8L * (DRAG_EVENTS + 1), MotionEvent.ACTION_UP, x, y - 10f * DRAG_EVENTS);
+        
+        assertEquals(0, SheetLog.sCalls);
+        for (ShadowLog.LogItem item : ShadowLog.getLogs())
+        {
+            // SheetBehavior logs under SHEETBVIOR-<identifier>, SouthSheetBehavior under SSB
+            assertFalse(item.tag, item.tag.startsWith("SHEETBVIOR") || item.tag.equals("SSB"));
+        }
+    }
+    
+    private void touch(long downTime, long eventTime, int action, float x, float y)
+    {
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+        mParent.dispatchTouchEvent(event);
+        event.recycle();
+    }
+    
+    /**
+     * @return The bytes allocated by the current thread while it runs 100 times each VERBOSE overload, or an
+     *         empty loop as long.
+     */
+    private static long allocatedBytes(com.sun.management.ThreadMXBean bean, boolean log)
+    {
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++)
+        {
+            if (log)
+            {
+                SheetLog.v(TAG, "message");
+                SheetLog.v(TAG, "one argument [%d]", i);
+                SheetLog.v(TAG, "two arguments [%d] [%d]", i, -i);
+            }
+        }
+        return bean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
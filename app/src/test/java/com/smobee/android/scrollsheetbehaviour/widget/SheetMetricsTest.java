@@ -0,0 +1,143 @@
+package com.smobee.android.scrollsheetbehaviour.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Records settles with synthetic Choreographer frame times.
+ */
+public class SheetMetricsTest
+{
+    private static final long FRAME = 16000000L;
+    
+    private static final long START = 5000000000L;
+    
+    private SheetMetrics mMetrics;
+    
+    @Before
+    public void setUp()
+    {
+        mMetrics = new SheetMetrics();
+    }
+    
+    @Test
+    public void settle_lastsFromItsFirstFrameToItsLastOne()
+    {
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        // the wait for the first frame is neither a gap nor a part of the settle
+        frames(START + 100000000L, 10, FRAME);
+        mMetrics.onSettleFinished();
+        
+        assertEquals(1, mMetrics.getSettleCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(10, mMetrics.getFrameCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(9 * FRAME, mMetrics.getLastSettleDurationNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(FRAME, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0, mMetrics.getOverBudgetFrameCount(SheetBehavior.STATE_EXPANDED));
+    }
+    
+    @Test
+    public void settles_areAggregatedPerTargetState()
+    {
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        frames(START, 5, FRAME);
+        mMetrics.onSettleFinished();
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        frames(START + 10 * FRAME, 3, FRAME);
+        mMetrics.onSettleFinished();
+        mMetrics.onSettleStarted(SheetBehavior.STATE_HIDDEN);
+        frames(START + 20 * FRAME, 4, 2 * FRAME);
+        mMetrics.onSettleFinished();
+        
+        assertEquals(2, mMetrics.getSettleCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(8, mMetrics.getFrameCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(6 * FRAME, mMetrics.getSettleDurationNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(2 * FRAME, mMetrics.getLastSettleDurationNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(FRAME, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_EXPANDED));
+        
+        assertEquals(1, mMetrics.getSettleCount(SheetBehavior.STATE_HIDDEN));
+        assertEquals(4, mMetrics.getFrameCount(SheetBehavior.STATE_HIDDEN));
+        assertEquals(6 * FRAME, mMetrics.getSettleDurationNanos(SheetBehavior.STATE_HIDDEN));
+        assertEquals(2 * FRAME, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_HIDDEN));
+        
+        assertEquals(0, mMetrics.getSettleCount(SheetBehavior.STATE_COLLAPSED));
+        assertEquals(0, mMetrics.getFrameCount(SheetBehavior.STATE_COLLAPSED));
+    }
+    
+    @Test
+    public void overBudgetFrames_areCountedAgainstTheFrameBudget()
+    {
+        mMetrics.setFrameBudgetNanos(SheetMetrics.FRAME_BUDGET_120HZ_NANOS);
+        mMetrics.onSettleStarted(SheetBehavior.STATE_COLLAPSED);
+        mMetrics.onSettleFrame(START);
+        // on budget, one nanosecond over, a dropped frame, on budget again
+        mMetrics.onSettleFrame(START + SheetMetrics.FRAME_BUDGET_120HZ_NANOS);
+        mMetrics.onSettleFrame(START + 2 * SheetMetrics.FRAME_BUDGET_120HZ_NANOS + 1);
+        mMetrics.onSettleFrame(START + 4 * SheetMetrics.FRAME_BUDGET_120HZ_NANOS + 1);
+        mMetrics.onSettleFrame(START + 5 * SheetMetrics.FRAME_BUDGET_120HZ_NANOS + 1);
+        mMetrics.onSettleFinished();
+        
+        assertEquals(2, mMetrics.getOverBudgetFrameCount(SheetBehavior.STATE_COLLAPSED));
+        assertEquals(2 * SheetMetrics.FRAME_BUDGET_120HZ_NANOS, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_COLLAPSED));
+        
+        // the same frames at 60Hz are all on budget
+        mMetrics.setFrameBudgetNanos(SheetMetrics.FRAME_BUDGET_60HZ_NANOS);
+        mMetrics.onSettleStarted(SheetBehavior.STATE_COLLAPSED);
+        frames(START, 4, SheetMetrics.FRAME_BUDGET_120HZ_NANOS + 1);
+        mMetrics.onSettleFinished();
+        assertEquals(2, mMetrics.getOverBudgetFrameCount(SheetBehavior.STATE_COLLAPSED));
+    }
+    
+    @Test
+    public void retargetedSettle_isAccountedUpToItsLastFrame()
+    {
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        frames(START, 3, FRAME);
+        mMetrics.onSettleStarted(SheetBehavior.STATE_HIDDEN);
+        // the new target starts its gaps at its own first frame
+        frames(START + 10 * FRAME, 2, FRAME);
+        mMetrics.onSettleFinished();
+        
+        assertEquals(1, mMetrics.getSettleCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(2 * FRAME, mMetrics.getLastSettleDurationNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(1, mMetrics.getSettleCount(SheetBehavior.STATE_HIDDEN));
+        assertEquals(FRAME, mMetrics.getLastSettleDurationNanos(SheetBehavior.STATE_HIDDEN));
+        assertEquals(FRAME, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_HIDDEN));
+    }
+    
+    @Test
+    public void settleWithoutFrame_lastsNothing()
+    {
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        mMetrics.onSettleFinished();
+        // a frame after the end is not recorded
+        mMetrics.onSettleFrame(START);
+        
+        assertEquals(1, mMetrics.getSettleCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0L, mMetrics.getLastSettleDurationNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0, mMetrics.getFrameCount(SheetBehavior.STATE_EXPANDED));
+    }
+    
+    @Test
+    public void reset_forgetsTheSettles()
+    {
+        mMetrics.onSettleStarted(SheetBehavior.STATE_EXPANDED);
+        frames(START, 3, 3 * FRAME);
+        mMetrics.onSettleFinished();
+        mMetrics.reset();
+        
+        assertEquals(0, mMetrics.getSettleCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0, mMetrics.getFrameCount(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0L, mMetrics.getWorstFrameGapNanos(SheetBehavior.STATE_EXPANDED));
+        assertEquals(0, mMetrics.getOverBudgetFrameCount(SheetBehavior.STATE_EXPANDED));
+    }
+    
+    private void frames(long firstFrameNanos, int count, long intervalNanos)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            mMetrics.onSettleFrame(firstFrameNanos + i * intervalNanos);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of the sheet geometry, for each of the four positions.
+ * <p>
+ * Run with {@code ./gradlew :geometry:jmh}: the gc profiler reports the allocation rate of every
+ * benchmark, which must stay at zero bytes per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SheetGeometryBenchmark
+{
+    private static final int PARENT_WIDTH = 1080;
+    
+    private static final int PARENT_HEIGHT = 1920;
+    
+    private static final int PEEK_SIZE = 200;
+    
+    // power of two, the inputs are walked with a mask
+    private static final int INPUT_COUNT = 1024;
+    
+    @Param({"1", "2", "3", "4"})
+    public int position;
+    
+    private SheetGeometry mGeometry;
+    
+    private int mPeekSize;
+    
+    private final int[] mOffsets = new int[INPUT_COUNT];
+    
+    private final int[] mDeltas = new int[INPUT_COUNT];
+    
+    private final float[] mVelocities = new float[INPUT_COUNT];
+    
+    private int mIndex;
+    
+    @Setup
+    public void setUp()
+    {
+        mGeometry = new SheetGeometry();
+        mGeometry.setPosition(position);
+        mGeometry.setHideable(true);
+        mGeometry.setPeekSize(PEEK_SIZE);
+        mPeekSize = mGeometry.computePeekSize(PARENT_WIDTH, PARENT_HEIGHT);
+        mGeometry.computeOffsets(0, 0, PARENT_WIDTH, PARENT_HEIGHT, mPeekSize);
+        
+        // offsets spread over the whole drag range, a bit beyond both ends
+        int from = Math.min(mGeometry.getOffsetHidden(), mGeometry.getOffsetExpanded());
+        int range = Math.abs(mGeometry.getOffsetHidden() - mGeometry.getOffsetExpanded());
+        Random random = new Random(42);
+        for (int i = 0; i < INPUT_COUNT; i++)
+        {
+            mOffsets[i] = from - 50 + random.nextInt(range + 100);
+            mDeltas[i] = random.nextInt(81) - 40;
+            mVelocities[i] = random.nextInt(3) == 0 ? 0f : (random.nextFloat() - 0.5f) * 16000f;
+        }
+    }
+    
+    private int next()
+    {
+        mIndex = (mIndex + 1) & (INPUT_COUNT - 1);
+        return mIndex;
+    }
+    
+    @Benchmark
+    public int computeOffsets()
+    {
+        mGeometry.computeOffsets(0, 0, PARENT_WIDTH, PARENT_HEIGHT, mPeekSize);
+        return mGeometry.getOffsetCollapsed();
+    }
+    
+    @Benchmark
+    public int clampOffset()
+    {
+        return mGeometry.clampOffset(mOffsets[next()]);
+    }
+    
+    @Benchmark
+    public int releaseState()
+    {
+        int i = next();
+        return mGeometry.getReleaseState(mOffsets[i], mVelocities[i]);
+    }
+    
+    @Benchmark
+    public int nestedScrollStopState()
+    {
+        int i = next();
+        return mGeometry.getNestedScrollStopState(mOffsets[i], mDeltas[i], mVelocities[i]);
+    }
+}
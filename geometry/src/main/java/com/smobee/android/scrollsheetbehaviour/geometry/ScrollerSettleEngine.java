@@ -0,0 +1,146 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * The settle of ViewDragHelper (support library 27) along a single axis: the duration of its
+ * {@code computeSettleDuration()} and the quintic interpolator of its OverScroller. The release velocity only
+ * shortens the duration, the motion always starts with the curve of the interpolator.
+ * <p>
+ * Used where the ViewDragHelper can not move the sheet itself, so that the sheet settles the same way.
+ */
+public final class ScrollerSettleEngine implements SettleEngine
+{
+    private static final int BASE_SETTLE_DURATION = 256;
+    
+    private static final int MAX_SETTLE_DURATION = 600;
+    
+    private int mParentWidth;
+    
+    private int mMotionRange;
+    
+    private final float mMinVelocity;
+    
+    private final float mMaxVelocity;
+    
+    private int mStart;
+    
+    private int mDelta;
+    
+    private int mDurationMillis;
+    
+    private int mOffset;
+    
+    private float mVelocity;
+    
+    /**
+     * @param minVelocity The velocity under which a release is ignored, in pixels per second.
+     * @param maxVelocity The largest velocity of a release, in pixels per second.
+     */
+    public ScrollerSettleEngine(float minVelocity, float maxVelocity)
+    {
+        mMinVelocity = minVelocity;
+        mMaxVelocity = maxVelocity;
+    }
+    
+    /**
+     * Sets the sizes the duration of the next settles depends on.
+     *
+     * @param parentWidth The width of the parent of the sheet, used for both axes as by ViewDragHelper.
+     * @param motionRange The drag range of the sheet along its axis.
+     */
+    public void setRange(int parentWidth, int motionRange)
+    {
+        mParentWidth = parentWidth;
+        mMotionRange = motionRange;
+    }
+    
+    @Override
+    public void start(int offset, int target, float velocity)
+    {
+        mStart = offset;
+        mDelta = target - offset;
+        mOffset = offset;
+        mDurationMillis = computeAxisDuration(mDelta, clampMag(velocity, mMinVelocity, mMaxVelocity));
+    }
+    
+    @Override
+    public boolean computeOffset(long elapsedNanos)
+    {
+        float elapsedMillis = elapsedNanos / 1e6f;
+        if (elapsedMillis >= mDurationMillis)
+        {
+            mOffset = mStart + mDelta;
+            mVelocity = 0f;
+            return false;
+        }
+        float t = elapsedMillis / mDurationMillis - 1f;
+        int offset = mStart + Math.round((t * t * t * t * t + 1f) * mDelta);
+        mVelocity = 5f * t * t * t * t * mDelta * 1000f / mDurationMillis;
+        mOffset = offset;
+        return true;
+    }
+    
+    @Override
+    public int getOffset()
+    {
+        return mOffset;
+    }
+    
+    @Override
+    public float getVelocity()
+    {
+        return mVelocity;
+    }
+    
+    /**
+     * @return The duration of the settle started last, in milliseconds.
+     */
+    public int getDurationMillis()
+    {
+        return mDurationMillis;
+    }
+    
+    private int computeAxisDuration(int delta, float velocity)
+    {
+        if (delta == 0)
+        {
+            return 0;
+        }
+        // ViewDragHelper uses the width of its parent for both axes
+        int halfWidth = mParentWidth / 2;
+        float distanceRatio = Math.min(1f, (float) Math.abs(delta) / mParentWidth);
+        float distance = halfWidth + halfWidth * distanceInfluenceForSnapDuration(distanceRatio);
+        int duration;
+        velocity = Math.abs(velocity);
+        if (velocity > 0)
+        {
+            duration = 4 * Math.round(1000 * Math.abs(distance / velocity));
+        }
+        else
+        {
+            float range = (float) Math.abs(delta) / mMotionRange;
+            duration = (int) ((range + 1) * BASE_SETTLE_DURATION);
+        }
+        return Math.min(duration, MAX_SETTLE_DURATION);
+    }
+    
+    private static float distanceInfluenceForSnapDuration(float f)
+    {
+        f -= 0.5f;
+        f *= 0.3f * Math.PI / 2.0f;
+        return (float) Math.sin(f);
+    }
+    
+    private static float clampMag(float value, float absMin, float absMax)
+    {
+        float absValue = Math.abs(value);
+        if (absValue < absMin)
+        {
+            return 0;
+        }
+        if (absValue > absMax)
+        {
+            return value > 0 ? absMax : -absMax;
+        }
+        return value;
+    }
+}
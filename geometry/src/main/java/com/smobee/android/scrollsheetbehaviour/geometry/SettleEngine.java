@@ -0,0 +1,37 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * Computes the offsets of a sheet settling to the offset of its target state, one frame at a time.
+ * <p>
+ * An engine holds the state of a single settle: an instance must not be shared between sheets.
+ */
+public interface SettleEngine
+{
+    /**
+     * Starts a settle, replacing the current one if any.
+     *
+     * @param offset   The current offset of the sheet along its axis, in pixels.
+     * @param target   The offset of the target state of the sheet, in pixels.
+     * @param velocity The velocity of the sheet along its axis, in pixels per second.
+     */
+    void start(int offset, int target, float velocity);
+    
+    /**
+     * Computes the offset of the sheet at a time of the settle.
+     *
+     * @param elapsedNanos The time elapsed since the start of the settle.
+     * @return {@code true} while the settle is not over, {@code false} once the sheet rests at its target.
+     */
+    boolean computeOffset(long elapsedNanos);
+    
+    /**
+     * @return The offset computed by the last call to {@link #computeOffset(long)}.
+     */
+    int getOffset();
+    
+    /**
+     * @return The velocity computed by the last call to {@link #computeOffset(long)}, in pixels per second,
+     *         used to retarget a settle without breaking the motion of the sheet.
+     */
+    float getVelocity();
+}
@@ -0,0 +1,97 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * The axis and the sign of the moves of a sheet, one immutable instance per position.
+ * <p>
+ * The position specific rules are expressed as constants of the direction instead of branches on the
+ * position, so that {@link SheetGeometry} evaluates the same code for the four sheets.
+ */
+public final class SheetDirection
+{
+    /**
+     * Vertical sheet hidden above its parent.
+     */
+    public static final SheetDirection NORTH = new SheetDirection(SheetGeometry.POSITION_NORTH, false, -1, SheetGeometry.STATE_COLLAPSED, SheetGeometry.STATE_EXPANDED);
+    
+    /**
+     * Vertical sheet hidden below its parent.
+     */
+    public static final SheetDirection SOUTH = new SheetDirection(SheetGeometry.POSITION_SOUTH, false, 1, SheetGeometry.STATE_EXPANDED, SheetGeometry.STATE_COLLAPSED);
+    
+    /**
+     * Horizontal sheet hidden on the right of its parent.
+     */
+    public static final SheetDirection EAST = new SheetDirection(SheetGeometry.POSITION_EAST, true, 1, SheetGeometry.STATE_COLLAPSED, SheetGeometry.STATE_EXPANDED);
+    
+    /**
+     * Horizontal sheet hidden on the left of its parent.
+     */
+    public static final SheetDirection WEST = new SheetDirection(SheetGeometry.POSITION_WEST, true, -1, SheetGeometry.STATE_EXPANDED, SheetGeometry.STATE_COLLAPSED);
+    
+    final int position;
+    
+    final boolean horizontal;
+    
+    // +1 when the sheet hides towards the increasing offsets (SOUTH, EAST), -1 otherwise (NORTH, WEST)
+    final int hideSign;
+    
+    // state chosen by a release with a positive, respectively negative, velocity
+    final int positiveReleaseState;
+    
+    final int negativeReleaseState;
+    
+    private SheetDirection(int position, boolean horizontal, int hideSign, int positiveReleaseState, int negativeReleaseState)
+    {
+        this.position = position;
+        this.horizontal = horizontal;
+        this.hideSign = hideSign;
+        this.positiveReleaseState = positiveReleaseState;
+        this.negativeReleaseState = negativeReleaseState;
+    }
+    
+    /**
+     * Gets the direction of a position.
+     *
+     * @param position One of {@link SheetGeometry#POSITION_NORTH}, {@link SheetGeometry#POSITION_SOUTH},
+     *                 {@link SheetGeometry#POSITION_EAST} or {@link SheetGeometry#POSITION_WEST}.
+     * @return The direction of the sheets at this position.
+     */
+    public static SheetDirection of(int position)
+    {
+        switch (position)
+        {
+            case SheetGeometry.POSITION_NORTH:
+                return NORTH;
+            case SheetGeometry.POSITION_SOUTH:
+                return SOUTH;
+            case SheetGeometry.POSITION_EAST:
+                return EAST;
+            case SheetGeometry.POSITION_WEST:
+                return WEST;
+            default:
+                throw new IllegalArgumentException("Illegal position argument: " + position);
+        }
+    }
+    
+    public int getPosition()
+    {
+        return position;
+    }
+    
+    /**
+     * @return {@code true} for the EAST and WEST sheets, which move along the horizontal axis.
+     */
+    public boolean isHorizontal()
+    {
+        return horizontal;
+    }
+    
+    /**
+     * @return {@code 1} when the sheet hides towards the increasing offsets (SOUTH, EAST), {@code -1} when
+     *         it hides before the origin of its parent (NORTH, WEST).
+     */
+    public int getHideSign()
+    {
+        return hideSign;
+    }
+}
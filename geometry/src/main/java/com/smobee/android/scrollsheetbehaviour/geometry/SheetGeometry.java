@@ -0,0 +1,585 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * Offsets and target state decisions of a sheet, without any dependency on the Android framework.
+ * <p>
+ * A {@code SheetGeometry} holds the configuration of a sheet (position, hideable, skip collapsed, peek size),
+ * the size of its parent and the three remarquable offsets computed from them. Every decision taken while the
+ * sheet is dragged, released or nested scrolled only reads those fields: the methods never allocate and can be
+ * measured and tested on the JVM.
+ * <p>
+ * All the offsets are expressed in parent coordinates, along the axis the sheet moves on: {@code left} for
+ * the {@link #POSITION_EAST} and {@link #POSITION_WEST} sheets, {@code top} for the {@link #POSITION_NORTH}
+ * and {@link #POSITION_SOUTH} sheets. The position is bound once to a {@link SheetDirection}: the decisions
+ * are written against its axis and sign and never branch on the position.
+ * <p>
+ * The offsets only depend on the parent bounds, the peek configuration, the hideable flag and the position:
+ * {@link #hasOffsetsFor(int, int, int, int)} tells when the offsets of the last
+ * {@link #computeOffsets(int, int, int, int, int)} still apply, so that a layout pass can skip their computation.
+ */
+public final class SheetGeometry
+{
+    /**
+     * The sheet is dragging.
+     */
+    public static final int STATE_DRAGGING = 1;
+    
+    /**
+     * The sheet is settling.
+     */
+    public static final int STATE_SETTLING = 2;
+    
+    /**
+     * The sheet is expanded.
+     */
+    public static final int STATE_EXPANDED = 3;
+    
+    /**
+     * The sheet is collapsed.
+     */
+    public static final int STATE_COLLAPSED = 4;
+    
+    /**
+     * The sheet is hidden.
+     */
+    public static final int STATE_HIDDEN = 5;
+    
+    /**
+     * The sheet is hidden above its parent.
+     */
+    public static final int POSITION_NORTH = 1;
+    
+    /**
+     * The sheet is hidden below its parent.
+     */
+    public static final int POSITION_SOUTH = 2;
+    
+    /**
+     * The sheet is hidden on the right of its parent.
+     */
+    public static final int POSITION_EAST = 3;
+    
+    /**
+     * The sheet is hidden on the left of its parent.
+     */
+    public static final int POSITION_WEST = 4;
+    
+    /**
+     * Peek at a quarter of the parent size, but never below the minimum peek size.
+     */
+    public static final int PEEK_SIZE_AUTO = -1;
+    
+    private static final float HIDE_THRESHOLD = 0.5f;
+    
+    private static final float HIDE_FRICTION = 0.1f;
+    
+    private SheetDirection mDirection = SheetDirection.SOUTH;
+    
+    private boolean mHideable = false;
+    
+    private boolean mSkipCollapsed = false;
+    
+    private int mPeekSize;
+    
+    private boolean mPeekSizeAuto = false;
+    
+    private int mPeekSizeMin;
+    
+    private int mParentWidth;
+    
+    private int mParentHeight;
+    
+    private int mOffsetHidden;
+    
+    private int mOffsetCollapsed;
+    
+    private int mOffsetExpanded;
+    
+    // bounds of the drag, the expanded offset and the collapsed or hidden one, in increasing order
+    private int mClampMin;
+    
+    private int mClampMax;
+    
+    // inverses of the ranges of the slide offset, from collapsed to expanded and from collapsed to hidden
+    private float mExpandRangeInverse;
+    
+    private float mHideRangeInverse;
+    
+    // parent bounds of the last computeOffsets, reset by every change of the other inputs
+    private boolean mOffsetsValid;
+    
+    private int mOffsetsParentLeft;
+    
+    private int mOffsetsParentTop;
+    
+    private int mOffsetsParentWidth;
+    
+    private int mOffsetsParentHeight;
+    
+    /**
+     * Sets the side where the sheet is hidden or collapsed.
+     *
+     * @param position One of {@link #POSITION_NORTH}, {@link #POSITION_SOUTH}, {@link #POSITION_EAST} or
+     *                 {@link #POSITION_WEST}.
+     */
+    public void setPosition(int position)
+    {
+        SheetDirection direction = SheetDirection.of(position);
+        if (direction != mDirection)
+        {
+            mDirection = direction;
+            mOffsetsValid = false;
+        }
+        updateClampBounds();
+    }
+    
+    public int getPosition()
+    {
+        return mDirection.position;
+    }
+    
+    /**
+     * @return The direction bound to the position of the sheet.
+     */
+    public SheetDirection getDirection()
+    {
+        return mDirection;
+    }
+    
+    /**
+     * @return {@code true} for the {@link #POSITION_EAST} and {@link #POSITION_WEST} sheets.
+     */
+    public boolean isMovingHorizontally()
+    {
+        return mDirection.horizontal;
+    }
+    
+    /**
+     * @return {@code true} when the hidden sheet lies before the origin of its parent: the
+     *         {@link #POSITION_NORTH} and {@link #POSITION_WEST} sheets.
+     */
+    public boolean isHiddenBeforeOrigin()
+    {
+        return mDirection.hideSign < 0;
+    }
+    
+    public void setHideable(boolean hideable)
+    {
+        if (hideable != mHideable)
+        {
+            mHideable = hideable;
+            mOffsetsValid = false;
+        }
+        updateClampBounds();
+    }
+    
+    public boolean isHideable()
+    {
+        return mHideable;
+    }
+    
+    public void setSkipCollapsed(boolean skipCollapsed)
+    {
+        mSkipCollapsed = skipCollapsed;
+    }
+    
+    public boolean isSkipCollapsed()
+    {
+        return mSkipCollapsed;
+    }
+    
+    /**
+     * Sets the size of the sheet when it is collapsed.
+     *
+     * @param peekSize The size of the collapsed sheet in pixels, or {@link #PEEK_SIZE_AUTO}.
+     * @return {@code true} if the configuration changed and the sheet must be laid out again.
+     */
+    public boolean setPeekSize(int peekSize)
+    {
+        boolean layout = false;
+        if (peekSize == PEEK_SIZE_AUTO)
+        {
+            if (!mPeekSizeAuto)
+            {
+                mPeekSizeAuto = true;
+                layout = true;
+            }
+        }
+        else if (mPeekSizeAuto || mPeekSize != peekSize)
+        {
+            mPeekSizeAuto = false;
+            mPeekSize = Math.max(0, peekSize);
+            // same as computeOffsets, from the hidden offset of the last layout
+            mOffsetCollapsed = mOffsetHidden - mDirection.hideSign * mPeekSize;
+            updateClampBounds();
+            updateSlideRanges();
+            layout = true;
+        }
+        if (layout)
+        {
+            mOffsetsValid = false;
+        }
+        return layout;
+    }
+    
+    /**
+     * @return The configured peek size in pixels, or {@link #PEEK_SIZE_AUTO}.
+     */
+    public int getPeekSize()
+    {
+        return mPeekSizeAuto ? PEEK_SIZE_AUTO : mPeekSize;
+    }
+    
+    public boolean isPeekSizeAuto()
+    {
+        return mPeekSizeAuto;
+    }
+    
+    /**
+     * Sets the lower bound of the automatic peek size.
+     *
+     * @param peekSizeMin The minimum peek size in pixels.
+     */
+    public void setPeekSizeMin(int peekSizeMin)
+    {
+        if (peekSizeMin != mPeekSizeMin)
+        {
+            mPeekSizeMin = peekSizeMin;
+            mOffsetsValid = false;
+        }
+    }
+    
+    public int getPeekSizeMin()
+    {
+        return mPeekSizeMin;
+    }
+    
+    public int getParentWidth()
+    {
+        return mParentWidth;
+    }
+    
+    public int getParentHeight()
+    {
+        return mParentHeight;
+    }
+    
+    public int getOffsetHidden()
+    {
+        return mOffsetHidden;
+    }
+    
+    public int getOffsetCollapsed()
+    {
+        return mOffsetCollapsed;
+    }
+    
+    public int getOffsetExpanded()
+    {
+        return mOffsetExpanded;
+    }
+    
+    /**
+     * Records the size of the parent and resolves the peek size of the sheet for it.
+     *
+     * @param parentWidth  The width of the parent in pixels.
+     * @param parentHeight The height of the parent in pixels.
+     * @return The configured peek size, or a quarter of the parent size along the moving axis in
+     *         {@link #PEEK_SIZE_AUTO} mode, but at least {@link #getPeekSizeMin()}.
+     */
+    public int computePeekSize(int parentWidth, int parentHeight)
+    {
+        mParentWidth = parentWidth;
+        mParentHeight = parentHeight;
+        
+        if (!mPeekSizeAuto)
+        {
+            return mPeekSize;
+        }
+        return Math.max(mPeekSizeMin, Math.abs(getParentSize() * 1 / 4));
+    }
+    
+    /**
+     * Computes the hidden, collapsed and expanded offsets of the sheet.
+     * <p>
+     * For a WEST or NORTH sheet: {@code hidden < collapsed < expanded}, for an EAST or SOUTH sheet:
+     * {@code expanded < collapsed < hidden}. The expanded sheet always lies on the origin of its parent.
+     *
+     * @param parentLeft   The left of the parent.
+     * @param parentTop    The top of the parent.
+     * @param parentWidth  The width of the parent.
+     * @param parentHeight The height of the parent.
+     * @param peekSize     The peek size returned by {@link #computePeekSize(int, int)}.
+     */
+    public void computeOffsets(int parentLeft, int parentTop, int parentWidth, int parentHeight, int peekSize)
+    {
+        final SheetDirection direction = mDirection;
+        final int origin = direction.horizontal ? parentLeft : parentTop;
+        final int size = direction.horizontal ? parentWidth : parentHeight;
+        mOffsetHidden = origin + direction.hideSign * size;
+        mOffsetCollapsed = mOffsetHidden - direction.hideSign * Math.abs(peekSize);
+        mOffsetExpanded = origin;
+        updateClampBounds();
+        updateSlideRanges();
+        
+        mOffsetsValid = true;
+        mOffsetsParentLeft = parentLeft;
+        mOffsetsParentTop = parentTop;
+        mOffsetsParentWidth = parentWidth;
+        mOffsetsParentHeight = parentHeight;
+    }
+    
+    /**
+     * Tells whether the offsets computed by the last {@link #computeOffsets(int, int, int, int, int)} apply to a
+     * parent with the given bounds: none of the position, the hideable flag, the peek configuration and the
+     * parent bounds changed since.
+     *
+     * @param parentLeft   The left of the parent.
+     * @param parentTop    The top of the parent.
+     * @param parentWidth  The width of the parent.
+     * @param parentHeight The height of the parent.
+     * @return {@code true} if the offsets do not need to be computed again.
+     */
+    public boolean hasOffsetsFor(int parentLeft, int parentTop, int parentWidth, int parentHeight)
+    {
+        return mOffsetsValid
+                && parentLeft == mOffsetsParentLeft
+                && parentTop == mOffsetsParentTop
+                && parentWidth == mOffsetsParentWidth
+                && parentHeight == mOffsetsParentHeight;
+    }
+    
+    /**
+     * Gets the offset where a sheet in the given state rests.
+     *
+     * @param state One of {@link #STATE_COLLAPSED}, {@link #STATE_EXPANDED} or, for a hideable sheet,
+     *              {@link #STATE_HIDDEN}.
+     * @return The offset of the state.
+     */
+    public int getOffsetForState(int state)
+    {
+        if (state == STATE_COLLAPSED)
+        {
+            return mOffsetCollapsed;
+        }
+        else if (state == STATE_EXPANDED)
+        {
+            return mOffsetExpanded;
+        }
+        else if (mHideable && state == STATE_HIDDEN)
+        {
+            return mOffsetHidden;
+        }
+        throw new IllegalArgumentException("Illegal state argument: " + state);
+    }
+    
+    /**
+     * Clamps an offset of the dragged sheet between its expanded offset and its collapsed, or hidden when the
+     * sheet is hideable, offset, whichever side of the expanded offset the sheet hides on.
+     *
+     * @param offset The offset proposed for the sheet.
+     * @return The clamped offset.
+     */
+    public int clampOffset(int offset)
+    {
+        return clamp(offset, mClampMin, mClampMax);
+    }
+    
+    /**
+     * Computes the slide offset of the sheet at an offset: from 0 at the collapsed offset to 1 at the expanded
+     * offset, and from 0 to -1 at the hidden offset, whatever the position of the sheet. Costs a multiply: the
+     * ranges are inverted once, when the offsets change.
+     *
+     * @param offset The offset of the sheet along its moving axis.
+     * @return The slide offset, within [-1,1] for an offset between the hidden and the expanded offsets.
+     */
+    public float computeSlideOffset(int offset)
+    {
+        int delta = offset - mOffsetCollapsed;
+        // the expanded offset lies on the opposite side of the hidden offset
+        if (mDirection.hideSign * delta <= 0)
+        {
+            return delta * mExpandRangeInverse;
+        }
+        return delta * mHideRangeInverse;
+    }
+    
+    /**
+     * @return The range the sheet can be dragged on along its moving axis, in pixels.
+     */
+    public int getDragRange()
+    {
+        int limit = mHideable ? mOffsetHidden : mOffsetCollapsed;
+        return Math.abs(limit - mOffsetExpanded);
+    }
+    
+    /**
+     * Tells whether a sheet released at the given offset with the given velocity should hide.
+     *
+     * @param offset   The current offset of the sheet.
+     * @param velocity The velocity along the moving axis, in pixels per second.
+     * @return {@code true} if the sheet should hide rather than collapse.
+     */
+    public boolean shouldHide(int offset, float velocity)
+    {
+        if (mSkipCollapsed)
+        {
+            return true;
+        }
+        
+        // si le sheet n'a pas encore dépassé mOffsetCollapsed en direction de mOffsetHidden,
+        // il doit passer par l'état collapsed : on ne le cache pas.
+        if (mDirection.hideSign * (offset - mOffsetCollapsed) > 0)
+        {
+            // It should not hide, but collapse.
+            return false;
+        }
+        
+        final float newOffset = offset + velocity * HIDE_FRICTION;
+        
+        float threshold = Math.abs(newOffset - mOffsetCollapsed) / (float) mPeekSize;
+        return threshold > HIDE_THRESHOLD;
+    }
+    
+    /**
+     * Chooses the state a sheet released by a drag settles to.
+     *
+     * @param offset   The offset of the sheet when it is released.
+     * @param velocity The release velocity along the moving axis, in pixels per second.
+     * @return One of {@link #STATE_EXPANDED}, {@link #STATE_COLLAPSED} or {@link #STATE_HIDDEN}.
+     */
+    public int getReleaseState(int offset, float velocity)
+    {
+        if (velocity > 0)
+        {
+            return mDirection.positiveReleaseState;
+        }
+        else if (mHideable && shouldHide(offset, velocity))
+        {
+            return STATE_HIDDEN;
+        }
+        else if (velocity == 0.f)
+        {
+            // l'utilisateur a arrêté son geste : on rejoint l'état le plus proche
+            return getNearestState(offset);
+        }
+        return mDirection.negativeReleaseState;
+    }
+    
+    /**
+     * Chooses the state a sheet settles to once the nested scroll that moved it stops.
+     *
+     * @param offset    The offset of the sheet when the nested scroll stops.
+     * @param lastDelta The last {@code dx} or {@code dy} pre-scrolled along the moving axis.
+     * @param velocity  The velocity along the moving axis, in pixels per second. Only read when the sheet is
+     *                  hideable.
+     * @return One of {@link #STATE_EXPANDED}, {@link #STATE_COLLAPSED} or {@link #STATE_HIDDEN}.
+     */
+    public int getNestedScrollStopState(int offset, int lastDelta, float velocity)
+    {
+        if (isTowardsExpanded(lastDelta))
+        {
+            return STATE_EXPANDED;
+        }
+        else if (mHideable && shouldHide(offset, velocity))
+        {
+            return STATE_HIDDEN;
+        }
+        else if (lastDelta == 0)
+        {
+            return getNearestState(offset);
+        }
+        return STATE_COLLAPSED;
+    }
+    
+    /**
+     * Tells whether a nested pre-scroll delta moves the sheet towards its expanded offset.
+     *
+     * @param delta The {@code dx} or {@code dy} pre-scrolled along the moving axis.
+     * @return {@code true} if the delta opens the sheet.
+     */
+    public boolean isTowardsExpanded(int delta)
+    {
+        return mDirection.hideSign * delta > 0;
+    }
+    
+    /**
+     * Chooses how a nested pre-scroll moves the sheet. A delta moving the sheet away from its expanded offset
+     * must only be submitted once the scrolling content cannot scroll further in the direction
+     * {@code -getDirection().getHideSign()}.
+     *
+     * @param offset The current offset of the sheet.
+     * @param delta  The {@code dx} or {@code dy} pre-scrolled along the moving axis.
+     * @return {@link #STATE_DRAGGING} if the sheet consumes the whole delta, {@link #STATE_EXPANDED} or
+     *         {@link #STATE_COLLAPSED} if it stops at the offset of that state, {@code 0} if the delta is null.
+     */
+    public int getNestedPreScrollState(int offset, int delta)
+    {
+        if (delta == 0)
+        {
+            return 0;
+        }
+        int newOffset = offset - delta;
+        if (isTowardsExpanded(delta))
+        {
+            // Si on tente de dépasser mOffsetExpanded, on clamp le sheet à cette valeur.
+            return mDirection.hideSign * (newOffset - mOffsetExpanded) < 0 ? STATE_EXPANDED : STATE_DRAGGING;
+        }
+        return newOffset <= mOffsetCollapsed || mHideable ? STATE_DRAGGING : STATE_COLLAPSED;
+    }
+    
+    /**
+     * Computes where the sheet moved by a drag or a settle must go when its parent is laid out again.
+     *
+     * @param savedOffset   The offset of the sheet before the layout of its parent.
+     * @param currentOffset The offset given to the sheet by the layout of its parent.
+     * @return The offset to add to the sheet.
+     */
+    public int getLayoutMoveOffset(int savedOffset, int currentOffset)
+    {
+        return savedOffset - mDirection.hideSign * currentOffset;
+    }
+    
+    private int getParentSize()
+    {
+        return mDirection.horizontal ? mParentWidth : mParentHeight;
+    }
+    
+    private void updateClampBounds()
+    {
+        int limit = mHideable ? mOffsetHidden : mOffsetCollapsed;
+        mClampMin = Math.min(mOffsetExpanded, limit);
+        mClampMax = Math.max(mOffsetExpanded, limit);
+    }
+    
+    private void updateSlideRanges()
+    {
+        int expandRange = mOffsetExpanded - mOffsetCollapsed;
+        int hideRange = mOffsetCollapsed - mOffsetHidden;
+        mExpandRangeInverse = expandRange != 0 ? 1f / expandRange : 0f;
+        mHideRangeInverse = hideRange != 0 ? 1f / hideRange : 0f;
+    }
+    
+    private int getNearestState(int offset)
+    {
+        if (Math.abs(offset - mOffsetExpanded) < Math.abs(offset - mOffsetCollapsed))
+        {
+            return STATE_EXPANDED;
+        }
+        return STATE_COLLAPSED;
+    }
+    
+    // same contract as android.support.v4.math.MathUtils#clamp(int, int, int)
+    private static int clamp(int value, int min, int max)
+    {
+        if (value < min)
+        {
+            return min;
+        }
+        else if (value > max)
+        {
+            return max;
+        }
+        return value;
+    }
+}
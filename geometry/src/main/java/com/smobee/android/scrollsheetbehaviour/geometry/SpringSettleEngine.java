@@ -0,0 +1,131 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * A critically damped spring: the sheet leaves with its release velocity and reaches its target as fast as
+ * possible without oscillating.
+ * <p>
+ * The position is evaluated in closed form from the time elapsed since the start, so that a dropped frame
+ * does not change the trajectory. The settle is over once the sheet is within the rest displacement of its
+ * target, or when it crosses the target with the overshoot clamping enabled.
+ */
+public final class SpringSettleEngine implements SettleEngine
+{
+    /**
+     * Default stiffness, same as the medium stiffness of the support library springs.
+     */
+    public static final float STIFFNESS_DEFAULT = 1500f;
+    
+    /**
+     * Default distance, in pixels, under which the sheet is at rest.
+     */
+    public static final float REST_DISPLACEMENT_DEFAULT = 0.5f;
+    
+    // a rest displacement per frame, at 60 frames per second
+    private static final float REST_FRAMES_PER_SECOND = 60f;
+    
+    // natural frequency of the spring, for a unit mass
+    private final float mOmega;
+    
+    private final float mRestDisplacement;
+    
+    private final float mRestVelocity;
+    
+    private boolean mOvershootClamping = true;
+    
+    private int mTarget;
+    
+    // displacement from the target: (mInitialDisplacement + mSlope * t) * exp(-mOmega * t)
+    private float mInitialDisplacement;
+    
+    private float mSlope;
+    
+    // sign of the side the sheet reaches the target from
+    private float mApproachSign;
+    
+    private int mOffset;
+    
+    private float mVelocity;
+    
+    public SpringSettleEngine()
+    {
+        this(STIFFNESS_DEFAULT, REST_DISPLACEMENT_DEFAULT);
+    }
+    
+    /**
+     * @param stiffness        The stiffness of the spring, for a unit mass.
+     * @param restDisplacement The distance to the target, in pixels, under which the sheet is at rest.
+     */
+    public SpringSettleEngine(float stiffness, float restDisplacement)
+    {
+        if (stiffness <= 0f)
+        {
+            throw new IllegalArgumentException("Illegal stiffness argument: " + stiffness);
+        }
+        if (restDisplacement <= 0f)
+        {
+            throw new IllegalArgumentException("Illegal restDisplacement argument: " + restDisplacement);
+        }
+        mOmega = (float) Math.sqrt(stiffness);
+        mRestDisplacement = restDisplacement;
+        mRestVelocity = restDisplacement * REST_FRAMES_PER_SECOND;
+    }
+    
+    /**
+     * Enables or disables the end of the settle when the sheet crosses its target. Enabled by default, so
+     * that a sheet released towards its expanded offset never goes past it.
+     *
+     * @param overshootClamping {@code true} to end the settle at the target instead of overshooting it.
+     */
+    public void setOvershootClamping(boolean overshootClamping)
+    {
+        mOvershootClamping = overshootClamping;
+    }
+    
+    public boolean isOvershootClamping()
+    {
+        return mOvershootClamping;
+    }
+    
+    @Override
+    public void start(int offset, int target, float velocity)
+    {
+        mTarget = target;
+        mOffset = offset;
+        mVelocity = velocity;
+        mInitialDisplacement = offset - target;
+        mSlope = velocity + mOmega * mInitialDisplacement;
+        mApproachSign = Math.signum(mInitialDisplacement != 0f ? mInitialDisplacement : -velocity);
+    }
+    
+    @Override
+    public boolean computeOffset(long elapsedNanos)
+    {
+        float t = elapsedNanos / 1e9f;
+        float decay = (float) Math.exp(-mOmega * t);
+        float displacement = (mInitialDisplacement + mSlope * t) * decay;
+        float velocity = (mSlope - mOmega * (mInitialDisplacement + mSlope * t)) * decay;
+        
+        boolean crossed = mOvershootClamping && displacement * mApproachSign < 0f;
+        if (crossed || (Math.abs(displacement) < mRestDisplacement && Math.abs(velocity) < mRestVelocity))
+        {
+            mOffset = mTarget;
+            mVelocity = 0f;
+            return false;
+        }
+        mOffset = mTarget + Math.round(displacement);
+        mVelocity = velocity;
+        return true;
+    }
+    
+    @Override
+    public int getOffset()
+    {
+        return mOffset;
+    }
+    
+    @Override
+    public float getVelocity()
+    {
+        return mVelocity;
+    }
+}
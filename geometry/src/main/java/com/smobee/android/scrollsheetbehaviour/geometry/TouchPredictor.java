@@ -0,0 +1,144 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+/**
+ * Extrapolates the position of a finger along one axis, from its last samples, to a time slightly ahead.
+ * <p>
+ * The samples, historical ones included, are kept in a ring buffer of fixed capacity. The prediction is the
+ * least squares line through the samples of the last window, evaluated at the requested time: a single batched
+ * event of a high rate panel holds enough samples for a slope. Nothing is allocated once the predictor is
+ * created.
+ */
+public final class TouchPredictor
+{
+    /**
+     * Default duration, in milliseconds, of the samples the prediction is fitted on: shorter than a frame, so
+     * that the slope follows the acceleration of the finger, which the samples of the last batched event only
+     * can give.
+     */
+    public static final long WINDOW_DEFAULT = 12L;
+    
+    private static final int CAPACITY = 32;
+    
+    private final long[] mTimes = new long[CAPACITY];
+    
+    private final float[] mPositions = new float[CAPACITY];
+    
+    private final long mWindow;
+    
+    // index of the last sample in the ring buffer
+    private int mLast = -1;
+    
+    private int mCount;
+    
+    public TouchPredictor()
+    {
+        this(WINDOW_DEFAULT);
+    }
+    
+    /**
+     * @param window The duration, in milliseconds, of the samples the prediction is fitted on.
+     */
+    public TouchPredictor(long window)
+    {
+        if (window <= 0L)
+        {
+            throw new IllegalArgumentException("Illegal window: " + window);
+        }
+        mWindow = window;
+    }
+    
+    public void reset()
+    {
+        mLast = -1;
+        mCount = 0;
+    }
+    
+    /**
+     * Adds a sample. A sample not younger than the last one is ignored, so that an event seen twice, by the
+     * interception and then by the touch handling, is counted once.
+     *
+     * @param time     The time of the sample, in milliseconds.
+     * @param position The position of the finger along the axis.
+     */
+    public void addSample(long time, float position)
+    {
+        if (mCount > 0 && time <= mTimes[mLast])
+        {
+            return;
+        }
+        mLast = (mLast + 1) % CAPACITY;
+        mTimes[mLast] = time;
+        mPositions[mLast] = position;
+        if (mCount < CAPACITY)
+        {
+            mCount++;
+        }
+    }
+    
+    public int getSampleCount()
+    {
+        return mCount;
+    }
+    
+    /**
+     * @return The time of the last sample, in milliseconds, or {@code 0} if there is none.
+     */
+    public long getLastTime()
+    {
+        return mCount > 0 ? mTimes[mLast] : 0L;
+    }
+    
+    /**
+     * @return The position of the last sample, or {@code 0} if there is none.
+     */
+    public float getLastPosition()
+    {
+        return mCount > 0 ? mPositions[mLast] : 0f;
+    }
+    
+    /**
+     * Predicts the position of the finger.
+     *
+     * @param time The time of the prediction, in milliseconds, usually the presentation time of the frame.
+     * @return The predicted position, or the last one while less than two samples fall in the window.
+     */
+    public float predict(long time)
+    {
+        if (mCount == 0)
+        {
+            return 0f;
+        }
+        long lastTime = mTimes[mLast];
+        // means, then least squares, on times relative to the last sample to stay precise in float
+        int n = 0;
+        float sumT = 0f;
+        float sumX = 0f;
+        for (int i = 0, index = mLast; i < mCount; i++, index = (index + CAPACITY - 1) % CAPACITY)
+        {
+            long age = lastTime - mTimes[index];
+            if (age > mWindow)
+            {
+                break;
+            }
+            sumT -= age;
+            sumX += mPositions[index];
+            n++;
+        }
+        if (n < 2)
+        {
+            return mPositions[mLast];
+        }
+        float meanT = sumT / n;
+        float meanX = sumX / n;
+        float covariance = 0f;
+        float variance = 0f;
+        for (int i = 0, index = mLast; i < n; i++, index = (index + CAPACITY - 1) % CAPACITY)
+        {
+            float t = (mTimes[index] - lastTime) - meanT;
+            covariance += t * (mPositions[index] - meanX);
+            variance += t * t;
+        }
+        float slope = covariance / variance;
+        return meanX + slope * ((time - lastTime) - meanT);
+    }
+}
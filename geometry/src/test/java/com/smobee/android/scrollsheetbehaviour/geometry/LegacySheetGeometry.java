@@ -0,0 +1,385 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import static com.smobee.android.scrollsheetbehaviour.geometry.SheetGeometry.STATE_COLLAPSED;
+import static com.smobee.android.scrollsheetbehaviour.geometry.SheetGeometry.STATE_DRAGGING;
+import static com.smobee.android.scrollsheetbehaviour.geometry.SheetGeometry.STATE_EXPANDED;
+import static com.smobee.android.scrollsheetbehaviour.geometry.SheetGeometry.STATE_HIDDEN;
+
+/**
+ * Reference copy of the branch ladders SheetBehavior used before the position was bound to a
+ * {@link SheetDirection}: one branch per {@code mSheetMoveHorizontaly} x {@code mSheetHiddenBeforeOrigin}
+ * combination. Only used to prove that {@link SheetGeometry} decides exactly the same way.
+ */
+final class LegacySheetGeometry
+{
+    private static final float HIDE_THRESHOLD = 0.5f;
+    
+    private static final float HIDE_FRICTION = 0.1f;
+    
+    boolean mSheetMoveHorizontaly;
+    
+    boolean mSheetHiddenBeforeOrigin;
+    
+    boolean mHideable;
+    
+    boolean mSkipCollapsed;
+    
+    int mPeekSize;
+    
+    boolean mPeekSizeAuto;
+    
+    int mPeekSizeMin;
+    
+    int mParentWidth;
+    
+    int mParentHeight;
+    
+    int mOffsetHidden;
+    
+    int mOffsetCollapsed;
+    
+    int mOffsetExpanded;
+    
+    LegacySheetGeometry(int position, boolean hideable, boolean skipCollapsed, int peekSize, int peekSizeMin)
+    {
+        switch (position)
+        {
+            case SheetGeometry.POSITION_EAST:
+                mSheetMoveHorizontaly = true;
+                mSheetHiddenBeforeOrigin = false;
+                break;
+            case SheetGeometry.POSITION_WEST:
+                mSheetMoveHorizontaly = true;
+                mSheetHiddenBeforeOrigin = true;
+                break;
+            case SheetGeometry.POSITION_NORTH:
+                mSheetMoveHorizontaly = false;
+                mSheetHiddenBeforeOrigin = true;
+                break;
+            case SheetGeometry.POSITION_SOUTH:
+                mSheetMoveHorizontaly = false;
+                mSheetHiddenBeforeOrigin = false;
+                break;
+        }
+        mHideable = hideable;
+        mSkipCollapsed = skipCollapsed;
+        mPeekSizeAuto = peekSize == SheetGeometry.PEEK_SIZE_AUTO;
+        mPeekSize = mPeekSizeAuto ? 0 : peekSize;
+        mPeekSizeMin = peekSizeMin;
+    }
+    
+    int getComputePeekSize(int parentWidth, int parentHeight)
+    {
+        mParentHeight = parentHeight;
+        mParentWidth = parentWidth;
+        int peekSize;
+        if (mPeekSizeAuto)
+        {
+            if (mSheetMoveHorizontaly)
+            {
+                peekSize = Math.max(mPeekSizeMin, Math.abs(mParentWidth * 1 / 4));
+            }
+            else
+            {
+                peekSize = Math.max(mPeekSizeMin, Math.abs(mParentHeight * 1 / 4));
+            }
+        }
+        else
+        {
+            peekSize = mPeekSize;
+        }
+        return peekSize;
+    }
+    
+    void computeRemarquableOffsets(int parentLeft, int parentTop, int parentWidth, int parentHeight, int peekSize)
+    {
+        if (mSheetMoveHorizontaly)
+        {
+            if (mSheetHiddenBeforeOrigin)
+            {
+                mOffsetHidden = parentLeft - parentWidth;
+                mOffsetCollapsed = mOffsetHidden + Math.abs(peekSize);
+                mOffsetExpanded = parentLeft;
+            }
+            else
+            {
+                mOffsetHidden = parentLeft + parentWidth;
+                mOffsetCollapsed = mOffsetHidden - Math.abs(peekSize);
+                mOffsetExpanded = parentLeft;
+            }
+        }
+        else
+        {
+            if (mSheetHiddenBeforeOrigin)
+            {
+                mOffsetHidden = parentTop - parentHeight;
+                mOffsetCollapsed = mOffsetHidden + Math.abs(peekSize);
+                mOffsetExpanded = parentTop;
+            }
+            else
+            {
+                mOffsetHidden = parentTop + parentHeight;
+                mOffsetCollapsed = mOffsetHidden - Math.abs(peekSize);
+                mOffsetExpanded = parentTop;
+            }
+        }
+    }
+    
+    // clampViewPositionVertical / clampViewPositionHorizontal, along the moving axis
+    int clamp(int offset)
+    {
+        if (!mSheetMoveHorizontaly)
+        {
+            if (!mSheetHiddenBeforeOrigin)
+            {
+                return mathUtilsClamp(offset, mHideable ? mOffsetHidden : mOffsetCollapsed, mOffsetExpanded);
+            }
+            return mathUtilsClamp(offset, mOffsetExpanded, mHideable ? mOffsetHidden : mOffsetCollapsed);
+        }
+        if (!mSheetHiddenBeforeOrigin)
+        {
+            return mathUtilsClamp(offset, mOffsetExpanded, mHideable ? mOffsetHidden : mOffsetCollapsed);
+        }
+        return mathUtilsClamp(offset, mHideable ? mOffsetHidden : mOffsetCollapsed, mOffsetExpanded);
+    }
+    
+    int getDragRange()
+    {
+        if (mSheetMoveHorizontaly)
+        {
+            return mHideable ? mParentWidth - mOffsetExpanded : mOffsetCollapsed - mOffsetExpanded;
+        }
+        return mHideable ? mParentHeight - mOffsetExpanded : mOffsetCollapsed - mOffsetExpanded;
+    }
+    
+    boolean shouldHide(int left, int top, float xvel, float yvel)
+    {
+        if (mSkipCollapsed)
+        {
+            return true;
+        }
+        if (!mSheetMoveHorizontaly)
+        {
+            if (!mSheetHiddenBeforeOrigin)
+            {
+                if (top > mOffsetCollapsed)
+                {
+                    return false;
+                }
+                final float newTop = top + yvel * HIDE_FRICTION;
+                float threshold = Math.abs(newTop - mOffsetCollapsed) / (float) mPeekSize;
+                return threshold > HIDE_THRESHOLD;
+            }
+            else
+            {
+                if (top < mOffsetCollapsed)
+                {
+                    return false;
+                }
+                final float newTop = top + yvel * HIDE_FRICTION;
+                float threshold = Math.abs(newTop - mOffsetCollapsed) / (float) mPeekSize;
+                return threshold > HIDE_THRESHOLD;
+            }
+        }
+        else
+        {
+            if (!mSheetHiddenBeforeOrigin)
+            {
+                if (left > mOffsetCollapsed)
+                {
+                    return false;
+                }
+                final float newLeft = left + xvel * HIDE_FRICTION;
+                float threshold = Math.abs(newLeft - mOffsetCollapsed) / (float) mPeekSize;
+                return threshold > HIDE_THRESHOLD;
+            }
+            else
+            {
+                if (left < mOffsetCollapsed)
+                {
+                    return false;
+                }
+                final float newLeft = left + xvel * HIDE_FRICTION;
+                float threshold = Math.abs(newLeft - mOffsetCollapsed) / (float) mPeekSize;
+                return threshold > HIDE_THRESHOLD;
+            }
+        }
+    }
+    
+    // onViewReleasedWithHorizontaleGesture / onViewReleasedWithVerticaleGesture
+    int getReleaseState(int left, int top, float xVelocity, float yVelocity)
+    {
+        if (mSheetMoveHorizontaly)
+        {
+            if (xVelocity > 0)
+            {
+                return mSheetHiddenBeforeOrigin ? STATE_EXPANDED : STATE_COLLAPSED;
+            }
+            else if (mHideable && shouldHide(left, top, xVelocity, yVelocity))
+            {
+                return STATE_HIDDEN;
+            }
+            else if (xVelocity == 0.f)
+            {
+                return Math.abs(left - mOffsetExpanded) < Math.abs(left - mOffsetCollapsed) ? STATE_EXPANDED : STATE_COLLAPSED;
+            }
+            return mSheetHiddenBeforeOrigin ? STATE_COLLAPSED : STATE_EXPANDED;
+        }
+        if (yVelocity > 0)
+        {
+            return mSheetHiddenBeforeOrigin ? STATE_COLLAPSED : STATE_EXPANDED;
+        }
+        else if (mHideable && shouldHide(left, top, xVelocity, yVelocity))
+        {
+            return STATE_HIDDEN;
+        }
+        else if (yVelocity == 0.f)
+        {
+            return Math.abs(top - mOffsetExpanded) < Math.abs(top - mOffsetCollapsed) ? STATE_EXPANDED : STATE_COLLAPSED;
+        }
+        return mSheetHiddenBeforeOrigin ? STATE_EXPANDED : STATE_COLLAPSED;
+    }
+    
+    // onStopNestedScroll
+    int getNestedScrollStopState(int left, int top, int lastDx, int lastDy, float xVelocity, float yVelocity)
+    {
+        int offset = mSheetMoveHorizontaly ? left : top;
+        int last = mSheetMoveHorizontaly ? lastDx : lastDy;
+        if (!mSheetHiddenBeforeOrigin)
+        {
+            if (last > 0)
+            {
+                return STATE_EXPANDED;
+            }
+        }
+        else
+        {
+            if (last < 0)
+            {
+                return STATE_EXPANDED;
+            }
+        }
+        if (mHideable && shouldHide(left, top, xVelocity, yVelocity))
+        {
+            return STATE_HIDDEN;
+        }
+        else if (last == 0)
+        {
+            return Math.abs(offset - mOffsetExpanded) < Math.abs(offset - mOffsetCollapsed) ? STATE_EXPANDED : STATE_COLLAPSED;
+        }
+        return STATE_COLLAPSED;
+    }
+    
+    /**
+     * onNestedPreScroll, for a move of {@code delta} along the moving axis.
+     *
+     * @param canScroll Answer of the scrolling target to {@code canScroll*(direction)}, queried only when the
+     *                  legacy code did.
+     * @param result    Receives the state set by the sheet (0 when none), the consumed delta and the direction
+     *                  queried on the scrolling target (0 when none).
+     */
+    void nestedPreScroll(int current, int delta, boolean canScroll, int[] result)
+    {
+        result[0] = 0;
+        result[1] = 0;
+        result[2] = 0;
+        int newOffset = current - delta;
+        if (!mSheetHiddenBeforeOrigin)
+        {
+            if (delta > 0)
+            {
+                if (newOffset < mOffsetExpanded)
+                {
+                    result[1] = current - mOffsetExpanded;
+                    result[0] = STATE_EXPANDED;
+                }
+                else
+                {
+                    result[1] = delta;
+                    result[0] = STATE_DRAGGING;
+                }
+            }
+            else if (delta < 0)
+            {
+                result[2] = -1;
+                if (!canScroll)
+                {
+                    if (newOffset <= mOffsetCollapsed || mHideable)
+                    {
+                        result[1] = delta;
+                        result[0] = STATE_DRAGGING;
+                    }
+                    else
+                    {
+                        result[1] = current - mOffsetCollapsed;
+                        result[0] = STATE_COLLAPSED;
+                    }
+                }
+            }
+        }
+        else
+        {
+            if (delta < 0)
+            {
+                if (newOffset > mOffsetExpanded)
+                {
+                    result[1] = current - mOffsetExpanded;
+                    result[0] = STATE_EXPANDED;
+                }
+                else
+                {
+                    result[1] = delta;
+                    result[0] = STATE_DRAGGING;
+                }
+            }
+            else if (delta > 0)
+            {
+                result[2] = 1;
+                if (!canScroll)
+                {
+                    if (newOffset <= mOffsetCollapsed || mHideable)
+                    {
+                        result[1] = delta;
+                        result[0] = STATE_DRAGGING;
+                    }
+                    else
+                    {
+                        result[1] = current - mOffsetCollapsed;
+                        result[0] = STATE_COLLAPSED;
+                    }
+                }
+            }
+        }
+    }
+    
+    // tryCaptureView: direction in which an expanded sheet lets its scrolling content scroll
+    int getCaptureScrollDirection()
+    {
+        if (mSheetMoveHorizontaly)
+        {
+            // SCROLL_RIGHT for a WEST sheet, SCROLL_LEFT for an EAST sheet
+            return mSheetHiddenBeforeOrigin ? 1 : -1;
+        }
+        // SCROLL_DOWN for a NORTH sheet, SCROLL_UP for a SOUTH sheet
+        return mSheetHiddenBeforeOrigin ? 1 : -1;
+    }
+    
+    // onLayoutChild, for a dragging or settling sheet
+    int getLayoutMoveOffset(int saved, int current)
+    {
+        return mSheetHiddenBeforeOrigin ? saved + current : saved - current;
+    }
+    
+    private static int mathUtilsClamp(int value, int min, int max)
+    {
+        if (value < min)
+        {
+            return min;
+        }
+        else if (value > max)
+        {
+            return max;
+        }
+        return value;
+    }
+}
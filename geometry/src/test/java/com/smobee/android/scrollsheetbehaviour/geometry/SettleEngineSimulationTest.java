@@ -0,0 +1,178 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Simulates, frame by frame, the settles of the four sheets with the spring engine and with the scroller of
+ * ViewDragHelper, and compares the frames needed to rest at the target and the overshoot.
+ */
+@RunWith(Parameterized.class)
+public class SettleEngineSimulationTest
+{
+    private static final int PARENT_WIDTH = 1080;
+    
+    private static final int PARENT_HEIGHT = 1776;
+    
+    // ViewConfiguration fling velocities at a density of 3
+    private static final float MIN_VELOCITY = 150f;
+    
+    private static final float MAX_VELOCITY = 24000f;
+    
+    private static final long FRAME_NANOS = 16666667L;
+    
+    private static final int MAX_FRAMES = 300;
+    
+    private static final float[] SPEEDS = {0f, 400f, 1500f, 6000f};
+    
+    private static final int[] TARGET_STATES = {SheetGeometry.STATE_EXPANDED, SheetGeometry.STATE_COLLAPSED, SheetGeometry.STATE_HIDDEN};
+    
+    private final int mPosition;
+    
+    private SheetGeometry mGeometry;
+    
+    @Parameterized.Parameters(name = "position={0}")
+    public static Collection<Object[]> parameters()
+    {
+        List<Object[]> parameters = new ArrayList<>();
+        parameters.add(new Object[]{SheetGeometry.POSITION_NORTH});
+        parameters.add(new Object[]{SheetGeometry.POSITION_SOUTH});
+        parameters.add(new Object[]{SheetGeometry.POSITION_EAST});
+        parameters.add(new Object[]{SheetGeometry.POSITION_WEST});
+        return parameters;
+    }
+    
+    public SettleEngineSimulationTest(int position)
+    {
+        mPosition = position;
+    }
+    
+    @Before
+    public void setUp()
+    {
+        mGeometry = new SheetGeometry();
+        mGeometry.setPosition(mPosition);
+        mGeometry.setHideable(true);
+        mGeometry.setPeekSize(240);
+        int peekSize = mGeometry.computePeekSize(PARENT_WIDTH, PARENT_HEIGHT);
+        mGeometry.computeOffsets(0, 0, PARENT_WIDTH, PARENT_HEIGHT, peekSize);
+    }
+    
+    @Test
+    public void spring_restsSoonerWithoutOvershoot()
+    {
+        ScrollerSettleEngine scroller = new ScrollerSettleEngine(MIN_VELOCITY, MAX_VELOCITY);
+        scroller.setRange(PARENT_WIDTH, mGeometry.getDragRange());
+        SpringSettleEngine spring = new SpringSettleEngine();
+        for (int targetState : TARGET_STATES)
+        {
+            int target = mGeometry.getOffsetForState(targetState);
+            for (int start = minOffset(); start <= maxOffset(); start += 37)
+            {
+                if (start == target)
+                {
+                    continue;
+                }
+                for (float speed : SPEEDS)
+                {
+                    // a release always moves the sheet towards the target chosen for it
+                    float velocity = Math.signum(target - start) * speed;
+                    String message = "state " + targetState + " start " + start + " velocity " + velocity;
+                    
+                    Settle scrolled = simulate(scroller, start, target, velocity, FRAME_NANOS);
+                    Settle sprung = simulate(spring, start, target, velocity, FRAME_NANOS);
+                    
+                    assertEquals(message, target, scrolled.mEndOffset);
+                    assertEquals(message, target, sprung.mEndOffset);
+                    assertEquals(message, 0, scrolled.mOvershoot);
+                    assertEquals(message, 0, sprung.mOvershoot);
+                    assertTrue(message + " spring " + sprung.mFrames + " scroller " + scrolled.mFrames, sprung.mFrames <= scrolled.mFrames);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void spring_withoutVelocityNeverOvershoots()
+    {
+        // critically damped: without overshoot clamping the sheet still does not go past its target
+        SpringSettleEngine spring = new SpringSettleEngine();
+        spring.setOvershootClamping(false);
+        for (int targetState : TARGET_STATES)
+        {
+            int target = mGeometry.getOffsetForState(targetState);
+            for (int start = minOffset(); start <= maxOffset(); start += 37)
+            {
+                Settle settle = simulate(spring, start, target, 0f, FRAME_NANOS);
+                assertEquals(target, settle.mEndOffset);
+                assertEquals("start " + start, 0, settle.mOvershoot);
+                assertTrue(settle.mFrames < MAX_FRAMES);
+            }
+        }
+    }
+    
+    @Test
+    public void spring_trajectoryDoesNotDependOnTheFrameRate()
+    {
+        int start = mGeometry.getOffsetForState(SheetGeometry.STATE_COLLAPSED);
+        int target = mGeometry.getOffsetForState(SheetGeometry.STATE_EXPANDED);
+        SpringSettleEngine fast = new SpringSettleEngine();
+        SpringSettleEngine slow = new SpringSettleEngine();
+        fast.start(start, target, 2000f * Math.signum(target - start));
+        slow.start(start, target, 2000f * Math.signum(target - start));
+        for (int frame = 1; frame < 30; frame++)
+        {
+            fast.computeOffset(frame * FRAME_NANOS);
+            if (frame % 2 == 0)
+            {
+                // the slow clock drops every other frame
+                slow.computeOffset(frame * FRAME_NANOS);
+                assertEquals("frame " + frame, fast.getOffset(), slow.getOffset());
+            }
+        }
+    }
+    
+    private int minOffset()
+    {
+        return Math.min(mGeometry.getOffsetExpanded(), Math.min(mGeometry.getOffsetCollapsed(), mGeometry.getOffsetHidden()));
+    }
+    
+    private int maxOffset()
+    {
+        return Math.max(mGeometry.getOffsetExpanded(), Math.max(mGeometry.getOffsetCollapsed(), mGeometry.getOffsetHidden()));
+    }
+    
+    private static Settle simulate(SettleEngine engine, int start, int target, float velocity, long frameNanos)
+    {
+        Settle settle = new Settle();
+        int direction = Integer.signum(target - start);
+        engine.start(start, target, velocity);
+        boolean running = true;
+        while (running && settle.mFrames < MAX_FRAMES)
+        {
+            settle.mFrames++;
+            running = engine.computeOffset(settle.mFrames * frameNanos);
+            settle.mOvershoot = Math.max(settle.mOvershoot, (engine.getOffset() - target) * direction);
+        }
+        settle.mEndOffset = engine.getOffset();
+        return settle;
+    }
+    
+    private static class Settle
+    {
+        int mFrames;
+        
+        int mOvershoot;
+        
+        int mEndOffset;
+    }
+}
@@ -0,0 +1,282 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks, for the four positions, that the direction based {@link SheetGeometry} takes the same decisions as
+ * the per position branch ladders of {@link LegacySheetGeometry}, over offsets sweeping the whole drag range.
+ * <p>
+ * The geometry diverges on purpose from the legacy code in three places, each one checked as an expected
+ * difference rather than an equality: the clamp of the NORTH and SOUTH sheets, the drag range, and the collapsed
+ * offset right after a change of the peek size.
+ */
+@RunWith(Parameterized.class)
+public class SheetGeometryEquivalenceTest
+{
+    private static final int PARENT_LEFT = 0;
+    
+    private static final int PARENT_TOP = 24;
+    
+    private static final int PARENT_WIDTH = 1080;
+    
+    private static final int PARENT_HEIGHT = 1776;
+    
+    private static final int PEEK_SIZE_MIN = 150;
+    
+    private static final float[] VELOCITIES = {-9000f, -1200f, -0.5f, 0f, 0.5f, 1200f, 9000f};
+    
+    private static final int[] DELTAS = {-300, -45, -1, 0, 1, 45, 300};
+    
+    private final int mPosition;
+    
+    private final boolean mHideable;
+    
+    private final boolean mSkipCollapsed;
+    
+    private final int mPeekSize;
+    
+    private SheetGeometry mGeometry;
+    
+    private LegacySheetGeometry mLegacy;
+    
+    @Parameterized.Parameters(name = "position={0} hideable={1} skipCollapsed={2} peekSize={3}")
+    public static Collection<Object[]> parameters()
+    {
+        List<Object[]> parameters = new ArrayList<>();
+        int[] positions = {SheetGeometry.POSITION_NORTH, SheetGeometry.POSITION_SOUTH, SheetGeometry.POSITION_EAST, SheetGeometry.POSITION_WEST};
+        int[] peekSizes = {SheetGeometry.PEEK_SIZE_AUTO, 0, 240};
+        for (int position : positions)
+        {
+            for (int peekSize : peekSizes)
+            {
+                parameters.add(new Object[]{position, false, false, peekSize});
+                parameters.add(new Object[]{position, true, false, peekSize});
+                parameters.add(new Object[]{position, true, true, peekSize});
+            }
+        }
+        return parameters;
+    }
+    
+    public SheetGeometryEquivalenceTest(int position, boolean hideable, boolean skipCollapsed, int peekSize)
+    {
+        mPosition = position;
+        mHideable = hideable;
+        mSkipCollapsed = skipCollapsed;
+        mPeekSize = peekSize;
+    }
+    
+    @Before
+    public void setUp()
+    {
+        mGeometry = new SheetGeometry();
+        mGeometry.setPosition(mPosition);
+        mGeometry.setHideable(mHideable);
+        mGeometry.setSkipCollapsed(mSkipCollapsed);
+        mGeometry.setPeekSize(mPeekSize);
+        mGeometry.setPeekSizeMin(PEEK_SIZE_MIN);
+        int peekSize = mGeometry.computePeekSize(PARENT_WIDTH, PARENT_HEIGHT);
+        mGeometry.computeOffsets(PARENT_LEFT, PARENT_TOP, PARENT_WIDTH, PARENT_HEIGHT, peekSize);
+        
+        mLegacy = new LegacySheetGeometry(mPosition, mHideable, mSkipCollapsed, mPeekSize, PEEK_SIZE_MIN);
+        int legacyPeekSize = mLegacy.getComputePeekSize(PARENT_WIDTH, PARENT_HEIGHT);
+        mLegacy.computeRemarquableOffsets(PARENT_LEFT, PARENT_TOP, PARENT_WIDTH, PARENT_HEIGHT, legacyPeekSize);
+        assertEquals(legacyPeekSize, peekSize);
+    }
+    
+    @Test
+    public void offsets()
+    {
+        assertEquals(mLegacy.mOffsetHidden, mGeometry.getOffsetHidden());
+        assertEquals(mLegacy.mOffsetCollapsed, mGeometry.getOffsetCollapsed());
+        assertEquals(mLegacy.mOffsetExpanded, mGeometry.getOffsetExpanded());
+        assertEquals(mLegacy.mSheetMoveHorizontaly, mGeometry.isMovingHorizontally());
+        assertEquals(mLegacy.mSheetHiddenBeforeOrigin, mGeometry.isHiddenBeforeOrigin());
+    }
+    
+    @Test
+    public void dragRange()
+    {
+        int limit = mHideable ? mLegacy.mOffsetHidden : mLegacy.mOffsetCollapsed;
+        assertEquals(Math.abs(limit - mLegacy.mOffsetExpanded), mGeometry.getDragRange());
+        if (mHideable && !mLegacy.mSheetMoveHorizontaly)
+        {
+            // expected difference: the legacy range ended at the height of the parent, not at its hidden offset
+            assertEquals(mLegacy.getDragRange() + PARENT_TOP, mGeometry.getDragRange());
+        }
+        else if (!mHideable && mLegacy.mSheetHiddenBeforeOrigin)
+        {
+            // expected difference: the legacy range of the NORTH and WEST sheets was negative
+            assertEquals(-mLegacy.getDragRange(), mGeometry.getDragRange());
+        }
+        else
+        {
+            assertEquals(mLegacy.getDragRange(), mGeometry.getDragRange());
+        }
+    }
+    
+    @Test
+    public void clampOffset()
+    {
+        for (int offset = -2 * PARENT_HEIGHT; offset <= 2 * PARENT_HEIGHT; offset += 3)
+        {
+            assertEquals("offset " + offset, expectedClamp(mLegacy, offset), mGeometry.clampOffset(offset));
+        }
+    }
+    
+    @Test
+    public void clampOffset_verticalLegacyBoundsReversed()
+    {
+        int middle = (mLegacy.mOffsetExpanded + mLegacy.mOffsetCollapsed) / 2;
+        assertEquals(middle, mGeometry.clampOffset(middle));
+        if (mLegacy.mSheetMoveHorizontaly)
+        {
+            assertEquals(middle, mLegacy.clamp(middle));
+        }
+        else
+        {
+            // expected difference: the legacy clamp sent a NORTH or SOUTH sheet to one of its bounds
+            int limit = mHideable ? mLegacy.mOffsetHidden : mLegacy.mOffsetCollapsed;
+            int legacy = mLegacy.clamp(middle);
+            assertTrue("legacy " + legacy, legacy == limit || legacy == mLegacy.mOffsetExpanded);
+        }
+    }
+    
+    @Test
+    public void releaseState()
+    {
+        for (int offset = -PARENT_HEIGHT - 100; offset <= PARENT_HEIGHT + 100; offset += 5)
+        {
+            for (float velocity : VELOCITIES)
+            {
+                int left = mGeometry.isMovingHorizontally() ? offset : PARENT_LEFT;
+                int top = mGeometry.isMovingHorizontally() ? PARENT_TOP : offset;
+                // the velocity on the other axis must not matter
+                int expected = mLegacy.getReleaseState(left, top, velocity, velocity);
+                assertEquals("offset " + offset + " velocity " + velocity, expected, mGeometry.getReleaseState(offset, velocity));
+                
+                int legacyAxisOnly = mGeometry.isMovingHorizontally()
+                        ? mLegacy.getReleaseState(left, top, velocity, -velocity)
+                        : mLegacy.getReleaseState(left, top, -velocity, velocity);
+                assertEquals("offset " + offset + " velocity " + velocity, legacyAxisOnly, mGeometry.getReleaseState(offset, velocity));
+            }
+        }
+    }
+    
+    @Test
+    public void nestedScrollStopState()
+    {
+        for (int offset = -PARENT_HEIGHT - 100; offset <= PARENT_HEIGHT + 100; offset += 5)
+        {
+            for (int delta : DELTAS)
+            {
+                for (float velocity : VELOCITIES)
+                {
+                    int left = mGeometry.isMovingHorizontally() ? offset : PARENT_LEFT;
+                    int top = mGeometry.isMovingHorizontally() ? PARENT_TOP : offset;
+                    int expected = mLegacy.getNestedScrollStopState(left, top, delta, delta, velocity, velocity);
+                    assertEquals("offset " + offset + " delta " + delta + " velocity " + velocity, expected, mGeometry.getNestedScrollStopState(offset, delta, velocity));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void nestedPreScroll()
+    {
+        int[] legacy = new int[3];
+        int awayDirection = -mGeometry.getDirection().getHideSign();
+        for (int offset = -PARENT_HEIGHT - 100; offset <= PARENT_HEIGHT + 100; offset += 5)
+        {
+            for (int delta : DELTAS)
+            {
+                for (boolean canScroll : new boolean[]{false, true})
+                {
+                    mLegacy.nestedPreScroll(offset, delta, canScroll, legacy);
+                    String message = "offset " + offset + " delta " + delta + " canScroll " + canScroll;
+                    
+                    // same sequence as SheetBehavior.onNestedPreScroll
+                    boolean queried = delta != 0 && !mGeometry.isTowardsExpanded(delta);
+                    assertEquals(message, legacy[2], queried ? awayDirection : 0);
+                    int state = 0;
+                    int consumed = 0;
+                    if (!(queried && canScroll))
+                    {
+                        state = mGeometry.getNestedPreScrollState(offset, delta);
+                        if (state != 0)
+                        {
+                            consumed = state == SheetGeometry.STATE_DRAGGING ? delta : offset - mGeometry.getOffsetForState(state);
+                        }
+                    }
+                    assertEquals(message, legacy[0], state);
+                    assertEquals(message, legacy[1], consumed);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void captureScrollDirection()
+    {
+        assertEquals(mLegacy.getCaptureScrollDirection(), -mGeometry.getDirection().getHideSign());
+    }
+    
+    @Test
+    public void layoutMoveOffset()
+    {
+        for (int saved = -PARENT_HEIGHT; saved <= PARENT_HEIGHT; saved += 97)
+        {
+            for (int current = -PARENT_HEIGHT; current <= PARENT_HEIGHT; current += 89)
+            {
+                assertEquals(mLegacy.getLayoutMoveOffset(saved, current), mGeometry.getLayoutMoveOffset(saved, current));
+            }
+        }
+    }
+    
+    @Test
+    public void hideableAndPeekChanges_keepClampBounds()
+    {
+        // the clamp bounds are cached: they must follow every change of the configuration
+        mGeometry.setHideable(!mHideable);
+        mLegacy.mHideable = !mHideable;
+        mGeometry.setPeekSize(333);
+        mLegacy.mPeekSize = 333;
+        mLegacy.mPeekSizeAuto = false;
+        mLegacy.mOffsetCollapsed = mLegacy.mParentHeight - 333;
+        
+        // expected difference: before the next layout, the legacy collapsed offset was measured from the bottom
+        // of the parent whatever the position, the geometry one is where the next layout puts it
+        LegacySheetGeometry laidOut = new LegacySheetGeometry(mPosition, !mHideable, mSkipCollapsed, 333, PEEK_SIZE_MIN);
+        laidOut.computeRemarquableOffsets(PARENT_LEFT, PARENT_TOP, PARENT_WIDTH, PARENT_HEIGHT, laidOut.getComputePeekSize(PARENT_WIDTH, PARENT_HEIGHT));
+        assertEquals(PARENT_HEIGHT - 333, mLegacy.mOffsetCollapsed);
+        assertEquals(laidOut.mOffsetCollapsed, mGeometry.getOffsetCollapsed());
+        for (int offset = -2 * PARENT_HEIGHT; offset <= 2 * PARENT_HEIGHT; offset += 7)
+        {
+            assertEquals("offset " + offset, expectedClamp(laidOut, offset), mGeometry.clampOffset(offset));
+        }
+    }
+    
+    /**
+     * @return The offset the geometry clamps to: the legacy one for the EAST and WEST sheets. The legacy clamp of
+     *         the NORTH and SOUTH sheets passed their bounds in reverse order, the geometry keeps any offset
+     *         between the expanded offset and the hidden, or collapsed, one.
+     */
+    private static int expectedClamp(LegacySheetGeometry legacy, int offset)
+    {
+        if (legacy.mSheetMoveHorizontaly)
+        {
+            return legacy.clamp(offset);
+        }
+        int limit = legacy.mHideable ? legacy.mOffsetHidden : legacy.mOffsetCollapsed;
+        return Math.max(Math.min(limit, legacy.mOffsetExpanded), Math.min(Math.max(limit, legacy.mOffsetExpanded), offset));
+    }
+}
@@ -0,0 +1,146 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SheetGeometryTest
+{
+    private static final int WIDTH = 1080;
+    
+    private static final int HEIGHT = 1776;
+    
+    private SheetGeometry mGeometry;
+    
+    @Before
+    public void setUp()
+    {
+        mGeometry = new SheetGeometry();
+        mGeometry.setPosition(SheetGeometry.POSITION_SOUTH);
+        mGeometry.setPeekSize(200);
+        layout(0, 0, WIDTH, HEIGHT);
+    }
+    
+    private void layout(int left, int top, int width, int height)
+    {
+        int peekSize = mGeometry.computePeekSize(width, height);
+        mGeometry.computeOffsets(left, top, width, height, peekSize);
+    }
+    
+    @Test
+    public void offsetCache_hitWhileNothingChanges()
+    {
+        assertTrue(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        // a relayout of the content of the sheet does not change any input
+        mGeometry.setPeekSize(200);
+        mGeometry.setHideable(false);
+        mGeometry.setPosition(SheetGeometry.POSITION_SOUTH);
+        assertTrue(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+    }
+    
+    @Test
+    public void offsetCache_missOnParentBounds()
+    {
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, HEIGHT, WIDTH));
+        assertFalse(mGeometry.hasOffsetsFor(0, 24, WIDTH, HEIGHT));
+        assertFalse(mGeometry.hasOffsetsFor(12, 0, WIDTH, HEIGHT));
+    }
+    
+    @Test
+    public void offsetCache_missOnConfiguration()
+    {
+        mGeometry.setPeekSize(300);
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        layout(0, 0, WIDTH, HEIGHT);
+        assertEquals(HEIGHT - 300, mGeometry.getOffsetCollapsed());
+        
+        mGeometry.setPeekSize(SheetGeometry.PEEK_SIZE_AUTO);
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        layout(0, 0, WIDTH, HEIGHT);
+        
+        mGeometry.setPeekSizeMin(600);
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        layout(0, 0, WIDTH, HEIGHT);
+        assertEquals(HEIGHT - 600, mGeometry.getOffsetCollapsed());
+        
+        mGeometry.setHideable(true);
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        layout(0, 0, WIDTH, HEIGHT);
+        
+        mGeometry.setPosition(SheetGeometry.POSITION_EAST);
+        assertFalse(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+        layout(0, 0, WIDTH, HEIGHT);
+        assertEquals(WIDTH, mGeometry.getOffsetHidden());
+        assertTrue(mGeometry.hasOffsetsFor(0, 0, WIDTH, HEIGHT));
+    }
+    
+    @Test
+    public void slideOffset_alongTheAxisOfEveryPosition()
+    {
+        // SOUTH: expanded 0, collapsed HEIGHT - 200, hidden HEIGHT
+        assertSlideOffsets(0, HEIGHT - 200, HEIGHT);
+        
+        mGeometry.setPosition(SheetGeometry.POSITION_NORTH);
+        layout(0, 0, WIDTH, HEIGHT);
+        assertSlideOffsets(0, -HEIGHT + 200, -HEIGHT);
+        
+        mGeometry.setPosition(SheetGeometry.POSITION_EAST);
+        layout(0, 0, WIDTH, HEIGHT);
+        assertSlideOffsets(0, WIDTH - 200, WIDTH);
+        
+        mGeometry.setPosition(SheetGeometry.POSITION_WEST);
+        layout(0, 0, WIDTH, HEIGHT);
+        assertSlideOffsets(0, -WIDTH + 200, -WIDTH);
+    }
+    
+    @Test
+    public void clampOffset_keepsTheOffsetsBetweenTheBoundsOfEveryPosition()
+    {
+        int[] positions = {SheetGeometry.POSITION_NORTH, SheetGeometry.POSITION_SOUTH, SheetGeometry.POSITION_EAST, SheetGeometry.POSITION_WEST};
+        for (int position : positions)
+        {
+            for (boolean hideable : new boolean[]{false, true})
+            {
+                mGeometry.setPosition(position);
+                mGeometry.setHideable(hideable);
+                layout(0, 0, WIDTH, HEIGHT);
+                String message = "position " + position + " hideable " + hideable;
+                int expanded = mGeometry.getOffsetExpanded();
+                int limit = hideable ? mGeometry.getOffsetHidden() : mGeometry.getOffsetCollapsed();
+                int mid = (expanded + limit) / 2;
+                assertEquals(message, mid, mGeometry.clampOffset(mid));
+                assertEquals(message, expanded, mGeometry.clampOffset(expanded - (limit - expanded)));
+                assertEquals(message, limit, mGeometry.clampOffset(limit + (limit - expanded)));
+                assertEquals(message, Math.abs(limit - expanded), mGeometry.getDragRange());
+            }
+        }
+    }
+    
+    @Test
+    public void peekSize_changedBeforeTheLayout_collapsesOnTheSideOfThePosition()
+    {
+        mGeometry.setPosition(SheetGeometry.POSITION_NORTH);
+        layout(0, 0, WIDTH, HEIGHT);
+        mGeometry.setPeekSize(300);
+        assertEquals(-HEIGHT + 300, mGeometry.getOffsetCollapsed());
+        assertEquals(-HEIGHT / 2, mGeometry.clampOffset(-HEIGHT / 2));
+        
+        mGeometry.setPosition(SheetGeometry.POSITION_WEST);
+        layout(0, 0, WIDTH, HEIGHT);
+        mGeometry.setPeekSize(400);
+        assertEquals(-WIDTH + 400, mGeometry.getOffsetCollapsed());
+        assertEquals(WIDTH - 400, mGeometry.getDragRange());
+    }
+    
+    private void assertSlideOffsets(int expanded, int collapsed, int hidden)
+    {
+        assertEquals(1f, mGeometry.computeSlideOffset(expanded), 1e-6f);
+        assertEquals(0f, mGeometry.computeSlideOffset(collapsed), 0f);
+        assertEquals(-1f, mGeometry.computeSlideOffset(hidden), 1e-6f);
+        assertEquals(0.5f, mGeometry.computeSlideOffset((expanded + collapsed) / 2), 1e-3f);
+        assertEquals(-0.5f, mGeometry.computeSlideOffset((collapsed + hidden) / 2), 1e-6f);
+    }
+}
@@ -0,0 +1,106 @@
+package com.smobee.android.scrollsheetbehaviour.geometry;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays drags sampled by a 250Hz panel and batched into one event per 60Hz frame, as MotionEvent delivers
+ * them with their historical samples, and compares the position of the finger shown at the presentation of
+ * each frame with the ground truth.
+ */
+public class TouchPredictorReplayTest
+{
+    private static final long SAMPLE_MILLIS = 4L;
+    
+    private static final long FRAME_MILLIS = 16L;
+    
+    // the frame is presented one frame after its last event
+    private static final long PRESENTATION_MILLIS = FRAME_MILLIS;
+    
+    private static final long DURATION_MILLIS = 480L;
+    
+    private static final float DISTANCE = 900f;
+    
+    // standard deviation of the noise of the panel, in pixels
+    private static final float NOISE = 1f;
+    
+    /**
+     * The finger accelerates then slows down, as in a drag that reveals a sheet.
+     */
+    private static float truth(long time)
+    {
+        return (float) (DISTANCE * (1 - Math.cos(Math.PI * time / DURATION_MILLIS)) / 2);
+    }
+    
+    /**
+     * @return The mean distance between the shown and the true positions of the finger over the frames.
+     */
+    private static float replay(boolean history, boolean predict)
+    {
+        Random random = new Random(42L);
+        TouchPredictor predictor = new TouchPredictor();
+        float sumError = 0f;
+        int frames = 0;
+        long sampleTime = 0L;
+        for (long eventTime = FRAME_MILLIS; eventTime <= DURATION_MILLIS; eventTime += FRAME_MILLIS)
+        {
+            // the samples of the batch: the historical ones, then the current one at the time of the event
+            float current = 0f;
+            for (; sampleTime <= eventTime; sampleTime += SAMPLE_MILLIS)
+            {
+                current = truth(sampleTime) + (float) random.nextGaussian() * NOISE;
+                if (history || sampleTime == eventTime)
+                {
+                    predictor.addSample(sampleTime, current);
+                }
+            }
+            long presentation = eventTime + PRESENTATION_MILLIS;
+            float shown = predict ? predictor.predict(presentation) : current;
+            sumError += Math.abs(shown - truth(presentation));
+            frames++;
+        }
+        return sumError / frames;
+    }
+    
+    @Test
+    public void prediction_fromHistoricalSamples_followsTheFingerCloser()
+    {
+        float unpredicted = replay(false, false);
+        float withoutHistory = replay(false, true);
+        float withHistory = replay(true, true);
+        // about 30 pixels behind the finger without prediction, less than 4 with it
+        assertTrue(withHistory < unpredicted / 4);
+        // one sample per event leaves a single sample in the window, nothing to extrapolate from
+        assertEquals(unpredicted, withoutHistory, 0.01f);
+    }
+    
+    @Test
+    public void prediction_steadyDrag_isExact()
+    {
+        TouchPredictor predictor = new TouchPredictor();
+        for (long time = 0L; time <= 32L; time += SAMPLE_MILLIS)
+        {
+            predictor.addSample(time, 2f * time);
+        }
+        assertEquals(96f, predictor.predict(48L), 0.01f);
+    }
+    
+    @Test
+    public void samples_outsideTheWindowOrRepeated_areIgnored()
+    {
+        TouchPredictor predictor = new TouchPredictor(20L);
+        predictor.addSample(0L, 500f);
+        predictor.addSample(100L, 10f);
+        predictor.addSample(100L, 80f);
+        // a single sample in the window: the last position
+        assertEquals(10f, predictor.predict(116L), 0f);
+        predictor.addSample(110L, 20f);
+        assertEquals(36f, predictor.predict(126L), 0.01f);
+        predictor.reset();
+        assertEquals(0, predictor.getSampleCount());
+    }
+}